@@ -27,23 +27,25 @@ function createFallbackResponse(code, message, details) {
   };
 }
 
-async function generateRecipe(requestData) {
-  try {
-    // 1. 모델 설정 (JSON 모드 강제)
-    const model = genAI.getGenerativeModel({
-      model: "gemini-2.5-flash",
-      generationConfig: { responseMimeType: "application/json" }
-    });
-
-    // 2. 입력 데이터 준비
-    const ingredientsJson = JSON.stringify(requestData.ingredients, null, 2);
-    const preferencesJson = JSON.stringify(requestData.user_preferences, null, 2);
-    
-    // 인분 수 동적 처리 (기본값 2)
-    const targetServingSize = requestData.user_preferences?.serving_size || 2;
-
-    // 3. 프롬프트 구성
-    const prompt = `
+// --- 모델 설정 (JSON 모드 강제) ---
+function getModel() {
+  return genAI.getGenerativeModel({
+    model: "gemini-2.5-flash",
+    generationConfig: { responseMimeType: "application/json" }
+  });
+}
+
+// --- 프롬프트 구성 ---
+function buildPrompt(requestData) {
+  // 1. 입력 데이터 준비
+  const ingredientsJson = JSON.stringify(requestData.ingredients, null, 2);
+  const preferencesJson = JSON.stringify(requestData.user_preferences, null, 2);
+
+  // 인분 수 동적 처리 (기본값 2)
+  const targetServingSize = requestData.user_preferences?.serving_size || 2;
+
+  // 2. 프롬프트 본문
+  return `
     # Mission
     You are 'Chef Gemini', a creative master chef specializing in clearing out refrigerators.
     Your task is to generate a single, innovative recipe based on the provided data.
@@ -96,24 +98,30 @@ async function generateRecipe(requestData) {
       }
     }
     `;
+}
 
-    // 4. AI 호출
+// --- 응답 텍스트(JSON) 파싱 ---
+function parseRecipe(text) {
+  const cleanedText = text.replace(/```json|```/g, "").trim();
+  const parsedData = JSON.parse(cleanedText);
+  return {
+    success: true,
+    recipe: parsedData.recipe,
+    usage_stats: parsedData.usage_stats
+  };
+}
+
+async function generateRecipe(requestData) {
+  try {
+    // 1. AI 호출
     console.log("🍳 Gemini API 호출 시작...");
-    const result = await model.generateContent(prompt);
+    const result = await getModel().generateContent(buildPrompt(requestData));
     const response = await result.response;
-    const text = response.text();
-
-    // 5. JSON 파싱
-    const cleanedText = text.replace(/```json|```/g, "").trim();
-    const parsedData = JSON.parse(cleanedText);
 
+    // 2. JSON 파싱
+    const parsed = parseRecipe(response.text());
     console.log("✅ 레시피 생성 성공!");
-
-    return {
-      success: true,
-      recipe: parsedData.recipe,
-      usage_stats: parsedData.usage_stats
-    };
+    return parsed;
 
   } catch (error) {
     console.error("🚨 Gemini API 오류:", error);
@@ -125,4 +133,40 @@ async function generateRecipe(requestData) {
   }
 }
 
-module.exports = { generateRecipe };
\ No newline at end of file
+/**
+ * 스트리밍 버전: 모델이 만드는 텍스트 조각을 도착하는 대로 onChunk(text)로 넘기고,
+ * 끝나면 generateRecipe와 같은 형식의 최종 결과를 반환합니다.
+ * signal이 abort되면 Gemini 요청도 함께 취소됩니다. (클라이언트가 연결을 끊은 경우)
+ */
+async function generateRecipeStream(requestData, onChunk, signal) {
+  try {
+    console.log("🍳 Gemini API 스트리밍 호출 시작...");
+    const result = await getModel().generateContentStream(buildPrompt(requestData), { signal });
+
+    let text = "";
+    for await (const chunk of result.stream) {
+      const piece = chunk.text();
+      if (!piece) continue;
+      text += piece;
+      await onChunk(piece);
+    }
+
+    const parsed = parseRecipe(text);
+    console.log("✅ 레시피 스트리밍 생성 성공!");
+    return parsed;
+
+  } catch (error) {
+    if (signal && signal.aborted) {
+      console.log("⏹️ 클라이언트 연결 종료로 레시피 생성 취소");
+      return null;
+    }
+    console.error("🚨 Gemini API 스트리밍 오류:", error);
+    return createFallbackResponse(
+      "GENERATION_FAILED",
+      "레시피 생성 중 오류 발생",
+      error.message
+    );
+  }
+}
+
+module.exports = { generateRecipe, generateRecipeStream };
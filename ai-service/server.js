@@ -1,7 +1,7 @@
 // server.js
 const express = require('express');
 const cors = require('cors');
-const { generateRecipe } = require('./geminiService');
+const { generateRecipe, generateRecipeStream } = require('./geminiService');
 
 const app = express();
 const port = 8000; // 포트 번호
@@ -37,6 +37,53 @@ app.post('/api/generate-recipe', async (req, res) => {
   }
 });
 
+// 스트리밍 라우터: 생성 중인 텍스트를 SSE로 바로바로 전달
+// 이벤트: chunk ({ text }) 여러 번 → done (generate-recipe와 같은 형식의 최종 결과) 1번
+app.post('/api/generate-recipe/stream', async (req, res) => {
+  console.log("레시피 스트리밍 생성 요청 받음!");
+
+  res.set({
+    'Content-Type': 'text/event-stream; charset=utf-8',
+    'Cache-Control': 'no-cache',
+    'Connection': 'keep-alive'
+  });
+  res.flushHeaders();
+
+  // 클라이언트(Spring Boot)가 연결을 끊으면 Gemini 요청도 취소
+  const controller = new AbortController();
+  res.on('close', () => {
+    if (!res.writableEnded) controller.abort();
+  });
+
+  // 백프레셔: 소켓 버퍼가 차면 비워질 때까지 다음 조각을 기다림
+  // (drain/close 중 먼저 온 쪽에서 나머지 리스너를 떼어, 조각마다 리스너가 쌓이지 않도록)
+  const send = (event, data) => new Promise((resolve) => {
+    if (controller.signal.aborted) return resolve();
+    const ok = res.write(`event: ${event}\ndata: ${JSON.stringify(data)}\n\n`);
+    if (ok) return resolve();
+    const done = () => {
+      res.off('drain', done);
+      res.off('close', done);
+      resolve();
+    };
+    res.once('drain', done);
+    res.once('close', done);
+  });
+
+  try {
+    const result = await generateRecipeStream(req.body, (text) => send('chunk', { text }), controller.signal);
+    if (result) await send('done', result);
+  } catch (error) {
+    console.error("❌ 서버 내부 치명적 오류:", error);
+    await send('done', {
+        success: false,
+        message: "서버 내부 오류",
+        details: error.toString()
+    });
+  }
+  res.end();
+});
+
 // 서버 시작
 app.listen(port, () => {
   console.log(`AI 서버가 http://localhost:${port} 에서 실행 중입니다.`);
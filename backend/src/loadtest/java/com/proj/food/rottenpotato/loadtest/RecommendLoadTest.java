@@ -0,0 +1,144 @@
+package com.proj.food.rottenpotato.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 레시피 추천 API 부하 테스트 (./gradlew loadTest)
+ * 실행 중인 서버의 추천 API를 정해진 동시성으로 호출하고, 지연 시간 분포(p50/p95/p99)와
+ * 호출 1건당 실제 크롤링 요청 수(/recipes/cache/stats의 outboundRequests 증가분)를 출력합니다.
+ * 실제 사이트에 부하를 주지 않도록 fixture 서버를 먼저 띄우고, 서버는 크롤링 대상을 그 주소로 바꿔 실행합니다.
+ *   ./gradlew recipeFixtureServer -Precipe.fixture-server.latency-ms=50
+ *   --recipe.crawler.base-url=http://localhost:18090
+ *
+ * 설정 (-P 또는 -D, 모두 선택):
+ *   loadtest.target       대상 서버 (기본 http://localhost:8080)
+ *   loadtest.endpoints    호출할 경로, 쉼표 구분 (기본 /recipes/recommend,/inventory/recommend)
+ *   loadtest.concurrency  동시 요청 수 (기본 16)
+ *   loadtest.requests     경로별 측정 요청 수 (기본 500)
+ *   loadtest.warmup       경로별 워밍업 요청 수, 측정에서 제외 (기본 50)
+ *   loadtest.ingredients  재료 조합 목록, 조합은 ';' 재료는 ',' 구분 (요청마다 순서대로 돌아가며 사용)
+ *   loadtest.timeout-ms   요청 1건 제한 시간 (기본 30000)
+ */
+public class RecommendLoadTest {
+
+    private static final Pattern OUTBOUND = Pattern.compile("\"outboundRequests\"\\s*:\\s*(\\d+)");
+
+    public static void main(String[] args) throws Exception {
+        String target = System.getProperty("loadtest.target", "http://localhost:8080");
+        List<String> endpoints = Arrays.asList(System.getProperty("loadtest.endpoints",
+                "/recipes/recommend,/inventory/recommend").split(","));
+        int concurrency = Integer.getInteger("loadtest.concurrency", 16);
+        int requests = Integer.getInteger("loadtest.requests", 500);
+        int warmup = Integer.getInteger("loadtest.warmup", 50);
+        long timeoutMs = Long.getLong("loadtest.timeout-ms", 30000L);
+        List<String> bodies = new ArrayList<>();
+        for (String set : System.getProperty("loadtest.ingredients",
+                "계란,우유;닭고기,양파;돼지고기,김치;두부,대파;감자,당근;우유,계란;소고기,무;양파,닭고기").split(";")) {
+            bodies.add(toJsonArray(set.split(",")));
+        }
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        System.out.printf("대상 %s, 동시성 %d, 경로별 요청 %d건 (워밍업 %d건), 재료 조합 %d개%n",
+                target, concurrency, requests, warmup, bodies.size());
+
+        for (String endpoint : endpoints) {
+            URI uri = URI.create(target + endpoint.trim());
+            run(client, uri, bodies, warmup, concurrency, timeoutMs);
+
+            long outboundBefore = outboundRequests(client, target);
+            long start = System.nanoTime();
+            Result result = run(client, uri, bodies, requests, concurrency, timeoutMs);
+            double elapsedSec = (System.nanoTime() - start) / 1e9;
+            long outbound = outboundRequests(client, target) - outboundBefore;
+
+            long[] sorted = result.latencies.clone();
+            Arrays.sort(sorted);
+            System.out.printf("%-22s 요청 %d  실패 %d  %.1f req/s  p50 %.1fms  p95 %.1fms  p99 %.1fms  max %.1fms  크롤링 %.2f건/호출%n",
+                    endpoint.trim(), requests, result.failures.get(), requests / elapsedSec,
+                    percentile(sorted, 50), percentile(sorted, 95), percentile(sorted, 99),
+                    sorted.length > 0 ? sorted[sorted.length - 1] / 1e6 : 0,
+                    outboundBefore >= 0 ? (double) outbound / requests : Double.NaN);
+        }
+
+        HttpResponse<String> stats = client.send(HttpRequest.newBuilder(URI.create(target + "/recipes/cache/stats")).build(),
+                HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+        System.out.println("캐시/크롤러 통계: " + stats.body());
+    }
+
+    private record Result(long[] latencies, AtomicInteger failures) {
+    }
+
+    private static Result run(HttpClient client, URI uri, List<String> bodies, int count, int concurrency, long timeoutMs)
+            throws InterruptedException {
+        long[] latencies = new long[count];
+        AtomicInteger failures = new AtomicInteger();
+        Semaphore permits = new Semaphore(concurrency);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < count; i++) {
+                permits.acquire();
+                int index = i;
+                executor.execute(() -> {
+                    HttpRequest request = HttpRequest.newBuilder(uri)
+                            .timeout(Duration.ofMillis(timeoutMs))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(bodies.get(index % bodies.size()), StandardCharsets.UTF_8))
+                            .build();
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() / 100 != 2) failures.incrementAndGet();
+                    } catch (Exception e) {
+                        failures.incrementAndGet();
+                    } finally {
+                        latencies[index] = System.nanoTime() - start;
+                        permits.release();
+                    }
+                });
+            }
+        }
+        return new Result(latencies, failures);
+    }
+
+    // 서버의 누적 크롤링 요청 수 (조회 실패 시 -1)
+    private static long outboundRequests(HttpClient client, String target) {
+        try {
+            HttpResponse<String> response = client.send(
+                    HttpRequest.newBuilder(URI.create(target + "/recipes/cache/stats")).build(),
+                    HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+            Matcher matcher = OUTBOUND.matcher(response.body());
+            return matcher.find() ? Long.parseLong(matcher.group(1)) : -1;
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    private static double percentile(long[] sorted, int percentile) {
+        if (sorted.length == 0) return 0;
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+
+    private static String toJsonArray(String[] values) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) json.append(',');
+            json.append('"').append(values[i].trim().replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+        }
+        return json.append(']').toString();
+    }
+}
@@ -0,0 +1,12 @@
+package com.proj.food.rottenpotato.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * @Scheduled 작업 (상품 사전 변경 감지 등) 활성화
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -2,6 +2,7 @@ package com.proj.food.rottenpotato.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
@@ -22,6 +23,10 @@ public class SecurityConfig {
             .authorizeHttpRequests(authorize -> authorize
                 // 모든 /receipt/**, /inventory/** 경로는 인증 없이 접근 허용
                 .requestMatchers("/receipt/**", "/inventory/**", "/auth/**").permitAll()
+                // 레시피 추천은 /inventory/recommend와 같은 공개 기능, 통계는 /inventory/**/stats처럼 읽기 전용
+                // (부하 테스트가 추천 호출 전후로 cache/stats를 읽음) → 이 세 경로만 허용
+                .requestMatchers(HttpMethod.POST, "/recipes/recommend").permitAll()
+                .requestMatchers(HttpMethod.GET, "/recipes/index/stats", "/recipes/cache/stats").permitAll()
                 // 나머지 모든 요청은 인증 필요 (기본값)
                 .anyRequest().authenticated()
             );
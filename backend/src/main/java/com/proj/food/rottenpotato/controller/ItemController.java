@@ -1,40 +1,158 @@
 package com.proj.food.rottenpotato.controller;
 
+import com.proj.food.rottenpotato.dto.InventoryItemDTO;
 import com.proj.food.rottenpotato.dto.RecipeDTO;
+import com.proj.food.rottenpotato.service.GeminiApiService;
+import com.proj.food.rottenpotato.service.InventoryQuery;
+import com.proj.food.rottenpotato.service.InventoryStreamService;
 import com.proj.food.rottenpotato.service.ItemService;
 import com.proj.food.rottenpotato.service.RecipeCrawlerService;
+import com.proj.food.rottenpotato.service.RecipeScorer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.AbstractMap;
-import java.util.Comparator;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/inventory")
 public class ItemController {
 
+    // 한 페이지 최대 크기
+    private static final int MAX_PAGE_SIZE = 500;
+
+    // 서버가 뜰 때마다 바뀌는 값 → 재시작 후 버전 번호가 다시 시작되어도 이전 ETag와 겹치지 않음
+    private static final String ETAG_EPOCH = Long.toString(System.currentTimeMillis(), 36);
+
     private final ItemService itemService;
     private final RecipeCrawlerService recipeCrawlerService;
+    private final InventoryStreamService inventoryStreamService;
+    private final RecipeScorer recipeScorer;
+    private final GeminiApiService geminiApiService;
+
+    // 레시피 색인에서 이 개수 이상 찾으면 실시간 크롤링을 하지 않음 / 색인에서 가져올 최대 개수
+    @Value("${recipe.index.min-results:5}")
+    private int indexMinResults;
+
+    @Value("${recipe.index.max-results:20}")
+    private int indexMaxResults;
 
     @Autowired
-    public ItemController(ItemService itemService, RecipeCrawlerService recipeCrawlerService) {
+    public ItemController(ItemService itemService, RecipeCrawlerService recipeCrawlerService,
+                          InventoryStreamService inventoryStreamService, RecipeScorer recipeScorer,
+                          GeminiApiService geminiApiService) {
         this.itemService = itemService;
         this.recipeCrawlerService = recipeCrawlerService;
+        this.inventoryStreamService = inventoryStreamService;
+        this.recipeScorer = recipeScorer;
+        this.geminiApiService = geminiApiService;
     }
 
+    /**
+     * ✅ 사용자의 재고 목록을 조회합니다. (필터, 정렬, 커서 페이지네이션, 조건부 GET 지원)
+     * 파라미터 없이 호출하면 기존처럼 전체 목록을 품목 ID 순으로 반환합니다.
+     * - 다음 페이지가 있으면 X-Next-Cursor 응답 헤더로 커서를 내려주며, 다음 요청의 cursor 파라미터로 사용합니다.
+     * - 응답의 ETag를 If-None-Match로 보내면, 재고가 바뀌지 않은 경우 본문 없이 304를 반환합니다.
+     * @param userId 사용자 ID (X-User-Id 헤더, 없으면 "guest")
+     * @param category 카테고리 필터
+     * @param expireFrom 만료일 하한 (yyyy-MM-dd, 포함)
+     * @param expireTo 만료일 상한 (yyyy-MM-dd, 포함)
+     * @param sort 정렬 기준: id (기본) | expireDate
+     * @param order 정렬 방향: asc (기본) | desc
+     * @param limit 페이지 크기 (최대 500, 없으면 전체)
+     * @param cursor 이전 응답의 X-Next-Cursor 값
+     */
     @GetMapping
-    public List<Map<String, Object>> getAllInventory() {
-        return itemService.getAllItems();
+    public ResponseEntity<?> getAllInventory(
+            @RequestHeader(value = "X-User-Id", defaultValue = "guest") String userId,
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate expireFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate expireTo,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(defaultValue = "asc") String order,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor) {
+
+        // 1. 변경 여부 확인 (재고를 읽기 전에 버전을 먼저 읽어야 오래된 ETag로 새 데이터를 가리지 않음)
+        String etag = "\"" + ETAG_EPOCH + "-" + itemService.getVersion(userId) + "-"
+                + Integer.toHexString(String.join("|", String.valueOf(category), String.valueOf(expireFrom),
+                        String.valueOf(expireTo), sort, order, String.valueOf(limit), String.valueOf(cursor)).hashCode())
+                + "\"";
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        // 2. 조회 조건 구성
+        if (!sort.equals("id") && !sort.equals("expireDate")) {
+            return ResponseEntity.badRequest().body(Map.of("error", "sort는 id 또는 expireDate만 가능합니다."));
+        }
+        if (!order.equals("asc") && !order.equals("desc")) {
+            return ResponseEntity.badRequest().body(Map.of("error", "order는 asc 또는 desc만 가능합니다."));
+        }
+        int pageSize = limit == null ? Integer.MAX_VALUE : Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+
+        InventoryQuery query;
+        try {
+            // 다음 페이지 존재 여부를 알기 위해 1개 더 조회
+            query = new InventoryQuery(category, expireFrom, expireTo, sort.equals("expireDate"), order.equals("desc"),
+                    null, null, pageSize == Integer.MAX_VALUE ? pageSize : pageSize + 1).withCursor(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+
+        // 3. 조회 및 다음 페이지 커서
+        List<InventoryItemDTO> items = itemService.queryItems(userId, query);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(etag);
+        if (items.size() > pageSize) {
+            items = items.subList(0, pageSize);
+            response.header("X-Next-Cursor", query.cursorAfter(items.get(pageSize - 1)));
+        }
+        return response.body(items);
+    }
+
+    /**
+     * ✅ N일 안에 만료되는 품목을 만료일 순으로 조회합니다.
+     * @param days 오늘 기준 며칠 후까지 (기본 3일)
+     * @param includeExpired 이미 만료된 품목도 포함할지 여부 (기본 false)
+     */
+    @GetMapping("/expiring")
+    public List<InventoryItemDTO> getExpiringItems(@RequestHeader(value = "X-User-Id", defaultValue = "guest") String userId,
+                                                   @RequestParam(defaultValue = "3") int days,
+                                                   @RequestParam(defaultValue = "false") boolean includeExpired) {
+        return itemService.getExpiringItems(userId, Math.max(days, 0), includeExpired);
+    }
+
+    /**
+     * ✅ 재고 변경 스트림(SSE)을 구독합니다. 목록을 반복 조회하지 않아도 변경 사항을 받을 수 있습니다.
+     * 이벤트: added (추가된 품목 목록), deleted ({itemId}), expiring (소비기한 임박 품목 목록),
+     * resync (놓친 이벤트가 있으니 /inventory를 다시 조회)
+     * @param lastEventId 재연결 시 마지막으로 받은 이벤트 ID (브라우저 EventSource가 자동으로 보냄)
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamInventory(@RequestHeader(value = "X-User-Id", defaultValue = "guest") String userId,
+                                      @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return inventoryStreamService.subscribe(userId, lastEventId);
+    }
+
+    @GetMapping("/stream/stats")
+    public Map<String, Object> getStreamStats() {
+        return inventoryStreamService.getStats();
     }
 
     @DeleteMapping("/{itemId}")
-    public ResponseEntity<String> deleteItem(@PathVariable Long itemId) {
-        boolean isDeleted = itemService.deleteItem(itemId);
+    public ResponseEntity<String> deleteItem(@RequestHeader(value = "X-User-Id", defaultValue = "guest") String userId,
+                                             @PathVariable Long itemId) {
+        boolean isDeleted = itemService.deleteItem(userId, itemId);
 
         if (isDeleted) {
             return ResponseEntity.ok(itemId + "번 품목이 성공적으로 삭제되었습니다.");
@@ -45,54 +163,100 @@ public class ItemController {
 
     /**
      * ✅ [최종 로직] 재고 기반 레시피를 추천하고, 메인 재료 우선순위로 정렬합니다.
+     * 사용자 재고에서 소비기한이 가까운 재료가 들어간 레시피일수록 점수를 더 받습니다.
+     * @param userId 사용자 ID (X-User-Id 헤더, 없으면 "guest")
      * @param selectedIngredients 사용자가 선택한 재고 품목 리스트 (예: ["닭고기", "양파"])
      */
     @PostMapping("/recommend")
-    public List<RecipeDTO> recommendRecipes(@RequestBody List<String> selectedIngredients) {
+    public List<RecipeDTO> recommendRecipes(@RequestHeader(value = "X-User-Id", defaultValue = "guest") String userId,
+                                            @RequestBody List<String> selectedIngredients) {
 
         if (selectedIngredients == null || selectedIngredients.isEmpty()) {
             return List.of();
         }
         
-        // 1. 재료를 검색 키워드로 변환
-        String searchKeyword = selectedIngredients.stream()
-                .collect(Collectors.joining(" "));
+        // 0. 로컬 레시피 색인에서 먼저 찾음 (네트워크 없이 같은 점수 규칙으로 정렬된 결과)
+        List<RecipeDTO> indexed = recipeScorer.recommend(userId, selectedIngredients, indexMaxResults);
+        if (indexed.size() >= indexMinResults) {
+            return indexed;
+        }
 
-        // 2. 크롤링 수행
-        List<RecipeDTO> crawledRecipes = recipeCrawlerService.crawlRecipeDetails(searchKeyword);
+        // 1~2. 색인 결과가 부족하면 실시간 크롤링 (같은 재료 조합의 동시 요청은 크롤링 1번을 공유)
+        List<RecipeDTO> crawledRecipes = recipeCrawlerService.crawlRecipesFor(selectedIngredients);
         
-        // 3. 재료 매칭 점수 계산 및 정렬 (우선순위 로직)
-        List<String> normalizedSelectedIngredients = selectedIngredients.stream()
-                .map(s -> s.toLowerCase(Locale.ROOT))
-                .collect(Collectors.toList());
-        
-        String mainIngredient = normalizedSelectedIngredients.get(0); // 첫 번째 재료를 메인 재료로 간주
-
-        return crawledRecipes.stream()
-                .filter(recipe -> recipe.getIngredients() != null && !recipe.getIngredients().isEmpty())
-                .map(recipe -> {
-                    // 3-1. 레시피 재료를 소문자로 변환 (크롤링 데이터 정규화)
-                    List<String> normalizedRecipeIngredients = recipe.getIngredients().stream()
-                        .map(s -> s.toLowerCase(Locale.ROOT))
-                        .collect(Collectors.toList());
-
-                    // 3-2. 기본 점수: 일치하는 재료 개수 카운트
-                    long matchCount = normalizedSelectedIngredients.stream()
-                        .filter(normalizedRecipeIngredients::contains)
-                        .count();
-                    
-                    // 3-3. 메인 재료 보너스: 메인 재료 포함 시 100점 가산
-                    long mainIngredientBonus = normalizedRecipeIngredients.stream()
-                        .anyMatch(recipeIngredient -> recipeIngredient.contains(mainIngredient)) 
-                        ? 100L : 0L;
-                    
-                    long totalScore = matchCount + mainIngredientBonus;
-                    
-                    return new AbstractMap.SimpleEntry<>(recipe, totalScore);
-                })
-                .filter(entry -> entry.getValue() > 0) // 매칭 점수가 0인 레시피는 제외
-                .sorted(Comparator.comparing(AbstractMap.SimpleEntry<RecipeDTO, Long>::getValue).reversed()) // 총점 내림차순 정렬
-                .map(AbstractMap.SimpleEntry::getKey) 
-                .collect(Collectors.toList());
+        // 3. 재료 매칭 점수 계산 및 정렬 (우선순위 로직, 점수 0인 레시피 제외)
+        List<RecipeDTO> scored = recipeScorer.rank(userId, selectedIngredients, crawledRecipes);
+
+        // 4. 크롤링에 실패한 레시피는 점수를 매길 수 없으므로 error와 함께 맨 뒤에 붙임
+        crawledRecipes.stream()
+                .filter(recipe -> recipe.getError() != null)
+                .forEach(scored::add);
+        return scored;
+    }
+
+    /**
+     * ✅ 사용자 재고 전체를 재료로 AI 레시피를 생성합니다. (Node.js AI 서버 호출)
+     * AI 서버가 느리거나 장애 중이면 기다리지 않고 최근 성공 응답(cached: true) 또는 대체 응답(success: false)을 반환합니다.
+     * @param userId 사용자 ID (X-User-Id 헤더, 없으면 "guest")
+     * @param body { "user_preferences": {...}, "additional_requirements": "..." }
+     */
+    @PostMapping("/ai-generate")
+    public ResponseEntity<?> generateAiRecipe(@RequestHeader(value = "X-User-Id", defaultValue = "guest") String userId,
+                                              @RequestBody(required = false) Map<String, Object> body) {
+        List<Map<String, Object>> ingredients = toAiIngredients(itemService.getAllItems(userId));
+        if (ingredients.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "재고가 비어 있어 AI 레시피를 만들 수 없습니다."));
+        }
+        return ResponseEntity.ok(geminiApiService.generateRecipe(ingredients, preferencesOf(body), requirementsOf(body)));
+    }
+
+    /**
+     * ✅ /ai-generate의 스트리밍 버전(SSE). 생성 중인 텍스트를 받는 대로 보내 첫 응답까지 기다리지 않습니다.
+     * 이벤트: start (요청 접수) → chunk ({"text"}) 여러 번 → done (/ai-generate와 같은 형식의 최종 결과)
+     * 연결을 끊으면 AI 서버의 생성 요청도 취소됩니다. (POST이므로 브라우저에서는 EventSource 대신 fetch 스트림으로 읽음)
+     * @param userId 사용자 ID (X-User-Id 헤더, 없으면 "guest")
+     * @param body { "user_preferences": {...}, "additional_requirements": "..." }
+     */
+    @PostMapping(value = "/ai-generate/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<?> streamAiRecipe(@RequestHeader(value = "X-User-Id", defaultValue = "guest") String userId,
+                                            @RequestBody(required = false) Map<String, Object> body) {
+        List<Map<String, Object>> ingredients = toAiIngredients(itemService.getAllItems(userId));
+        if (ingredients.isEmpty()) {
+            return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of("error", "재고가 비어 있어 AI 레시피를 만들 수 없습니다."));
+        }
+        return ResponseEntity.ok(geminiApiService.streamRecipe(ingredients, preferencesOf(body), requirementsOf(body)));
+    }
+
+    @GetMapping("/ai-generate/stats")
+    public Map<String, Object> getAiStats() {
+        return geminiApiService.getStats();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> preferencesOf(Map<String, Object> body) {
+        return body != null && body.get("user_preferences") instanceof Map<?, ?> map ? (Map<String, Object>) map : Map.of();
+    }
+
+    private static String requirementsOf(Map<String, Object> body) {
+        return body != null && body.get("additional_requirements") instanceof String text ? text : null;
+    }
+
+    // 재고 품목 → AI 서버 재료 형식 (소비기한이 가까울수록 priority_score가 높음, 1~5)
+    // (만료일은 분류 단계에서 항상 채워지고 DB 컬럼도 NOT NULL)
+    private static List<Map<String, Object>> toAiIngredients(List<InventoryItemDTO> items) {
+        LocalDate today = LocalDate.now();
+        return items.stream().map(item -> {
+            long daysLeft = ChronoUnit.DAYS.between(today, item.expireDate());
+            Map<String, Object> ingredient = new LinkedHashMap<>();
+            ingredient.put("name", item.name());
+            ingredient.put("quantity", item.quantity());
+            ingredient.put("category", item.category());
+            ingredient.put("expire_date", item.expireDate().toString());
+            ingredient.put("days_until_expiry", daysLeft);
+            ingredient.put("priority_score",
+                    daysLeft <= 1 ? 5 : daysLeft <= 3 ? 4 : daysLeft <= 7 ? 3 : daysLeft <= 14 ? 2 : 1);
+            return ingredient;
+        }).toList();
     }
-}
\ No newline at end of file
+}
@@ -1,106 +1,143 @@
 package com.proj.food.rottenpotato.controller;
 
-import com.proj.food.rottenpotato.service.FoodClassifierService;
-import com.proj.food.rottenpotato.service.ReceiptOcrService;
-import com.proj.food.rottenpotato.service.ReceiptTextParser;
-import com.proj.food.rottenpotato.service.ItemService;
+import com.proj.food.rottenpotato.dto.InventoryItemDTO;
+import com.proj.food.rottenpotato.service.OcrResultCache;
+import com.proj.food.rottenpotato.service.ProductDictionaryLoader;
+import com.proj.food.rottenpotato.service.ReceiptIngestionService;
+import com.proj.food.rottenpotato.service.ReceiptJob;
+import com.proj.food.rottenpotato.service.ReceiptJobService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.beans.factory.annotation.Autowired;
 
-import java.io.File;
 import java.io.IOException;
-import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/receipt")
 public class ReceiptController {
 
-    private final ReceiptOcrService ocrService;
-    private final ReceiptTextParser parser;
-    private final FoodClassifierService classifier;
-    private final ItemService itemService;
+    private final ReceiptIngestionService ingestionService;
+    private final ReceiptJobService jobService;
+    private final OcrResultCache ocrCache;
+    private final ProductDictionaryLoader dictionaryLoader;
 
     @Autowired
-    public ReceiptController(ReceiptOcrService ocrService, ReceiptTextParser parser,
-                             FoodClassifierService classifier, ItemService itemService) {
-        this.ocrService = ocrService;
-        this.parser = parser;
-        this.classifier = classifier;
-        this.itemService = itemService;
+    public ReceiptController(ReceiptIngestionService ingestionService, ReceiptJobService jobService,
+                             OcrResultCache ocrCache, ProductDictionaryLoader dictionaryLoader) {
+        this.ingestionService = ingestionService;
+        this.jobService = jobService;
+        this.ocrCache = ocrCache;
+        this.dictionaryLoader = dictionaryLoader;
     }
 
     @PostMapping("/upload")
-    public List<Map<String, Object>> uploadReceipt(@RequestParam("file") MultipartFile file) throws IOException {
-
-        File tempFile = File.createTempFile("receipt-", ".png");
-        List<Map<String, Object>> classifiedItems = new ArrayList<>();
+    public List<InventoryItemDTO> uploadReceipt(@RequestHeader(value = "X-User-Id", defaultValue = "guest") String userId,
+                                                @RequestParam("file") MultipartFile file) throws IOException {
 
         try {
-            file.transferTo(tempFile);
-
-            // OCR 실행
-            Map<String, Object> ocrResult = ocrService.detectReceiptText(tempFile.getAbsolutePath());
-            String text = (String) ocrResult.get("text");
-            LocalDate receiptDate = (LocalDate) ocrResult.get("receiptDate");
-
-            if (text == null || text.trim().isEmpty()) {
-                return Collections.emptyList();
-            }
-
-            // 텍스트 파싱
-            List<Map<String, Object>> parsedItems = parser.parseReceipt(text);
+            // OCR 실행 (같은 이미지를 이전에 처리했다면 캐시 결과 사용) 후 파싱/분류/저장
+            return ingestionService.ingest(userId, file.getBytes(), stage -> {});
 
-            // 🔥 중복 품목 자동 합치기
-            Map<String, Map<String, Object>> mergedMap = new LinkedHashMap<>();
-
-            for (Map<String, Object> item : parsedItems) {
-                String name = (String) item.get("name");
-                int quantity = (int) item.get("quantity");
-
-                if (mergedMap.containsKey(name)) {
-                    int currentQty = (int) mergedMap.get(name).get("quantity");
-                    mergedMap.get(name).put("quantity", currentQty + quantity);
-                } else {
-                    mergedMap.put(name, new HashMap<>(item));
-                }
-            }
+        } catch (Exception e) {
+            System.err.println("파일 업로드/OCR 파이프라인 처리 중 오류 발생: " + e.getMessage());
+            e.printStackTrace();
+            throw new IOException("파일 처리 중 오류 발생: " + e.getMessage());
+        }
+    }
 
-            List<Map<String, Object>> mergedItems = new ArrayList<>(mergedMap.values());
+    /**
+     * ✅ 여러 영수증을 한 번에 업로드합니다. OCR은 Vision API 배치 호출로 묶어서 처리합니다.
+     * @param files 영수증 이미지 파일 목록
+     * @return 파일 순서대로 { "fileName", "items" } 또는 { "fileName", "error" }
+     */
+    @PostMapping("/upload-batch")
+    public List<Map<String, Object>> uploadReceipts(@RequestHeader(value = "X-User-Id", defaultValue = "guest") String userId,
+                                                    @RequestParam("files") List<MultipartFile> files) throws IOException {
 
-            System.out.println("=== [DEBUG] Merged Items ===");
-            for (Map<String, Object> item : mergedItems) {
-                System.out.println(item.get("name") + " x " + item.get("quantity"));
+        try {
+            List<byte[]> images = new ArrayList<>(files.size());
+            for (MultipartFile file : files) {
+                images.add(file.getBytes());
             }
-            System.out.println("============================");
 
-            // 분류 후 저장
-            for (Map<String, Object> item : mergedItems) {
+            // OCR 실행 (캐시에 없는 이미지만 배치로 요청)
+            List<Map<String, Object>> ocrResults = ingestionService.detectWithCache(images);
 
-                String name = (String) item.get("name");
-                int quantity = (int) item.get("quantity");
+            List<Map<String, Object>> results = new ArrayList<>(files.size());
+            for (int i = 0; i < files.size(); i++) {
+                String fileName = String.valueOf(files.get(i).getOriginalFilename());
+                Map<String, Object> ocrResult = ocrResults.get(i);
 
-                if (!classifier.isFood(name)) {
-                    System.out.println("--- [DEBUG: Filtered] 비식품 항목 건너뜀: " + name);
+                if (ocrResult.containsKey("error")) {
+                    results.add(Map.of("fileName", fileName, "error", ocrResult.get("error")));
                     continue;
                 }
-
-                Map<String, Object> classified = classifier.classifyItem(name, quantity, receiptDate);
-                Map<String, Object> savedItem = itemService.addItem(classified);
-                classifiedItems.add(savedItem);
+                results.add(Map.of("fileName", fileName, "items", ingestionService.ingest(userId, ocrResult, stage -> {})));
             }
-
-            return classifiedItems;
+            return results;
 
         } catch (Exception e) {
-            System.err.println("파일 업로드/OCR 파이프라인 처리 중 오류 발생: " + e.getMessage());
+            System.err.println("배치 업로드/OCR 파이프라인 처리 중 오류 발생: " + e.getMessage());
             e.printStackTrace();
             throw new IOException("파일 처리 중 오류 발생: " + e.getMessage());
-        } finally {
-            if (tempFile.exists()) {
-                tempFile.delete();
-            }
         }
     }
+
+    /**
+     * ✅ 영수증 처리를 비동기 작업으로 등록하고 작업 ID를 즉시 반환합니다.
+     * 진행 상황과 결과는 GET /receipt/jobs/{jobId}로 조회합니다.
+     * 대기열이 가득 차면 503을 반환합니다.
+     */
+    @PostMapping("/upload-async")
+    public ResponseEntity<Map<String, Object>> uploadReceiptAsync(@RequestHeader(value = "X-User-Id", defaultValue = "guest") String userId,
+                                                                  @RequestParam("file") MultipartFile file) throws IOException {
+        try {
+            ReceiptJob job = jobService.submit(userId, file.getBytes());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job.toView());
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("error", "영수증 처리 대기열이 가득 찼습니다. 잠시 후 다시 시도해 주세요."));
+        }
+    }
+
+    /**
+     * ✅ 작업 진행 상황과 결과를 조회합니다. 다른 사용자의 작업은 없는 작업과 같이 404를 반환합니다.
+     */
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<Map<String, Object>> getJob(@RequestHeader(value = "X-User-Id", defaultValue = "guest") String userId,
+                                                      @PathVariable String jobId) {
+        ReceiptJob job = jobService.getJob(userId, jobId);
+        if (job == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", jobId + " 작업을 찾을 수 없습니다."));
+        }
+        return ResponseEntity.ok(job.toView());
+    }
+
+    /**
+     * ✅ 비동기 작업 워커/대기열 현황을 조회합니다.
+     */
+    @GetMapping("/jobs/stats")
+    public Map<String, Object> getJobStats() {
+        return jobService.getStats();
+    }
+
+    /**
+     * ✅ OCR 결과 캐시의 적중/미스 통계를 조회합니다.
+     */
+    @GetMapping("/ocr-cache/stats")
+    public Map<String, Object> getOcrCacheStats() {
+        return ocrCache.getStats();
+    }
+
+    /**
+     * ✅ 외부 상품 사전의 로드/재로드/실패 횟수와 마지막 로드 결과를 조회합니다.
+     */
+    @GetMapping("/dictionary/stats")
+    public Map<String, Object> getDictionaryStats() {
+        return dictionaryLoader.getStats();
+    }
 }
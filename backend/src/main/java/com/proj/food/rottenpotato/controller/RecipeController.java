@@ -2,10 +2,14 @@ package com.proj.food.rottenpotato.controller;
 
 import com.proj.food.rottenpotato.dto.RecipeDTO;
 import com.proj.food.rottenpotato.service.RecipeCrawlerService;
+import com.proj.food.rottenpotato.service.RecipeIndex;
+import com.proj.food.rottenpotato.service.RecipeScorer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
@@ -13,10 +17,21 @@ import java.util.stream.Collectors;
 public class RecipeController {
 
     private final RecipeCrawlerService recipeCrawlerService;
+    private final RecipeIndex recipeIndex;
+    private final RecipeScorer recipeScorer;
+
+    // 레시피 색인에서 이 개수 이상 찾으면 실시간 크롤링을 하지 않음 / 색인에서 가져올 최대 개수
+    @Value("${recipe.index.min-results:5}")
+    private int indexMinResults;
+
+    @Value("${recipe.index.max-results:20}")
+    private int indexMaxResults;
 
     @Autowired
-    public RecipeController(RecipeCrawlerService recipeCrawlerService) {
+    public RecipeController(RecipeCrawlerService recipeCrawlerService, RecipeIndex recipeIndex, RecipeScorer recipeScorer) {
         this.recipeCrawlerService = recipeCrawlerService;
+        this.recipeIndex = recipeIndex;
+        this.recipeScorer = recipeScorer;
     }
 
     /**
@@ -26,17 +41,38 @@ public class RecipeController {
      */
     @PostMapping("/recommend")
     public List<RecipeDTO> recommendRecipes(@RequestBody List<String> selectedIngredients) {
-        
-        // 1. 선택된 재료를 크롤러가 사용할 수 있도록 공백으로 연결된 검색어 문자열로 변환
-        String searchKeyword = selectedIngredients.stream()
-                                                .collect(Collectors.joining(" "));
 
-        // 2. 검색 키워드 기반으로 만개의 레시피 크롤링
-        List<RecipeDTO> crawledRecipes = recipeCrawlerService.crawlRecipeDetails(searchKeyword);
+        // 0. 로컬 레시피 색인에서 먼저 찾고, 부족할 때만 실시간 크롤링
+        List<RecipeDTO> indexed = recipeScorer.recommend(null, selectedIngredients, indexMaxResults);
+        if (indexed.size() >= indexMinResults) {
+            return indexed;
+        }
+        
+        // 1~2. 선택된 재료 조합으로 만개의 레시피 크롤링 (같은 조합의 동시 요청은 크롤링 1번을 공유)
+        List<RecipeDTO> crawledRecipes = recipeCrawlerService.crawlRecipesFor(selectedIngredients);
+        recipeIndex.addAll(crawledRecipes);
         
         // 3. 재료가 비어있는 (기사/영상일 가능성이 높은) 레시피는 제외하고 반환
+        //    단, 크롤링에 실패한 레시피는 error와 함께 그대로 반환
         return crawledRecipes.stream()
-                .filter(recipe -> recipe.getIngredients() != null && !recipe.getIngredients().isEmpty()) 
+                .filter(recipe -> recipe.getError() != null
+                        || (recipe.getIngredients() != null && !recipe.getIngredients().isEmpty()))
                 .collect(Collectors.toList());
     }
+
+    /**
+     * ✅ 로컬 레시피 색인 크기를 조회합니다.
+     */
+    @GetMapping("/index/stats")
+    public Map<String, Object> getIndexStats() {
+        return recipeIndex.getStats();
+    }
+
+    /**
+     * ✅ 레시피 캐시(검색 결과 / 레시피별 재료) 적중률과 실제 크롤링 요청 수를 조회합니다.
+     */
+    @GetMapping("/cache/stats")
+    public Map<String, Object> getCacheStats() {
+        return recipeCrawlerService.getCacheStats();
+    }
 }
\ No newline at end of file
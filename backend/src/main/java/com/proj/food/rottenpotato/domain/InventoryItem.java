@@ -0,0 +1,58 @@
+/* 재고 품목 DB 엔티티 */
+
+package com.proj.food.rottenpotato.domain;
+
+import com.proj.food.rottenpotato.dto.ClassifiedItemDTO;
+import com.proj.food.rottenpotato.dto.InventoryItemDTO;
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "inventory_item", indexes = {
+        // "사용자별 만료 임박 품목" 조회
+        @Index(name = "idx_inventory_user_expire", columnList = "user_id, expire_date"),
+        // "전체 사용자의 만료 임박 품목" 알림 조회
+        @Index(name = "idx_inventory_expire", columnList = "expire_date"),
+        // "사용자별 카테고리 필터" 조회
+        @Index(name = "idx_inventory_user_category", columnList = "user_id, category")
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class InventoryItem {
+
+    // 시퀀스에서 ID를 50개씩 미리 받아 와서 배치 INSERT가 가능하도록 함 (IDENTITY는 배치 불가)
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventory_item_seq")
+    @SequenceGenerator(name = "inventory_item_seq", sequenceName = "inventory_item_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false, length = 64)
+    private String userId;
+
+    @Column(nullable = false)
+    private String name;
+
+    private int quantity;
+
+    @Column(length = 32)
+    private String category;
+
+    @Column(name = "expire_date", nullable = false)
+    private LocalDate expireDate;
+
+    public InventoryItem(String userId, ClassifiedItemDTO item) {
+        this.userId = userId;
+        this.name = item.name();
+        this.quantity = item.quantity();
+        this.category = item.category();
+        this.expireDate = item.expireDate();
+    }
+
+    public InventoryItemDTO toDTO() {
+        return new InventoryItemDTO(id, name, quantity, category, expireDate);
+    }
+}
@@ -0,0 +1,14 @@
+/* 카테고리와 만료일까지 계산된 품목 1건 (FoodClassifierService → ItemService) */
+
+package com.proj.food.rottenpotato.dto;
+
+import java.time.LocalDate;
+
+/**
+ * @param name 품목명
+ * @param quantity 수량
+ * @param category 카테고리 (예: "육류", 기본값 "기타")
+ * @param expireDate 만료일 (영수증 날짜 + 소비기한)
+ */
+public record ClassifiedItemDTO(String name, int quantity, String category, LocalDate expireDate) {
+}
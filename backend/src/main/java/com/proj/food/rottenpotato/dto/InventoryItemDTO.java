@@ -0,0 +1,20 @@
+/* 재고에 저장된 품목 1건 (ItemService → API 응답) */
+
+package com.proj.food.rottenpotato.dto;
+
+import java.time.LocalDate;
+
+/**
+ * JSON 형식: { "itemId", "name", "quantity", "category", "expireDate": "yyyy-MM-dd" }
+ * @param itemId 재고 품목 ID
+ * @param name 품목명
+ * @param quantity 수량
+ * @param category 카테고리
+ * @param expireDate 만료일
+ */
+public record InventoryItemDTO(long itemId, String name, int quantity, String category, LocalDate expireDate) {
+
+    public static InventoryItemDTO of(long itemId, ClassifiedItemDTO item) {
+        return new InventoryItemDTO(itemId, item.name(), item.quantity(), item.category(), item.expireDate());
+    }
+}
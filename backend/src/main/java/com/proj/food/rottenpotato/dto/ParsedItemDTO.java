@@ -0,0 +1,16 @@
+/* 영수증 텍스트에서 파싱한 품목 1건 (ReceiptTextParser → 병합 단계) */
+
+package com.proj.food.rottenpotato.dto;
+
+/**
+ * @param name 한글만 남긴 품목명
+ * @param quantity 수량 (영수증에 없으면 1)
+ * @param price 가격 (원)
+ */
+public record ParsedItemDTO(String name, int quantity, int price) {
+
+    // 같은 품목이 여러 줄로 찍힌 경우 수량을 합친 새 객체를 반환
+    public ParsedItemDTO plusQuantity(int extra) {
+        return new ParsedItemDTO(name, quantity + extra, price);
+    }
+}
@@ -2,6 +2,7 @@
 
 package com.proj.food.rottenpotato.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 import java.util.List;
 
@@ -25,4 +26,8 @@ public class RecipeDTO {
 
     // 조리 시간/난이도 등 (선택적)
     private String time;
+
+    // 상세 페이지 크롤링 실패 사유 (성공 시 null, 응답에서 생략)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String error;
 }
\ No newline at end of file
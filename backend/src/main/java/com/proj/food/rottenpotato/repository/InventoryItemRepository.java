@@ -0,0 +1,27 @@
+package com.proj.food.rottenpotato.repository;
+
+import com.proj.food.rottenpotato.domain.InventoryItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface InventoryItemRepository extends JpaRepository<InventoryItem, Long>, JpaSpecificationExecutor<InventoryItem> {
+
+    List<InventoryItem> findByUserIdOrderByIdAsc(String userId);
+
+    // 전체 사용자의 만료 임박 품목 (idx_inventory_expire 구간)
+    List<InventoryItem> findByExpireDateBetweenOrderByExpireDateAscIdAsc(LocalDate from, LocalDate to);
+
+    Optional<InventoryItem> findByIdAndUserId(Long id, String userId);
+
+    // 다른 사용자의 품목은 삭제되지 않도록 사용자 ID까지 조건에 포함
+    @Modifying
+    @Query("delete from InventoryItem i where i.id = :id and i.userId = :userId")
+    int deleteByIdAndUserId(@Param("id") Long id, @Param("userId") String userId);
+}
@@ -0,0 +1,57 @@
+package com.proj.food.rottenpotato.repository;
+
+import com.proj.food.rottenpotato.domain.InventoryItem;
+import com.proj.food.rottenpotato.service.InventoryQuery;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 재고 목록 조회 조건(InventoryQuery) → JPA Specification
+ * 커서는 OFFSET 대신 "마지막으로 본 (만료일, ID) 이후" 조건(keyset)으로 변환하므로
+ * 페이지가 뒤로 갈수록 느려지지 않고, (user_id, expire_date) 인덱스를 그대로 사용합니다.
+ */
+public final class InventoryItemSpecs {
+
+    private InventoryItemSpecs() {
+    }
+
+    public static Specification<InventoryItem> of(String userId, InventoryQuery query) {
+        return (root, cq, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.equal(root.get("userId"), userId));
+
+            if (query.category() != null) {
+                predicates.add(cb.equal(root.get("category"), query.category()));
+            }
+            if (query.expireFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("expireDate"), query.expireFrom()));
+            }
+            if (query.expireTo() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("expireDate"), query.expireTo()));
+            }
+
+            if (query.afterId() != null) {
+                if (query.sortByExpireDate()) {
+                    // (expireDate, id) > (afterExpireDate, afterId)  (내림차순이면 <)
+                    Predicate laterDay = query.descending()
+                            ? cb.lessThan(root.get("expireDate"), query.afterExpireDate())
+                            : cb.greaterThan(root.get("expireDate"), query.afterExpireDate());
+                    Predicate sameDayLaterId = cb.and(
+                            cb.equal(root.get("expireDate"), query.afterExpireDate()),
+                            query.descending()
+                                    ? cb.lessThan(root.get("id"), query.afterId())
+                                    : cb.greaterThan(root.get("id"), query.afterId()));
+                    predicates.add(cb.or(laterDay, sameDayLaterId));
+                } else {
+                    predicates.add(query.descending()
+                            ? cb.lessThan(root.get("id"), query.afterId())
+                            : cb.greaterThan(root.get("id"), query.afterId()));
+                }
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+}
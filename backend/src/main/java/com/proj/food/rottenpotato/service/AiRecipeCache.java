@@ -0,0 +1,287 @@
+package com.proj.food.rottenpotato.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AI가 생성한 레시피 캐시 (같은 재료 조합 + 선호도면 LLM을 다시 호출하지 않음)
+ * 키는 정규화(앞뒤 공백 제거, 연속 공백 1칸, 소문자)한 재료명별 소비기한 우선순위(priority_score) 구간과
+ * 키 순서로 정렬한 선호도, 추가 요청 사항을 합친 문자열의 SHA-256입니다. (재료 순서나 대소문자가 달라도 같은 키)
+ * - 🚨 우선순위가 키에 들어가므로 재료의 소비기한이 다가와 구간이 바뀌면(예: 8일 남음 3 → 3일 남음 4)
+ *   여유 있을 때 만든 레시피를 재사용하지 않고 급한 재료 위주로 새로 생성합니다.
+ *   구간 안에서 남은 일수만 달라진 경우(days_until_expiry, expire_date)는 같은 키로 재사용합니다.
+ * - policy=always: 한 번 생성한 레시피를 계속 재사용
+ * - policy=variants: 키마다 variants개까지는 새로 생성해 모으고, 다 모이면 돌아가며 재사용
+ * 크기(max-size)를 넘으면 자주 쓰이지 않는 키부터, 처음 생성한 지 ttl-minutes가 지나면 제거합니다.
+ * path를 지정하면 주기적으로, 그리고 종료 시 파일에 저장했다가 시작할 때 다시 읽습니다.
+ */
+@Component
+public class AiRecipeCache {
+
+    @Value("${ai.cache.enabled:true}")
+    private boolean enabled;
+
+    // always | variants
+    @Value("${ai.cache.policy:always}")
+    private String policy;
+
+    @Value("${ai.cache.variants:3}")
+    private int maxVariants;
+
+    @Value("${ai.cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${ai.cache.ttl-minutes:10080}")
+    private long ttlMinutes;
+
+    // 캐시 파일 경로 (비워 두면 메모리에만 보관)
+    @Value("${ai.cache.path:}")
+    private String cachePath;
+
+    private final ObjectMapper objectMapper;
+    // 생성 시각과 만료 판단에 쓰는 시계 (테스트에서 시간을 직접 움직일 때)
+    private final Clock clock;
+
+    private Cache<String, Entry> cache;
+    private boolean variantsPolicy;
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    // variants 정책에서 변형이 아직 덜 모여 새로 생성한 횟수 (misses에 포함)
+    private final AtomicLong variantMisses = new AtomicLong();
+
+    // 키 1개에 모인 응답 변형들 (처음 생성한 시각 기준으로 만료)
+    private record Entry(long createdAt, List<Map<String, Object>> variants, AtomicInteger next) {
+    }
+
+    @Autowired
+    public AiRecipeCache(ObjectMapper objectMapper) {
+        this(objectMapper, Clock.systemUTC());
+    }
+
+    AiRecipeCache(ObjectMapper objectMapper, Clock clock) {
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+    }
+
+    @PostConstruct
+    public void init() {
+        variantsPolicy = policy.trim().equalsIgnoreCase("variants");
+        Duration ttl = Duration.ofMinutes(ttlMinutes);
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .ticker(() -> TimeUnit.MILLISECONDS.toNanos(clock.millis()))
+                .expireAfter(Expiry.creating((String key, Entry entry) ->
+                        ttl.minusMillis(clock.millis() - entry.createdAt())))
+                .build();
+        load();
+    }
+
+    /**
+     * 재료 + 선호도 + 추가 요청 사항의 정규화된 캐시 키(SHA-256 hex)
+     */
+    public String key(List<Map<String, Object>> ingredients, Map<String, Object> userPreferences,
+                      String additionalRequirements) {
+        // 재료명 → 소비기한 우선순위 구간 (같은 재료가 여러 개면 가장 급한 것)
+        TreeMap<String, Integer> priorities = new TreeMap<>();
+        if (ingredients != null) {
+            for (Map<String, Object> ingredient : ingredients) {
+                Object name = ingredient.get("name");
+                if (name != null) priorities.merge(normalize(name.toString()), priorityOf(ingredient), Math::max);
+            }
+        }
+        Map<String, Object> canonical = new LinkedHashMap<>();
+        canonical.put("ingredients", priorities);
+        canonical.put("user_preferences", canonicalize(userPreferences != null ? userPreferences : Map.of()));
+        canonical.put("additional_requirements", additionalRequirements != null ? normalize(additionalRequirements) : "");
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(objectMapper.writeValueAsBytes(canonical));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // priority_score(1~5)가 없거나 숫자가 아니면 0
+    private static int priorityOf(Map<String, Object> ingredient) {
+        return ingredient.get("priority_score") instanceof Number score ? score.intValue() : 0;
+    }
+
+    /**
+     * 재사용할 응답을 찾습니다. 없거나(variants 정책에서 변형이 덜 모였으면) null → LLM을 호출한 뒤 put()
+     */
+    public Map<String, Object> get(String key) {
+        if (!enabled) return null;
+        Entry entry = cache.getIfPresent(key);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        List<Map<String, Object>> variants = entry.variants();
+        if (variantsPolicy && variants.size() < maxVariants) {
+            misses.incrementAndGet();
+            variantMisses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        int index = variantsPolicy ? Math.floorMod(entry.next().getAndIncrement(), variants.size()) : 0;
+        return variants.get(index);
+    }
+
+    /**
+     * 새로 생성한 성공 응답을 저장합니다. (variants 정책이면 키마다 최대 variants개까지 추가)
+     */
+    public void put(String key, Map<String, Object> response) {
+        if (!enabled) return;
+        int limit = variantsPolicy ? Math.max(maxVariants, 1) : 1;
+        cache.asMap().compute(key, (k, entry) -> {
+            if (entry == null) {
+                List<Map<String, Object>> variants = new CopyOnWriteArrayList<>();
+                variants.add(response);
+                return new Entry(clock.millis(), variants, new AtomicInteger());
+            }
+            if (entry.variants().size() < limit) entry.variants().add(response);
+            return entry;
+        });
+        dirty.set(true);
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("policy", variantsPolicy ? "variants(" + maxVariants + ")" : "always");
+        stats.put("size", cache.estimatedSize());
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("variantMisses", variantMisses.get());
+        stats.put("hitRate", hitCount + missCount > 0 ? (double) hitCount / (hitCount + missCount) : 0.0);
+        stats.put("unsaved", dirty.get());
+        return stats;
+    }
+
+    /**
+     * ✅ 변경 사항이 있으면 캐시 파일을 다시 씁니다. (임시 파일에 쓴 뒤 교체, 만료된 항목은 제외)
+     */
+    @PreDestroy
+    @Scheduled(initialDelayString = "${ai.cache.save-interval-ms:300000}",
+            fixedDelayString = "${ai.cache.save-interval-ms:300000}")
+    public void save() {
+        if (cachePath == null || cachePath.isBlank() || !dirty.getAndSet(false)) return;
+
+        List<Map<String, Object>> snapshot = new ArrayList<>();
+        cache.asMap().forEach((key, entry) -> {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("key", key);
+            row.put("createdAt", entry.createdAt());
+            row.put("variants", List.copyOf(entry.variants()));
+            snapshot.add(row);
+        });
+
+        Path path = Path.of(cachePath);
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, "ai-recipe-cache", ".tmp");
+            objectMapper.writeValue(temp.toFile(), snapshot);
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            dirty.set(true);
+            System.err.println("🚨 AI 레시피 캐시 파일 저장 실패: " + path + " - " + e.getMessage());
+        }
+    }
+
+    private void load() {
+        if (cachePath == null || cachePath.isBlank()) return;
+        Path path = Path.of(cachePath);
+        if (!Files.exists(path)) return;
+
+        List<Map<String, Object>> rows;
+        try {
+            rows = objectMapper.readValue(Files.readAllBytes(path), new TypeReference<>() {
+            });
+        } catch (IOException e) {
+            System.err.println("🚨 AI 레시피 캐시 파일 읽기 실패: " + path + " - " + e.getMessage());
+            return;
+        }
+
+        long expiredBefore = clock.millis() - Duration.ofMinutes(ttlMinutes).toMillis();
+        for (Map<String, Object> row : rows) {
+            if (!(row.get("key") instanceof String key) || !(row.get("createdAt") instanceof Number createdAt)
+                    || !(row.get("variants") instanceof List<?> variants) || variants.isEmpty()) {
+                continue;
+            }
+            if (createdAt.longValue() < expiredBefore) continue;
+            List<Map<String, Object>> copy = new CopyOnWriteArrayList<>();
+            for (Object variant : variants) {
+                if (variant instanceof Map<?, ?> map) {
+                    @SuppressWarnings("unchecked")
+                    Map<String, Object> typed = (Map<String, Object>) map;
+                    copy.add(typed);
+                }
+            }
+            cache.put(key, new Entry(createdAt.longValue(), copy, new AtomicInteger()));
+        }
+    }
+
+    // 앞뒤 공백 제거, 연속 공백은 1칸, 소문자
+    private static String normalize(String text) {
+        return String.join(" ", text.trim().toLowerCase(Locale.ROOT).split("\\s+"));
+    }
+
+    // 선호도 값 정규화: Map은 키 순서로 정렬, 문자열은 normalize, 숫자는 2와 2.0이 같도록
+    private static Object canonicalize(Object value) {
+        if (value instanceof Map<?, ?> map) {
+            Map<String, Object> sorted = new TreeMap<>();
+            map.forEach((k, v) -> sorted.put(normalize(String.valueOf(k)), canonicalize(v)));
+            return sorted;
+        }
+        if (value instanceof List<?> list) {
+            return list.stream().map(AiRecipeCache::canonicalize).toList();
+        }
+        if (value instanceof String text) return normalize(text);
+        if (value instanceof Number number) {
+            try {
+                return new BigDecimal(number.toString()).stripTrailingZeros().toPlainString();
+            } catch (NumberFormatException e) {
+                return number.toString();
+            }
+        }
+        return value;
+    }
+}
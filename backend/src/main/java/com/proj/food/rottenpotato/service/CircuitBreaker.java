@@ -0,0 +1,153 @@
+package com.proj.food.rottenpotato.service;
+
+import java.time.Clock;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 외부 서비스 호출용 서킷 브레이커 (최근 windowSize번 호출의 실패율 기준)
+ * - CLOSED: 정상 호출. 최근 호출이 minCalls번 이상이고 실패율이 failureRateThreshold 이상이면 OPEN
+ * - OPEN: openMs 동안 호출하지 않고 바로 실패 처리 (allowRequest() == false)
+ * - HALF_OPEN: openMs가 지나면 시험 호출 1건만 허용, 성공하면 CLOSED, 실패하면 다시 OPEN
+ * 호출 측은 allowRequest()가 true일 때만 호출하고, 결과를 반드시 onSuccess()/onFailure()로 알려야 합니다.
+ * 결과를 판단할 수 없이 끝난 호출(예: 사용자가 중간에 취소)은 onCancelled()로 알립니다.
+ * 상태 전이는 getStats()의 transitionsTo / recentTransitions로 확인합니다.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    // 상태 전이 기록 보관 개수
+    private static final int TRANSITION_HISTORY = 20;
+
+    private final String name;
+    private final int windowSize;
+    private final int minCalls;
+    private final double failureRateThreshold;
+    private final long openMs;
+    private final Clock clock;
+
+    // 최근 호출 결과 (true = 실패) 링 버퍼
+    private final boolean[] window;
+    private int windowPos;
+    private int windowCount;
+    private int windowFailures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    private long shortCircuited;
+    private final Map<State, Long> transitionCounts = new LinkedHashMap<>();
+    private final Deque<String> transitions = new ArrayDeque<>();
+
+    public CircuitBreaker(String name, int windowSize, int minCalls, double failureRateThreshold, long openMs) {
+        this(name, windowSize, minCalls, failureRateThreshold, openMs, Clock.systemUTC());
+    }
+
+    /**
+     * @param clock OPEN 유지 시간과 전이 기록 시각에 쓰는 시계 (테스트에서 시간을 직접 움직일 때)
+     */
+    public CircuitBreaker(String name, int windowSize, int minCalls, double failureRateThreshold, long openMs, Clock clock) {
+        this.name = name;
+        this.windowSize = Math.max(windowSize, 1);
+        this.minCalls = Math.min(Math.max(minCalls, 1), this.windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openMs = openMs;
+        this.clock = clock;
+        this.window = new boolean[this.windowSize];
+        for (State s : State.values()) transitionCounts.put(s, 0L);
+    }
+
+    /**
+     * 지금 호출해도 되는지 확인합니다. OPEN 상태면 false (바로 실패/대체 응답 처리)
+     */
+    public synchronized boolean allowRequest() {
+        if (state == State.OPEN && clock.millis() - openedAt >= openMs) {
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.CLOSED) return true;
+        if (state == State.HALF_OPEN && !probeInFlight) {
+            probeInFlight = true;
+            return true;
+        }
+        shortCircuited++;
+        return false;
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            transitionTo(State.CLOSED);
+            return;
+        }
+        record(false);
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            transitionTo(State.OPEN);
+            return;
+        }
+        record(true);
+        if (state == State.CLOSED && windowCount >= minCalls
+                && (double) windowFailures / windowCount >= failureRateThreshold) {
+            transitionTo(State.OPEN);
+        }
+    }
+
+    // 성공/실패를 판단할 수 없는 호출: 실패율에는 넣지 않고, HALF_OPEN 시험 호출이었다면 다음 시험 호출을 허용
+    public synchronized void onCancelled() {
+        if (state == State.HALF_OPEN) probeInFlight = false;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("name", name);
+        stats.put("state", state.name());
+        stats.put("windowCalls", windowCount);
+        stats.put("windowFailureRate", windowCount > 0 ? (double) windowFailures / windowCount : 0.0);
+        stats.put("shortCircuited", shortCircuited);
+        Map<String, Object> counts = new LinkedHashMap<>();
+        transitionCounts.forEach((s, count) -> counts.put(s.name(), count));
+        stats.put("transitionsTo", counts);
+        List<String> recent = new ArrayList<>(transitions);
+        stats.put("recentTransitions", recent);
+        return stats;
+    }
+
+    private void record(boolean failed) {
+        if (windowCount == windowSize) {
+            if (window[windowPos]) windowFailures--;
+        } else {
+            windowCount++;
+        }
+        window[windowPos] = failed;
+        if (failed) windowFailures++;
+        windowPos = (windowPos + 1) % windowSize;
+    }
+
+    private void transitionTo(State next) {
+        State previous = state;
+        state = next;
+        probeInFlight = false;
+        if (next == State.OPEN) {
+            openedAt = clock.millis();
+        } else if (next == State.CLOSED) {
+            // 새로 측정 시작 (OPEN 이전의 실패가 다시 바로 OPEN시키지 않도록)
+            windowPos = 0;
+            windowCount = 0;
+            windowFailures = 0;
+        }
+        transitionCounts.merge(next, 1L, Long::sum);
+        transitions.addLast(clock.instant() + " " + previous + " → " + next);
+        if (transitions.size() > TRANSITION_HISTORY) transitions.removeFirst();
+    }
+}
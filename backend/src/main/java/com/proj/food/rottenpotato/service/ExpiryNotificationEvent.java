@@ -0,0 +1,13 @@
+package com.proj.food.rottenpotato.service;
+
+import com.proj.food.rottenpotato.dto.InventoryItemDTO;
+
+import java.util.List;
+
+/**
+ * 소비기한 임박 알림 1묶음 (ExpirySweeper가 발행)
+ * @param userId 알림 받을 사용자
+ * @param items 만료가 임박한 품목 (최대 inventory.expiry.batch-size개)
+ */
+public record ExpiryNotificationEvent(String userId, List<InventoryItemDTO> items) {
+}
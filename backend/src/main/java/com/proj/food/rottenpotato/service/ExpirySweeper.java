@@ -0,0 +1,76 @@
+package com.proj.food.rottenpotato.service;
+
+import com.proj.food.rottenpotato.dto.InventoryItemDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 주기적으로 소비기한 임박 품목을 찾아 {@link ExpiryNotificationEvent}를 묶음 단위로 발행합니다.
+ * 저장소에서 [오늘, 오늘 + notify-days] 만료일 구간만 읽으며, 한 품목은 한 번만 알립니다.
+ */
+@Component
+public class ExpirySweeper {
+
+    // 며칠 안에 만료되는 품목을 알릴지
+    @Value("${inventory.expiry.notify-days:3}")
+    private int notifyDays;
+
+    // 알림 1건에 담을 최대 품목 수
+    @Value("${inventory.expiry.batch-size:50}")
+    private int batchSize;
+
+    private final InventoryStore store;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // 사용자 ID → 이미 알림을 보낸 품목 ID
+    private final Map<String, Set<Long>> notified = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ExpirySweeper(InventoryStore store, ApplicationEventPublisher eventPublisher) {
+        this.store = store;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Scheduled(cron = "${inventory.expiry.sweep-cron:0 0 9 * * *}")
+    public void sweep() {
+        LocalDate today = LocalDate.now();
+        LocalDate until = today.plusDays(notifyDays);
+        Map<String, List<InventoryItemDTO>> expiringByUser = store.findExpiringByUser(today, until);
+        // 임박 품목이 없어진 사용자는 알림 기록도 정리
+        notified.keySet().retainAll(expiringByUser.keySet());
+
+        for (Map.Entry<String, List<InventoryItemDTO>> entry : expiringByUser.entrySet()) {
+            String userId = entry.getKey();
+            List<InventoryItemDTO> expiring = entry.getValue();
+            Set<Long> sent = notified.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet());
+            // 구간을 벗어난(이미 지났거나 삭제된) 품목은 알림 기록에서 정리
+            sent.retainAll(expiring.stream().map(InventoryItemDTO::itemId).collect(Collectors.toSet()));
+
+            List<InventoryItemDTO> batch = new ArrayList<>(batchSize);
+            for (InventoryItemDTO item : expiring) {
+                if (!sent.add(item.itemId())) continue;
+                batch.add(item);
+                if (batch.size() == batchSize) {
+                    publish(userId, batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) publish(userId, batch);
+        }
+    }
+
+    private void publish(String userId, List<InventoryItemDTO> batch) {
+        eventPublisher.publishEvent(new ExpiryNotificationEvent(userId, List.copyOf(batch)));
+    }
+}
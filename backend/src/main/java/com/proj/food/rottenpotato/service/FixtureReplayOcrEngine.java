@@ -0,0 +1,56 @@
+package com.proj.food.rottenpotato.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 미리 기록해 둔 OCR 텍스트를 재생하는 오프라인 OCR 엔진 (부하 테스트/프로파일링용)
+ * - receipt.ocr.fixture.dir 아래의 {이미지 SHA-256}.txt 파일 내용을 OCR 결과로 반환합니다.
+ * - receipt.ocr.fixture.latency-ms 만큼 호출마다 지연시켜 실제 API 왕복 시간을 흉내 냅니다.
+ */
+@Component
+@ConditionalOnProperty(name = "receipt.ocr.engine", havingValue = "fixture")
+public class FixtureReplayOcrEngine implements OcrEngine {
+
+    @Value("${receipt.ocr.fixture.dir:fixtures/ocr}")
+    private String fixtureDir;
+
+    @Value("${receipt.ocr.fixture.latency-ms:0}")
+    private long latencyMs;
+
+    @Override
+    public List<Result> recognize(List<byte[]> images) throws IOException {
+        simulateLatency();
+
+        List<Result> results = new ArrayList<>(images.size());
+        for (byte[] image : images) {
+            String hash = OcrResultCache.sha256Hex(image);
+            Path fixture = Path.of(fixtureDir).resolve(hash + ".txt");
+
+            if (Files.exists(fixture)) {
+                results.add(Result.text(Files.readString(fixture, StandardCharsets.UTF_8)));
+            } else {
+                results.add(Result.error("OCR fixture 파일이 없습니다: " + fixture));
+            }
+        }
+        return results;
+    }
+
+    private void simulateLatency() throws IOException {
+        if (latencyMs <= 0) return;
+        try {
+            Thread.sleep(latencyMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("OCR fixture 재생이 중단되었습니다.", e);
+        }
+    }
+}
@@ -1,47 +1,110 @@
 package com.proj.food.rottenpotato.service;
 
+import com.proj.food.rottenpotato.dto.ClassifiedItemDTO;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import java.time.LocalDate;
-import java.util.Arrays;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 @Service
 public class FoodClassifierService {
 
+    private static final String DEFAULT_CATEGORY = "기타";
+    private static final int DEFAULT_SHELF_LIFE_DAYS = 365; // 기본 만료일 (365일)
+
     // 🔴 비식품으로 분류할 키워드 목록 (소문자로 통일)
-    private static final List<String> NON_FOOD_KEYWORDS = Arrays.asList(
+    private static final List<String> NON_FOOD_KEYWORDS = List.of(
             "세제", "비누", "샴푸", "화장지", "티슈", "물티슈", "수건", "칫솔", 
             "마스크", "봉투", "쓰레기", "일회용", "테이프", "건전지", "면도기",
             "가글", "탈취제", "방향제", "종이컵", "빨대", "라이터", "양초"
     );
 
-    // 🗓️ 품목별 기본 소비기한 (일 단위)
-    private static final Map<String, Integer> EXPIRATION_MAP = Map.ofEntries(
-        Map.entry("우유", 7),
-        Map.entry("계란", 14),
-        Map.entry("삼겹살", 3),
-        Map.entry("참치", 365),
-        Map.entry("팽이버섯", 5),
-        Map.entry("사과", 14),
-        Map.entry("토마토", 7),
-        Map.entry("비빔밥", 365),
-        Map.entry("컵반", 365)
+    // 🏷️🗓️ 품목별 카테고리와 기본 소비기한 (일 단위)
+    private static final List<ProductEntry> FOOD_PRODUCTS = List.of(
+        ProductEntry.food("우유", "유제품/계란", 7),
+        ProductEntry.food("계란", "유제품/계란", 14),
+        ProductEntry.food("삼겹살", "육류", 3),
+        ProductEntry.food("참치", "해산물", 365),
+        ProductEntry.food("팽이버섯", "채소", 5),
+        ProductEntry.food("사과", "과일", 14),
+        ProductEntry.food("토마토", "과일", 7),
+        ProductEntry.food("비빔밥", "가공식품", 365),
+        ProductEntry.food("컵반", "가공식품", 365)
     );
 
-    // 🏷️ 품목별 카테고리
-    private static final Map<String, String> CATEGORY_MAP = Map.ofEntries(
-        Map.entry("우유", "유제품/계란"),
-        Map.entry("계란", "유제품/계란"),
-        Map.entry("삼겹살", "육류"),
-        Map.entry("참치", "해산물"),
-        Map.entry("팽이버섯", "채소"),
-        Map.entry("사과", "과일"),
-        Map.entry("토마토", "과일"),
-        Map.entry("비빔밥", "가공식품"),
-        Map.entry("컵반", "가공식품")
-    );
+    // 유사 매칭으로 인정할 최소 점수 (0~1)
+    @Value("${classifier.fuzzy.min-score:0.6}")
+    private double fuzzyMinScore;
+
+    // 최근 유사 매칭 결과 캐시 크기
+    @Value("${classifier.fuzzy.cache-size:1024}")
+    private int fuzzyCacheSize;
+
+    /**
+     * 사전과 그 사전으로 계산한 유사 매칭 캐시를 한 묶음으로 교체하기 위한 스냅샷
+     */
+    private record Snapshot(ProductDictionary dictionary, Map<String, ProductMatch> fuzzyCache) {}
+
+    // 📚 비식품/식품 키워드 전체를 하나로 컴파일한 조회 구조
+    // 외부 사전 파일이 바뀌면 ProductDictionaryLoader가 통째로 교체 (조회 중인 요청은 읽어 둔 사전을 계속 사용)
+    private volatile Snapshot snapshot = newSnapshot(ProductDictionary.compile(builtinProducts()));
+
+    /**
+     * 코드에 내장된 기본 상품 목록 (외부 사전 파일의 항목이 같은 키워드를 덮어씁니다)
+     */
+    static List<ProductEntry> builtinProducts() {
+        List<ProductEntry> products = new ArrayList<>(FOOD_PRODUCTS);
+        for (String keyword : NON_FOOD_KEYWORDS) {
+            products.add(ProductEntry.nonFood(keyword));
+        }
+        return products;
+    }
+
+    /**
+     * 품목명을 상품 사전에 한 번 대조하여 비식품 여부, 카테고리, 소비기한을 함께 조회합니다.
+     * 여러 키워드가 포함되어 있으면 가장 긴 키워드가 우선합니다. (예: "팽이버섯" > "버섯")
+     * @param itemName 파싱된 품목명
+     */
+    public ProductMatch lookup(String itemName) {
+        Snapshot current = snapshot;
+        ProductMatch exact = current.dictionary().match(itemName);
+        if (exact.nonFood() || exact.product() != null || itemName == null) {
+            return exact;
+        }
+
+        // 키워드가 그대로 들어 있지 않으면 (예: OCR 오인식) 유사 매칭, 결과는 최근 N건 캐시
+        Map<String, ProductMatch> cache = current.fuzzyCache();
+        ProductMatch cached;
+        synchronized (cache) {
+            cached = cache.get(itemName);
+        }
+        if (cached != null) return cached;
+
+        ProductMatch fuzzy = current.dictionary().fuzzyMatch(itemName, fuzzyMinScore);
+        synchronized (cache) {
+            cache.put(itemName, fuzzy);
+        }
+        return fuzzy;
+    }
+
+    /**
+     * 상품 사전을 새로 컴파일된 사전으로 교체합니다. (유사 매칭 캐시도 함께 초기화)
+     */
+    public void replaceDictionary(ProductDictionary newDictionary) {
+        this.snapshot = newSnapshot(newDictionary);
+    }
+
+    private Snapshot newSnapshot(ProductDictionary newDictionary) {
+        return new Snapshot(newDictionary, new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ProductMatch> eldest) {
+                return size() > fuzzyCacheSize;
+            }
+        });
+    }
 
 
     // -----------------------------------------------------------------
@@ -57,16 +120,8 @@ public class FoodClassifierService {
         if (itemName == null || itemName.trim().isEmpty()) {
             return false;
         }
-        
-        // 품목명을 소문자화하고 공백을 제거하여 비교합니다.
-        String lowerCaseItemName = itemName.toLowerCase().replaceAll("\\s+", "");
-
-        for (String keyword : NON_FOOD_KEYWORDS) {
-            if (lowerCaseItemName.contains(keyword)) {
-                return false; // 비식품 키워드 포함 시
-            }
-        }
-        return true; // 식품으로 간주
+        // 품목명은 소문자화·공백 제거 후 비교됩니다. (ProductDictionary)
+        return !lookup(itemName).nonFood();
     }
 
 
@@ -74,35 +129,26 @@ public class FoodClassifierService {
     // 2. 분류 및 만료일 계산 로직 (기존 코드 유지)
     // -----------------------------------------------------------------
 
-    public Map<String, Object> classifyItem(String name, int quantity, LocalDate receiptDate) {
-        String category = "기타";
-        int shelfLifeDays = 365; // 기본 만료일 (365일)
-
-        // 1. 카테고리 분류
-        for (String keyword : CATEGORY_MAP.keySet()) {
-            if (name.contains(keyword)) {
-                category = CATEGORY_MAP.get(keyword);
-                break;
-            }
-        }
+    public ClassifiedItemDTO classifyItem(String name, int quantity, LocalDate receiptDate) {
+        return classifyItem(name, quantity, receiptDate, lookup(name));
+    }
 
-        // 2. 소비기한 설정
-        for (String keyword : EXPIRATION_MAP.keySet()) {
-            if (name.contains(keyword)) {
-                shelfLifeDays = EXPIRATION_MAP.get(keyword);
-                break;
-            }
+    /**
+     * 이미 조회한 사전 대조 결과로 분류합니다. (같은 품목명을 두 번 훑지 않도록)
+     */
+    public ClassifiedItemDTO classifyItem(String name, int quantity, LocalDate receiptDate, ProductMatch match) {
+        String category = DEFAULT_CATEGORY;
+        int shelfLifeDays = DEFAULT_SHELF_LIFE_DAYS;
+
+        // 1. 카테고리 분류 / 2. 소비기한 설정
+        if (match.product() != null) {
+            category = match.product().category();
+            shelfLifeDays = match.product().shelfLifeDays();
         }
 
         // 3. 만료일 계산
         LocalDate expireDate = receiptDate.plusDays(shelfLifeDays);
 
-        Map<String, Object> result = new HashMap<>();
-        result.put("name", name);
-        result.put("quantity", quantity);
-        result.put("category", category);
-        result.put("expireDate", expireDate.toString());
-
-        return result;
+        return new ClassifiedItemDTO(name, quantity, category, expireDate);
     }
-}
\ No newline at end of file
+}
@@ -1,12 +1,41 @@
 package com.proj.food.rottenpotato.service;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 @Service
 public class GeminiApiService {
@@ -15,10 +44,105 @@ public class GeminiApiService {
     @Value("${ai.service.url}")
     private String aiServiceUrl;
 
-    private final RestTemplate restTemplate;
+    // 연결 제한 시간 / 요청 1건 전체(응답 본문까지) 제한 시간(ms)
+    @Value("${ai.service.connect-timeout-ms:2000}")
+    private long connectTimeoutMs;
 
-    public GeminiApiService() {
-        this.restTemplate = new RestTemplate();
+    @Value("${ai.service.read-timeout-ms:20000}")
+    private long readTimeoutMs;
+
+    // 동시에 보낼 수 있는 AI 호출 수 (벌크헤드) / 자리가 없을 때 기다리는 시간(ms)
+    @Value("${ai.service.max-concurrent:8}")
+    private int maxConcurrent;
+
+    @Value("${ai.service.bulkhead-wait-ms:200}")
+    private long bulkheadWaitMs;
+
+    // 서킷 브레이커: 최근 window-size번 중 min-calls번 이상 호출했고 실패율이 failure-rate 이상이면 open-ms 동안 차단
+    @Value("${ai.service.circuit.window-size:20}")
+    private int circuitWindowSize;
+
+    @Value("${ai.service.circuit.min-calls:5}")
+    private int circuitMinCalls;
+
+    @Value("${ai.service.circuit.failure-rate:0.5}")
+    private double circuitFailureRate;
+
+    @Value("${ai.service.circuit.open-ms:30000}")
+    private long circuitOpenMs;
+
+    // 스트리밍 엔드포인트 URL / 스트림 1건 최대 시간(ms, 넘으면 AI 서버 요청 취소)
+    @Value("${ai.service.stream-url:http://localhost:8000/api/generate-recipe/stream}")
+    private String aiServiceStreamUrl;
+
+    @Value("${ai.service.stream.timeout-ms:60000}")
+    private long streamTimeoutMs;
+
+    // 장애 시 대신 돌려줄 최근 성공 응답 보관 개수
+    @Value("${ai.service.last-good.max-size:200}")
+    private int lastGoodMaxSize;
+
+    // 호출 지연 히스토그램 구간 상한(ms), 마지막 칸은 그 이상
+    private static final long[] LATENCY_BUCKETS_MS = {100, 250, 500, 1000, 2500, 5000, 10000, 20000, 30000};
+
+    private final ObjectMapper objectMapper;
+    private final AiRecipeCache aiRecipeCache;
+
+    private ExecutorService executor;
+    private HttpClient httpClient;
+    private Semaphore bulkhead;
+    private CircuitBreaker circuitBreaker;
+    // 캐시 키(재료 + 선호도) → 마지막 성공 응답 (LRU, 캐시 TTL과 관계없이 장애 시 대체 응답으로 사용)
+    private Map<String, Map<String, Object>> lastGood;
+    // 캐시 키 → 진행 중인 AI 호출의 결과 (같은 키의 캐시 미스가 동시에 오면 호출 1번을 함께 기다림)
+    private final Map<String, CompletableFuture<Map<String, Object>>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong successes = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong bulkheadRejected = new AtomicLong();
+    private final AtomicLong servedLastGood = new AtomicLong();
+    private final AtomicLong servedDegraded = new AtomicLong();
+    // 진행 중인 같은 키의 호출 결과를 함께 받은 요청 수
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong latencyTotalMs = new AtomicLong();
+    private final AtomicLong latencyMaxMs = new AtomicLong();
+    private final AtomicLongArray latencyBuckets = new AtomicLongArray(LATENCY_BUCKETS_MS.length + 1);
+    private final AtomicLong streamsStarted = new AtomicLong();
+    private final AtomicLong streamsCompleted = new AtomicLong();
+    private final AtomicLong streamsCancelled = new AtomicLong();
+    // 스트림 시작 → AI 서버의 첫 텍스트 조각까지 걸린 시간
+    private final AtomicLong firstChunkTotalMs = new AtomicLong();
+    private final AtomicLong firstChunkCount = new AtomicLong();
+
+    @Autowired
+    public GeminiApiService(ObjectMapper objectMapper, AiRecipeCache aiRecipeCache) {
+        this.objectMapper = objectMapper;
+        this.aiRecipeCache = aiRecipeCache;
+    }
+
+    @PostConstruct
+    public void init() {
+        executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("ai-client-", 0).factory());
+        // AI 호출 전용 클라이언트 (연결 풀, keep-alive 재사용)
+        httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .executor(executor)
+                .build();
+        bulkhead = new Semaphore(Math.max(maxConcurrent, 1), true);
+        circuitBreaker = new CircuitBreaker("ai-service", circuitWindowSize, circuitMinCalls, circuitFailureRate, circuitOpenMs);
+        lastGood = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Map<String, Object>> eldest) {
+                return size() > lastGoodMaxSize;
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
     }
 
     /**
@@ -28,34 +152,495 @@ public class GeminiApiService {
      * @return AI가 생성한 레시피 데이터 (JSON Map)
      */
     public Map<String, Object> generateRecipe(List<Map<String, Object>> ingredients, Map<String, Object> userPreferences) {
-        
+        return generateRecipe(ingredients, userPreferences, null);
+    }
+
+    /**
+     * Node.js 서버(AI Service)를 호출하여 생성형 레시피를 요청합니다.
+     * 같은 재료 조합 + 선호도로 이미 생성한 레시피가 캐시에 있으면 AI 서버를 호출하지 않습니다. (cached: true)
+     * 캐시에 없고 같은 키로 이미 호출 중이면 새로 호출하지 않고 그 결과를 함께 받습니다. (성공이면 cached: true)
+     * 🚨 AI 서버가 느리거나 장애 중이면 요청 스레드를 붙잡지 않고 바로 대체 응답을 반환합니다.
+     * - 동시 호출이 max-concurrent를 넘거나 서킷이 열려 있으면 AI 서버를 호출하지 않음
+     * - 대체 응답: 같은 재료/선호도의 마지막 성공 응답(cached: true), 없으면 success: false 응답(degraded: true)
+     * @param ingredients 사용자가 선택한 재료 목록 (Map 형태로 변환되어야 함)
+     * @param userPreferences 사용자 선호도 (예: 맵기, 조리 시간)
+     * @param additionalRequirements 추가 요청 사항 (없으면 null)
+     * @return AI가 생성한 레시피 데이터 (JSON Map)
+     */
+    public Map<String, Object> generateRecipe(List<Map<String, Object>> ingredients, Map<String, Object> userPreferences,
+                                              String additionalRequirements) {
+
         // 1. Node.js 서버가 기대하는 요청 구조 생성
-        Map<String, Object> requestBody = Map.of(
-            "ingredients", ingredients,
-            "user_preferences", userPreferences
-        );
-        
+        Map<String, Object> requestBody = requestBody(ingredients, userPreferences, additionalRequirements);
+        String key = aiRecipeCache.key(ingredients, userPreferences, additionalRequirements);
+
+        // 2. 이미 생성한 레시피 재사용
+        Map<String, Object> cached = aiRecipeCache.get(key);
+        if (cached != null) {
+            return cachedCopy(cached);
+        }
+
+        // 3. 같은 키로 호출 중이면 그 결과를 기다림 (동시에 몰린 캐시 미스가 LLM을 여러 번 호출하지 않도록)
+        CompletableFuture<Map<String, Object>> flight = new CompletableFuture<>();
+        CompletableFuture<Map<String, Object>> running = inFlight.putIfAbsent(key, flight);
+        if (running != null) {
+            coalesced.incrementAndGet();
+            return join(running, key);
+        }
+
+        Map<String, Object> response = null;
+        try {
+            response = call(requestBody, key);
+            return response;
+        } finally {
+            completeFlight(key, flight, response);
+        }
+    }
+
+    // AI 서버 호출 1건 (캐시 미스이고 같은 키로 진행 중인 호출이 없을 때)
+    private Map<String, Object> call(Map<String, Object> requestBody, String key) {
+        // 동시 호출 제한, 서킷이 열려 있으면 호출하지 않음
+        String rejected = admit();
+        if (rejected != null) {
+            return fallback(key, rejected);
+        }
+
+        long start = System.nanoTime();
+        calls.incrementAndGet();
         try {
-            // 2. HTTP POST 요청 전송
-            @SuppressWarnings("unchecked")
-            Map<String, Object> response = restTemplate.postForObject(
-                aiServiceUrl, 
-                requestBody, 
-                Map.class // Map 형태로 응답을 직접 받음
-            );
-
-            if (response == null || !((Boolean) response.getOrDefault("success", false))) {
+            // HTTP POST 요청 전송 (응답 본문까지 read-timeout-ms 안에 받지 못하면 요청 취소)
+            HttpRequest request = HttpRequest.newBuilder(URI.create(aiServiceUrl))
+                    .timeout(Duration.ofMillis(readTimeoutMs))
+                    .header("Content-Type", "application/json")
+                    .header("Accept", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(requestBody)))
+                    .build();
+            CompletableFuture<HttpResponse<byte[]>> future =
+                    httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray());
+            HttpResponse<byte[]> httpResponse;
+            try {
+                httpResponse = future.get(readTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                throw e;
+            }
+
+            if (httpResponse.statusCode() != 200) {
+                throw new IllegalStateException("HTTP " + httpResponse.statusCode());
+            }
+            Map<String, Object> response = objectMapper.readValue(httpResponse.body(), new TypeReference<>() {
+            });
+            recordLatency(start);
+
+            if (response == null || !Boolean.TRUE.equals(response.get("success"))) {
                 System.err.println("❌ AI 서버 응답 실패 또는 success: false");
+                failures.incrementAndGet();
+                circuitBreaker.onFailure();
                 // Node.js 서버의 폴백 응답을 받았다면 그대로 반환
-                return response != null ? response : Collections.emptyMap(); 
+                return response != null ? response : Collections.emptyMap();
             }
-            
-            System.out.println("✅ AI 레시피 생성 성공");
+
+            successes.incrementAndGet();
+            circuitBreaker.onSuccess();
+            lastGood.put(key, response);
+            aiRecipeCache.put(key, response);
+            System.out.println("✅ AI 레시피 생성 성공 (" + (System.nanoTime() - start) / 1_000_000 + "ms)");
             return response;
-            
+
         } catch (Exception e) {
-            System.err.println("🚨 Node.js AI 서버 통신 오류: " + e.getMessage());
-            return Collections.emptyMap(); // 통신 실패 시 빈 맵 반환
+            if (e instanceof InterruptedException) Thread.currentThread().interrupt();
+            Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+            boolean timedOut = e instanceof TimeoutException || cause instanceof HttpTimeoutException;
+            if (timedOut) timeouts.incrementAndGet();
+            recordLatency(start);
+            failures.incrementAndGet();
+            circuitBreaker.onFailure();
+            System.err.println("🚨 Node.js AI 서버 통신 오류: " + (timedOut ? readTimeoutMs + "ms 시간 초과" : cause));
+            return fallback(key, timedOut ? "AI_TIMEOUT" : "AI_UNAVAILABLE");
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    /**
+     * 스트리밍 버전: Node.js 서버의 SSE 응답을 받는 대로 브라우저에 그대로 전달합니다.
+     * 이벤트: start (바로 전송) → chunk ({"text"}, 생성 중인 텍스트 조각) 여러 번 → done (generateRecipe와 같은 형식의 최종 결과)
+     * - 🚨 AI 서버를 호출할 수 없거나 도중에 실패하면 done으로 대체 응답을 보냅니다. (앞서 받은 chunk는 버림)
+     * - 같은 키로 이미 생성 중이면 AI 서버를 다시 호출하지 않고 chunk 없이 그 결과를 done으로 보냅니다.
+     * - 클라이언트가 연결을 끊거나 stream.timeout-ms가 지나면 AI 서버 요청도 바로 취소합니다.
+     * - 브라우저로 보내는 속도가 느리면 AI 서버 응답도 그만큼 천천히 읽습니다. (TCP 흐름 제어로 Node.js까지 전달)
+     * @param ingredients 사용자가 선택한 재료 목록
+     * @param userPreferences 사용자 선호도
+     * @param additionalRequirements 추가 요청 사항 (없으면 null)
+     */
+    public SseEmitter streamRecipe(List<Map<String, Object>> ingredients, Map<String, Object> userPreferences,
+                                   String additionalRequirements) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        String key = aiRecipeCache.key(ingredients, userPreferences, additionalRequirements);
+        streamsStarted.incrementAndGet();
+
+        List<Object> names = ingredients.stream().map(ingredient -> ingredient.get("name")).toList();
+        try {
+            emitter.send(SseEmitter.event().name("start").data(Map.of("ingredients", names), MediaType.APPLICATION_JSON));
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+            return emitter;
+        }
+
+        // 캐시에 있으면 chunk 없이 바로 done
+        Map<String, Object> cached = aiRecipeCache.get(key);
+        if (cached != null) {
+            sendDone(emitter, cachedCopy(cached));
+            return emitter;
+        }
+
+        // 같은 키로 생성 중이면 chunk 없이 그 결과를 done으로 보냄
+        CompletableFuture<Map<String, Object>> flight = new CompletableFuture<>();
+        CompletableFuture<Map<String, Object>> running = inFlight.putIfAbsent(key, flight);
+        if (running != null) {
+            coalesced.incrementAndGet();
+            running.whenCompleteAsync((response, e) ->
+                    sendDone(emitter, response != null ? sharedCopy(response) : fallback(key, "AI_UNAVAILABLE")), executor);
+            return emitter;
+        }
+
+        String rejected = admit();
+        if (rejected != null) {
+            Map<String, Object> response = fallback(key, rejected);
+            completeFlight(key, flight, response);
+            sendDone(emitter, response);
+            return emitter;
+        }
+
+        RecipeStream stream = new RecipeStream(emitter, requestBody(ingredients, userPreferences, additionalRequirements), key, flight);
+        emitter.onCompletion(() -> stream.cancel(false));
+        emitter.onTimeout(() -> stream.cancel(true));
+        emitter.onError(e -> stream.cancel(false));
+        try {
+            executor.execute(stream);
+        } catch (RejectedExecutionException e) {
+            // 종료 중이라 작업을 받지 못함: 받아 둔 벌크헤드 자리와 서킷 시험 호출 허가를 돌려주고 대체 응답
+            bulkhead.release();
+            circuitBreaker.onCancelled();
+            Map<String, Object> response = fallback(key, "AI_UNAVAILABLE");
+            completeFlight(key, flight, response);
+            sendDone(emitter, response);
         }
+        return emitter;
+    }
+
+    // AI 서버 SSE 응답 1건을 읽어 브라우저로 전달 (벌크헤드 자리와 서킷 허가를 받은 상태에서 시작)
+    private final class RecipeStream implements Runnable {
+
+        private final SseEmitter emitter;
+        private final Map<String, Object> requestBody;
+        private final String key;
+        private final CompletableFuture<Map<String, Object>> flight;
+        private final long start = System.nanoTime();
+
+        private volatile boolean finished;
+        private volatile boolean cancelled;
+        private volatile boolean timedOut;
+        private volatile Thread worker;
+        private volatile CompletableFuture<HttpResponse<InputStream>> future;
+        private boolean firstChunk = true;
+        // 같은 키를 기다리는 요청들에 넘길 최종 결과 (취소되면 null)
+        private Map<String, Object> result;
+
+        RecipeStream(SseEmitter emitter, Map<String, Object> requestBody, String key,
+                     CompletableFuture<Map<String, Object>> flight) {
+            this.emitter = emitter;
+            this.requestBody = requestBody;
+            this.key = key;
+            this.flight = flight;
+        }
+
+        @Override
+        public void run() {
+            worker = Thread.currentThread();
+            calls.incrementAndGet();
+            try {
+                HttpRequest request = HttpRequest.newBuilder(URI.create(aiServiceStreamUrl))
+                        .timeout(Duration.ofMillis(readTimeoutMs))
+                        .header("Content-Type", "application/json")
+                        .header("Accept", "text/event-stream")
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(requestBody)))
+                        .build();
+                future = httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream());
+                if (cancelled) future.cancel(true);
+                // 응답 헤더는 read-timeout-ms 안에 와야 함 (이후 본문은 stream.timeout-ms까지)
+                HttpResponse<InputStream> response = future.get(readTimeoutMs, TimeUnit.MILLISECONDS);
+
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+                    if (response.statusCode() != 200) {
+                        throw new IllegalStateException("HTTP " + response.statusCode());
+                    }
+                    String event = "message";
+                    StringBuilder data = new StringBuilder();
+                    String line;
+                    while (!cancelled && (line = reader.readLine()) != null) {
+                        if (line.isEmpty()) {
+                            if (!data.isEmpty() && relay(event, data.toString())) return;
+                            event = "message";
+                            data.setLength(0);
+                        } else if (line.startsWith("event:")) {
+                            event = line.substring("event:".length()).trim();
+                        } else if (line.startsWith("data:")) {
+                            if (!data.isEmpty()) data.append('\n');
+                            data.append(line.substring("data:".length()).stripLeading());
+                        }
+                    }
+                }
+                if (!cancelled) throw new IllegalStateException("done 이벤트 없이 스트림이 끝났습니다.");
+
+            } catch (Exception e) {
+                // done을 보내다 끊긴 경우는 이미 결과를 기록함
+                if (!finished && (!cancelled || timedOut)) {
+                    // 대체 done 전송으로 연결이 닫히며 cancel()이 불려도 취소로 다시 세지 않도록 먼저 표시
+                    finished = true;
+                    Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+                    boolean timeout = timedOut || e instanceof TimeoutException || cause instanceof HttpTimeoutException;
+                    if (timeout) timeouts.incrementAndGet();
+                    failures.incrementAndGet();
+                    circuitBreaker.onFailure();
+                    System.err.println("🚨 Node.js AI 서버 스트리밍 오류: " + (timeout ? "시간 초과" : cause));
+                    if (!timedOut) {
+                        result = fallback(key, timeout ? "AI_TIMEOUT" : "AI_UNAVAILABLE");
+                        sendDone(emitter, result);
+                    }
+                }
+            } finally {
+                if (cancelled && !timedOut && !finished) {
+                    // 사용자가 떠난 요청은 성공/실패를 판단하지 않음
+                    streamsCancelled.incrementAndGet();
+                    circuitBreaker.onCancelled();
+                }
+                if (future != null) future.cancel(true);
+                Thread.interrupted();
+                bulkhead.release();
+                completeFlight(key, flight, result);
+            }
+        }
+
+        // 이벤트 1개를 브라우저로 전달, done이면 true
+        private boolean relay(String event, String data) throws IOException {
+            if (event.equals("chunk")) {
+                if (firstChunk) {
+                    firstChunk = false;
+                    firstChunkTotalMs.addAndGet((System.nanoTime() - start) / 1_000_000);
+                    firstChunkCount.incrementAndGet();
+                }
+                send(SseEmitter.event().name("chunk").data(data, MediaType.APPLICATION_JSON));
+                return false;
+            }
+            if (!event.equals("done")) return false;
+
+            result = objectMapper.readValue(data, new TypeReference<>() {
+            });
+            recordLatency(start);
+            finished = true;
+            if (Boolean.TRUE.equals(result.get("success"))) {
+                successes.incrementAndGet();
+                circuitBreaker.onSuccess();
+                lastGood.put(key, result);
+                aiRecipeCache.put(key, result);
+                System.out.println("✅ AI 레시피 스트리밍 생성 성공 (" + (System.nanoTime() - start) / 1_000_000 + "ms)");
+            } else {
+                System.err.println("❌ AI 서버 스트리밍 응답 success: false");
+                failures.incrementAndGet();
+                circuitBreaker.onFailure();
+            }
+            send(SseEmitter.event().name("done").data(data, MediaType.APPLICATION_JSON));
+            emitter.complete();
+            streamsCompleted.incrementAndGet();
+            return true;
+        }
+
+        private void send(SseEmitter.SseEventBuilder event) throws IOException {
+            try {
+                emitter.send(event);
+            } catch (IOException | IllegalStateException e) {
+                // 브라우저 연결이 끊김 → AI 서버 요청도 중단
+                cancel(false);
+                throw e instanceof IOException io ? io : new IOException(e);
+            }
+        }
+
+        // 클라이언트 연결 종료 또는 시간 초과: AI 서버 요청을 끊고, 응답을 기다리며 막혀 있는 읽기 스레드를 깨움
+        void cancel(boolean timeout) {
+            if (finished || cancelled) return;
+            cancelled = true;
+            timedOut = timeout;
+            CompletableFuture<HttpResponse<InputStream>> pending = future;
+            if (pending != null) pending.cancel(true);
+            Thread thread = worker;
+            if (thread != null) thread.interrupt();
+        }
+    }
+
+    /**
+     * AI 호출 수, 지연 시간 분포, 벌크헤드/서킷 브레이커 상태
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("calls", calls.get());
+        stats.put("successes", successes.get());
+        stats.put("failures", failures.get());
+        stats.put("timeouts", timeouts.get());
+
+        Map<String, Object> latency = new LinkedHashMap<>();
+        long measured = 0;
+        for (int i = 0; i < latencyBuckets.length(); i++) measured += latencyBuckets.get(i);
+        latency.put("avgMs", measured > 0 ? latencyTotalMs.get() / measured : 0);
+        latency.put("maxMs", latencyMaxMs.get());
+        Map<String, Long> histogram = new LinkedHashMap<>();
+        for (int i = 0; i < latencyBuckets.length(); i++) {
+            String label = i < LATENCY_BUCKETS_MS.length
+                    ? "le" + LATENCY_BUCKETS_MS[i] : "gt" + LATENCY_BUCKETS_MS[LATENCY_BUCKETS_MS.length - 1];
+            histogram.put(label, latencyBuckets.get(i));
+        }
+        latency.put("histogramMs", histogram);
+        stats.put("latency", latency);
+
+        Map<String, Object> bulkheadStats = new LinkedHashMap<>();
+        bulkheadStats.put("maxConcurrent", maxConcurrent);
+        bulkheadStats.put("inUse", Math.max(maxConcurrent, 1) - bulkhead.availablePermits());
+        bulkheadStats.put("rejected", bulkheadRejected.get());
+        stats.put("bulkhead", bulkheadStats);
+
+        stats.put("circuit", circuitBreaker.getStats());
+
+        Map<String, Object> streamStats = new LinkedHashMap<>();
+        streamStats.put("started", streamsStarted.get());
+        streamStats.put("completed", streamsCompleted.get());
+        streamStats.put("cancelled", streamsCancelled.get());
+        long chunks = firstChunkCount.get();
+        streamStats.put("avgFirstChunkMs", chunks > 0 ? firstChunkTotalMs.get() / chunks : 0);
+        stats.put("stream", streamStats);
+
+        Map<String, Object> fallbackStats = new LinkedHashMap<>();
+        fallbackStats.put("lastGoodSize", lastGood.size());
+        fallbackStats.put("servedLastGood", servedLastGood.get());
+        fallbackStats.put("servedDegraded", servedDegraded.get());
+        stats.put("fallback", fallbackStats);
+        stats.put("cache", aiRecipeCache.getStats());
+
+        Map<String, Object> inFlightStats = new LinkedHashMap<>();
+        inFlightStats.put("size", inFlight.size());
+        inFlightStats.put("coalesced", coalesced.get());
+        stats.put("inFlight", inFlightStats);
+        return stats;
+    }
+
+    // 벌크헤드 자리와 서킷 허가를 받음. 받으면 null, 못 받으면 대체 응답 코드
+    // (자리가 없으면 bulkhead-wait-ms 이상 기다리지 않음, 서킷 실패로는 세지 않음)
+    private String admit() {
+        boolean acquired;
+        try {
+            acquired = bulkhead.tryAcquire(bulkheadWaitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            bulkheadRejected.incrementAndGet();
+            return "AI_BUSY";
+        }
+        if (!circuitBreaker.allowRequest()) {
+            bulkhead.release();
+            return "AI_CIRCUIT_OPEN";
+        }
+        return null;
+    }
+
+    private static Map<String, Object> requestBody(List<Map<String, Object>> ingredients, Map<String, Object> userPreferences,
+                                                   String additionalRequirements) {
+        Map<String, Object> requestBody = new LinkedHashMap<>();
+        requestBody.put("ingredients", ingredients);
+        requestBody.put("user_preferences", userPreferences != null ? userPreferences : Map.of());
+        if (additionalRequirements != null && !additionalRequirements.isBlank()) {
+            requestBody.put("additional_requirements", additionalRequirements);
+        }
+        return requestBody;
+    }
+
+    private static void sendDone(SseEmitter emitter, Map<String, Object> response) {
+        try {
+            emitter.send(SseEmitter.event().name("done").data(response, MediaType.APPLICATION_JSON));
+            emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            // 이미 연결이 끊긴 경우
+        }
+    }
+
+    // AI 서버를 호출할 수 없을 때: 같은 요청의 마지막 성공 응답, 없으면 Node.js 폴백 응답과 같은 구조의 실패 응답
+    private Map<String, Object> fallback(String key, String code) {
+        Map<String, Object> cached = lastGood.get(key);
+        if (cached != null) {
+            servedLastGood.incrementAndGet();
+            return cachedCopy(cached);
+        }
+
+        servedDegraded.incrementAndGet();
+        Map<String, Object> error = new LinkedHashMap<>();
+        error.put("code", code);
+        error.put("message", switch (code) {
+            case "AI_BUSY" -> "AI 레시피 요청이 많아 잠시 후 다시 시도해 주세요.";
+            case "AI_CIRCUIT_OPEN" -> "AI 서버가 응답하지 않아 잠시 호출을 중단했습니다.";
+            default -> "AI 서버와 통신하지 못했습니다.";
+        });
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("success", false);
+        response.put("degraded", true);
+        response.put("error", error);
+        response.put("fallback_suggestions", List.of(Map.of(
+                "menu_name", "달걀프라이와 간장계란밥",
+                "reason", "AI 서버 연결이 불안정하여 가장 실패 없는 레시피를 추천합니다.",
+                "ingredients", List.of("달걀", "밥", "간장", "참기름"))));
+        return response;
+    }
+
+    // 진행 중인 호출을 기다린 요청: 결과를 받으면 그대로 복사, 호출이 취소됐거나 너무 오래 걸리면 대체 응답
+    // (진행 중인 호출이 스트리밍일 수도 있으므로 stream.timeout-ms까지 기다림)
+    private Map<String, Object> join(CompletableFuture<Map<String, Object>> running, String key) {
+        long waitMs = Math.max(readTimeoutMs, streamTimeoutMs) + bulkheadWaitMs;
+        try {
+            Map<String, Object> response = running.get(waitMs, TimeUnit.MILLISECONDS);
+            return response != null ? sharedCopy(response) : fallback(key, "AI_UNAVAILABLE");
+        } catch (TimeoutException e) {
+            return fallback(key, "AI_TIMEOUT");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return fallback(key, "AI_UNAVAILABLE");
+        } catch (ExecutionException e) {
+            return fallback(key, "AI_UNAVAILABLE");
+        }
+    }
+
+    // 진행 중 표시를 지우고 기다리던 요청들에 결과 전달 (지운 뒤에 온 요청은 캐시에서 찾음)
+    private void completeFlight(String key, CompletableFuture<Map<String, Object>> flight, Map<String, Object> response) {
+        inFlight.remove(key, flight);
+        flight.complete(response);
+    }
+
+    // 다른 요청의 결과를 나눠 받음: 성공이면 새로 생성하지 않은 응답으로 표시
+    private static Map<String, Object> sharedCopy(Map<String, Object> response) {
+        return Boolean.TRUE.equals(response.get("success")) ? cachedCopy(response) : new LinkedHashMap<>(response);
+    }
+
+    // 새로 생성하지 않은 응답 표시
+    private static Map<String, Object> cachedCopy(Map<String, Object> cached) {
+        Map<String, Object> response = new LinkedHashMap<>(cached);
+        response.put("cached", true);
+        return response;
+    }
+
+    private void recordLatency(long startNanos) {
+        long elapsedMs = (System.nanoTime() - startNanos) / 1_000_000;
+        latencyTotalMs.addAndGet(elapsedMs);
+        latencyMaxMs.accumulateAndGet(elapsedMs, Math::max);
+        int bucket = 0;
+        while (bucket < LATENCY_BUCKETS_MS.length && elapsedMs > LATENCY_BUCKETS_MS[bucket]) bucket++;
+        latencyBuckets.incrementAndGet(bucket);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,90 @@
+package com.proj.food.rottenpotato.service;
+
+import com.proj.food.rottenpotato.dto.ClassifiedItemDTO;
+import com.proj.food.rottenpotato.dto.InventoryItemDTO;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 메모리 재고 저장소 (DB 없이 실행하거나 부하 테스트할 때 사용)
+ * 사용자 ID → (품목 ID → 품목). 여러 업로드가 동시에 들어와도 안전하도록 동시성 맵 사용
+ */
+@Component
+@ConditionalOnProperty(name = "inventory.store", havingValue = "memory")
+public class InMemoryInventoryStore implements InventoryStore {
+
+    private final Map<String, Map<Long, InventoryItemDTO>> inventories = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+
+    @Override
+    public List<InventoryItemDTO> saveAll(String userId, List<ClassifiedItemDTO> items) {
+        Map<Long, InventoryItemDTO> inventory = inventories.computeIfAbsent(userId, id -> new ConcurrentHashMap<>());
+        List<InventoryItemDTO> saved = new ArrayList<>(items.size());
+        for (ClassifiedItemDTO itemData : items) {
+            InventoryItemDTO item = InventoryItemDTO.of(nextId.getAndIncrement(), itemData);
+            inventory.put(item.itemId(), item);
+            saved.add(item);
+        }
+        return saved;
+    }
+
+    // 조회 시점의 복사본을 반환하므로, 조회 중에도 추가/삭제가 막히지 않음
+    @Override
+    public List<InventoryItemDTO> findAll(String userId) {
+        Map<Long, InventoryItemDTO> inventory = inventories.get(userId);
+        if (inventory == null) return List.of();
+
+        return inventory.values().stream()
+                .sorted(Comparator.comparingLong(InventoryItemDTO::itemId))
+                .toList();
+    }
+
+    @Override
+    public List<InventoryItemDTO> query(String userId, InventoryQuery query) {
+        Map<Long, InventoryItemDTO> inventory = inventories.get(userId);
+        if (inventory == null) return List.of();
+
+        Comparator<InventoryItemDTO> order = query.sortByExpireDate()
+                ? Comparator.comparing(InventoryItemDTO::expireDate).thenComparingLong(InventoryItemDTO::itemId)
+                : Comparator.comparingLong(InventoryItemDTO::itemId);
+        if (query.descending()) order = order.reversed();
+
+        return inventory.values().stream()
+                .filter(query::matches)
+                .filter(query::isAfterCursor)
+                .sorted(order)
+                .limit(query.limit())
+                .toList();
+    }
+
+    @Override
+    public Map<String, List<InventoryItemDTO>> findExpiringByUser(LocalDate from, LocalDate to) {
+        Map<String, List<InventoryItemDTO>> result = new HashMap<>();
+        for (String userId : inventories.keySet()) {
+            List<InventoryItemDTO> expiring = findExpiring(userId, from, to);
+            if (!expiring.isEmpty()) result.put(userId, expiring);
+        }
+        return result;
+    }
+
+    @Override
+    public InventoryItemDTO find(String userId, long itemId) {
+        Map<Long, InventoryItemDTO> inventory = inventories.get(userId);
+        return inventory != null ? inventory.get(itemId) : null;
+    }
+
+    @Override
+    public boolean delete(String userId, long itemId) {
+        Map<Long, InventoryItemDTO> inventory = inventories.get(userId);
+        return inventory != null && inventory.remove(itemId) != null;
+    }
+}
@@ -0,0 +1,22 @@
+package com.proj.food.rottenpotato.service;
+
+import com.proj.food.rottenpotato.dto.InventoryItemDTO;
+
+import java.util.List;
+
+/**
+ * 재고 변경 1건 (ItemService가 추가/삭제 후 발행)
+ * @param userId 재고 주인
+ * @param added 추가된 품목 (삭제 이벤트면 빈 목록)
+ * @param deletedItemId 삭제된 품목 ID (추가 이벤트면 null)
+ */
+public record InventoryChangeEvent(String userId, List<InventoryItemDTO> added, Long deletedItemId) {
+
+    public static InventoryChangeEvent added(String userId, List<InventoryItemDTO> items) {
+        return new InventoryChangeEvent(userId, items, null);
+    }
+
+    public static InventoryChangeEvent deleted(String userId, long itemId) {
+        return new InventoryChangeEvent(userId, List.of(), itemId);
+    }
+}
@@ -0,0 +1,87 @@
+package com.proj.food.rottenpotato.service;
+
+import com.proj.food.rottenpotato.dto.InventoryItemDTO;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+/**
+ * 재고 목록 조회 조건 (필터 + 정렬 + 커서 페이지네이션)
+ * @param category 카테고리 필터 (null이면 전체)
+ * @param expireFrom 만료일 하한, 포함 (null이면 제한 없음)
+ * @param expireTo 만료일 상한, 포함 (null이면 제한 없음)
+ * @param sortByExpireDate true면 (만료일, 품목 ID) 순, false면 품목 ID 순
+ * @param descending 내림차순 여부
+ * @param afterExpireDate 커서: 이전 페이지 마지막 품목의 만료일 (만료일 정렬일 때만 사용)
+ * @param afterId 커서: 이전 페이지 마지막 품목 ID (null이면 첫 페이지)
+ * @param limit 최대 개수
+ */
+public record InventoryQuery(String category, LocalDate expireFrom, LocalDate expireTo,
+                             boolean sortByExpireDate, boolean descending,
+                             LocalDate afterExpireDate, Long afterId, int limit) {
+
+    /**
+     * 이 품목 다음부터 조회하는 커서 문자열 (클라이언트에게는 불투명한 값)
+     */
+    public String cursorAfter(InventoryItemDTO last) {
+        String raw = sortByExpireDate
+                ? "e:" + last.expireDate().toEpochDay() + ":" + last.itemId()
+                : "i:" + last.itemId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 커서 문자열을 해석해 조회 조건에 반영합니다.
+     * @throws IllegalArgumentException 형식이 잘못되었거나 정렬 기준과 맞지 않는 커서
+     */
+    public InventoryQuery withCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) return this;
+
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("잘못된 커서입니다.");
+        }
+
+        String[] parts = raw.split(":");
+        try {
+            if (sortByExpireDate && parts.length == 3 && parts[0].equals("e")) {
+                return new InventoryQuery(category, expireFrom, expireTo, true, descending,
+                        LocalDate.ofEpochDay(Long.parseLong(parts[1])), Long.parseLong(parts[2]), limit);
+            }
+            if (!sortByExpireDate && parts.length == 2 && parts[0].equals("i")) {
+                return new InventoryQuery(category, expireFrom, expireTo, false, descending,
+                        null, Long.parseLong(parts[1]), limit);
+            }
+        } catch (NumberFormatException ignored) { /* 아래에서 처리 */ }
+        throw new IllegalArgumentException("잘못된 커서이거나 정렬 기준과 맞지 않는 커서입니다.");
+    }
+
+    /**
+     * 필터 조건에 맞는지 여부 (커서 조건은 제외)
+     */
+    public boolean matches(InventoryItemDTO item) {
+        if (category != null && !category.equals(item.category())) return false;
+        if (expireFrom != null && item.expireDate().isBefore(expireFrom)) return false;
+        if (expireTo != null && item.expireDate().isAfter(expireTo)) return false;
+        return true;
+    }
+
+    /**
+     * 커서 이후(정렬 방향 기준)에 오는 품목인지 여부
+     */
+    public boolean isAfterCursor(InventoryItemDTO item) {
+        if (afterId == null) return true;
+
+        int cmp;
+        if (sortByExpireDate) {
+            cmp = item.expireDate().compareTo(afterExpireDate);
+            if (cmp == 0) cmp = Long.compare(item.itemId(), afterId);
+        } else {
+            cmp = Long.compare(item.itemId(), afterId);
+        }
+        return descending ? cmp < 0 : cmp > 0;
+    }
+}
@@ -0,0 +1,59 @@
+package com.proj.food.rottenpotato.service;
+
+import com.proj.food.rottenpotato.dto.ClassifiedItemDTO;
+import com.proj.food.rottenpotato.dto.InventoryItemDTO;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 재고 품목 저장소입니다. inventory.store 설정으로 구현체를 선택합니다.
+ * - jpa (기본값): DB에 저장 ({@link JpaInventoryStore})
+ * - memory: 메모리에만 저장, 재시작하면 사라짐 ({@link InMemoryInventoryStore})
+ */
+public interface InventoryStore {
+
+    /**
+     * 여러 품목을 한 번에 저장합니다. (영수증 1장의 품목은 한 번의 배치 쓰기로 저장)
+     * @return 저장된 품목 (입력 순서 유지, ID 부여됨)
+     */
+    List<InventoryItemDTO> saveAll(String userId, List<ClassifiedItemDTO> items);
+
+    /**
+     * @return 사용자의 전체 품목 (품목 ID 오름차순)
+     */
+    List<InventoryItemDTO> findAll(String userId);
+
+    /**
+     * 필터/정렬/커서 조건으로 품목을 조회합니다.
+     * @return 조건에 맞는 품목 최대 query.limit()개 (정렬 순서)
+     */
+    List<InventoryItemDTO> query(String userId, InventoryQuery query);
+
+    /**
+     * [from, to] 기간에 만료되는 품목을 (user_id, expire_date) 인덱스 구간으로 조회합니다.
+     * @param from 만료일 하한, 포함 (null이면 제한 없음)
+     * @param to 만료일 상한, 포함 (null이면 제한 없음)
+     * @return 만료일 오름차순 품목 (같은 날은 품목 ID 오름차순)
+     */
+    default List<InventoryItemDTO> findExpiring(String userId, LocalDate from, LocalDate to) {
+        return query(userId, new InventoryQuery(null, from, to, true, false, null, null, Integer.MAX_VALUE));
+    }
+
+    /**
+     * 전체 사용자 중 [from, to] 기간에 만료되는 품목 (소비기한 알림용, expire_date 인덱스 구간만 읽음)
+     * @return 사용자 ID → 만료일 오름차순 품목, 해당 품목이 없는 사용자는 빠짐
+     */
+    Map<String, List<InventoryItemDTO>> findExpiringByUser(LocalDate from, LocalDate to);
+
+    /**
+     * @return 품목, 없으면 null
+     */
+    InventoryItemDTO find(String userId, long itemId);
+
+    /**
+     * @return 삭제 성공 여부
+     */
+    boolean delete(String userId, long itemId);
+}
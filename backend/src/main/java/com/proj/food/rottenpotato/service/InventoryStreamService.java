@@ -0,0 +1,286 @@
+package com.proj.food.rottenpotato.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 재고 변경(추가/삭제)과 소비기한 임박 알림을 사용자별 SSE 구독자에게 전달합니다.
+ * - 연결 유지에는 스레드를 쓰지 않고(서블릿 비동기), 보낼 이벤트가 있을 때만 가상 스레드가 잠깐 전송합니다.
+ * - 구독자마다 버퍼 크기가 제한되며, 넘치면 쌓인 이벤트를 버리고 "resync" 1건으로 합칩니다. (클라이언트는 목록을 다시 조회)
+ * - 사용자별 최근 이벤트를 보관해 두었다가 Last-Event-ID로 재연결하면 그 다음 이벤트부터 다시 보냅니다.
+ *   구독자가 없는 채 history-retention-ms가 지난 사용자는 채널째 정리합니다. (그 뒤 재연결하면 resync)
+ */
+@Service
+public class InventoryStreamService {
+
+    // 구독자 1명당 전송 대기 이벤트 최대 개수 (넘치면 resync로 합침)
+    @Value("${inventory.stream.buffer-size:64}")
+    private int bufferSize;
+
+    // 재연결 시 이어 보내기 위해 사용자별로 보관할 최근 이벤트 개수
+    @Value("${inventory.stream.history-size:256}")
+    private int historySize;
+
+    // SSE 연결 최대 유지 시간(ms), 끊기면 클라이언트가 Last-Event-ID로 재연결
+    @Value("${inventory.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    // 구독자가 모두 떠난 뒤 보관 이벤트를 유지하는 시간(ms), 지나면 채널 제거
+    @Value("${inventory.stream.history-retention-ms:600000}")
+    private long historyRetentionMs;
+
+    // 서버가 뜰 때마다 바뀌는 값 → 재시작 전의 Last-Event-ID는 이어 보낼 수 없으므로 resync
+    private static final String EPOCH = Long.toString(System.currentTimeMillis(), 36);
+
+    private static final StreamEvent HEARTBEAT = new StreamEvent(null, null, null);
+
+    private final Map<String, Channel> channels = new ConcurrentHashMap<>();
+    private final AtomicLong evictedChannels = new AtomicLong();
+    private ExecutorService sender;
+
+    @PostConstruct
+    public void init() {
+        sender = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("inventory-sse-", 0).factory());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        channels.values().forEach(channel -> channel.subscribers.forEach(s -> s.emitter.complete()));
+        sender.shutdownNow();
+    }
+
+    /**
+     * ✅ 사용자의 재고 변경 스트림을 구독합니다.
+     * @param userId 사용자 ID
+     * @param lastEventId 재연결 시 마지막으로 받은 이벤트 ID (없으면 null)
+     */
+    public SseEmitter subscribe(String userId, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        while (true) {
+            Channel channel = channels.computeIfAbsent(userId, id -> new Channel());
+            Subscriber subscriber = new Subscriber(emitter, channel);
+
+            // 이어 보낼 이벤트 확인과 구독 등록을 한 번에 해야 그 사이에 발행된 이벤트를 놓치지 않음
+            synchronized (channel) {
+                // 방금 정리된 채널이면 새 채널로 다시 시도
+                if (channel.evicted) continue;
+                if (lastEventId != null && !lastEventId.isBlank()) {
+                    List<StreamEvent> missed = channel.since(lastEventId);
+                    if (missed == null) {
+                        subscriber.offer(channel.resync());
+                    } else {
+                        missed.forEach(subscriber::offer);
+                    }
+                }
+                channel.subscribers.add(subscriber);
+            }
+
+            emitter.onCompletion(subscriber::close);
+            emitter.onTimeout(subscriber::close);
+            emitter.onError(e -> subscriber.close());
+
+            // 연결 직후 헤더를 바로 내보내도록 주석 1건 전송
+            subscriber.offer(HEARTBEAT);
+            return emitter;
+        }
+    }
+
+    @EventListener
+    public void onInventoryChange(InventoryChangeEvent event) {
+        if (event.deletedItemId() != null) {
+            publish(event.userId(), "deleted", Map.of("itemId", event.deletedItemId()));
+        } else {
+            publish(event.userId(), "added", event.added());
+        }
+    }
+
+    @EventListener
+    public void onExpiryNotification(ExpiryNotificationEvent event) {
+        publish(event.userId(), "expiring", event.items());
+    }
+
+    /**
+     * 끊긴 연결을 찾아내고 프록시가 유휴 연결을 닫지 않도록 주기적으로 주석을 보냅니다.
+     */
+    @Scheduled(fixedDelayString = "${inventory.stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        channels.values().forEach(channel -> channel.subscribers.forEach(s -> s.offer(HEARTBEAT)));
+        evictIdleChannels();
+    }
+
+    /**
+     * 구독자가 없고 마지막 활동(이벤트 발행, 구독 종료) 뒤 history-retention-ms가 지난 채널을 제거합니다.
+     */
+    void evictIdleChannels() {
+        long now = System.currentTimeMillis();
+        channels.forEach((userId, channel) -> {
+            synchronized (channel) {
+                if (!channel.subscribers.isEmpty() || now - channel.lastActive < historyRetentionMs) return;
+                channel.evicted = true;
+                channels.remove(userId, channel);
+            }
+            evictedChannels.incrementAndGet();
+        });
+    }
+
+    public Map<String, Object> getStats() {
+        int subscribers = channels.values().stream().mapToInt(channel -> channel.subscribers.size()).sum();
+        return Map.of("users", channels.size(), "subscribers", subscribers, "evictedChannels", evictedChannels.get());
+    }
+
+    private void publish(String userId, String name, Object data) {
+        Channel channel = channels.get(userId);
+        if (channel == null) return;
+        synchronized (channel) {
+            StreamEvent event = channel.append(name, data);
+            channel.subscribers.forEach(s -> s.offer(event));
+        }
+    }
+
+    /**
+     * SSE 이벤트 1건 (id == null 이면 heartbeat 주석)
+     */
+    private record StreamEvent(String id, String name, Object data) {
+    }
+
+    /**
+     * 사용자 1명의 이벤트 순번, 최근 이벤트, 구독자 목록
+     */
+    private class Channel {
+        final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+        final ArrayDeque<StreamEvent> history = new ArrayDeque<>();
+        long seq;
+        // 마지막 이벤트 발행 또는 구독 종료 시각 (정리 대상 판단용)
+        volatile long lastActive = System.currentTimeMillis();
+        // synchronized(this) 안에서만 바뀜, true면 channels에서 빠진 채널
+        boolean evicted;
+
+        // synchronized(this) 안에서 호출
+        StreamEvent append(String name, Object data) {
+            lastActive = System.currentTimeMillis();
+            StreamEvent event = new StreamEvent(EPOCH + "-" + (++seq), name, data);
+            history.addLast(event);
+            if (history.size() > historySize) history.removeFirst();
+            return event;
+        }
+
+        StreamEvent resync() {
+            return new StreamEvent(EPOCH + "-" + seq, "resync", Map.of());
+        }
+
+        /**
+         * lastEventId 다음 이벤트들, 보관 범위를 벗어났거나 다른 서버 실행의 ID면 null
+         */
+        List<StreamEvent> since(String lastEventId) {
+            int dash = lastEventId.lastIndexOf('-');
+            if (dash < 0 || !lastEventId.substring(0, dash).equals(EPOCH)) return null;
+            long last;
+            try {
+                last = Long.parseLong(lastEventId.substring(dash + 1));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            if (last > seq) return null;
+            if (last == seq) return List.of();
+
+            long oldest = seq - history.size() + 1;
+            if (last + 1 < oldest) return null;
+            List<StreamEvent> missed = new ArrayList<>((int) (seq - last));
+            long current = oldest;
+            for (StreamEvent event : history) {
+                if (current++ > last) missed.add(event);
+            }
+            return missed;
+        }
+    }
+
+    /**
+     * SSE 연결 1개. 대기 중인 이벤트가 있을 때만 전송 작업을 1개 띄우고, 다 보내면 종료합니다.
+     */
+    private class Subscriber {
+        final SseEmitter emitter;
+        final Channel channel;
+        final ArrayDeque<StreamEvent> pending = new ArrayDeque<>();
+        StreamEvent coalesced;   // 버퍼가 넘쳐 합쳐진 resync 이벤트
+        boolean draining;
+        volatile boolean closed;
+
+        Subscriber(SseEmitter emitter, Channel channel) {
+            this.emitter = emitter;
+            this.channel = channel;
+        }
+
+        void offer(StreamEvent event) {
+            synchronized (this) {
+                if (closed) return;
+                if (event == HEARTBEAT) {
+                    // 보낼 것이 남아 있으면 heartbeat는 필요 없음
+                    if (draining || !pending.isEmpty() || coalesced != null) return;
+                    pending.add(event);
+                } else if (coalesced != null || pending.size() >= bufferSize) {
+                    // 느린 구독자: 쌓인 이벤트를 버리고 최신 ID의 resync 1건으로 대체
+                    pending.clear();
+                    coalesced = new StreamEvent(event.id(), "resync", Map.of());
+                } else {
+                    pending.add(event);
+                }
+                if (draining) return;
+                draining = true;
+            }
+            sender.execute(this::drain);
+        }
+
+        private void drain() {
+            while (true) {
+                StreamEvent next;
+                synchronized (this) {
+                    if (coalesced != null) {
+                        next = coalesced;
+                        coalesced = null;
+                    } else {
+                        next = pending.poll();
+                    }
+                    if (next == null || closed) {
+                        draining = false;
+                        return;
+                    }
+                }
+                try {
+                    if (next == HEARTBEAT) {
+                        emitter.send(SseEmitter.event().comment("ping"));
+                    } else {
+                        emitter.send(SseEmitter.event().id(next.id()).name(next.name()).data(next.data()));
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    close();
+                    emitter.completeWithError(e);
+                }
+            }
+        }
+
+        void close() {
+            synchronized (this) {
+                closed = true;
+                pending.clear();
+                coalesced = null;
+            }
+            if (channel.subscribers.remove(this)) channel.lastActive = System.currentTimeMillis();
+        }
+    }
+}
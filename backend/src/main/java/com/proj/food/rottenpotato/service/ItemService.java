@@ -1,52 +1,121 @@
 package com.proj.food.rottenpotato.service;
 
+import com.proj.food.rottenpotato.dto.ClassifiedItemDTO;
+import com.proj.food.rottenpotato.dto.InventoryItemDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import java.util.ArrayList;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
-// 이 Service가 DB 연동을 담당하게 될 메인 로직 파일입니다.
+// 재고 관리 메인 로직 (저장은 설정된 InventoryStore에 위임)
 @Service
 public class ItemService {
 
-    // 🚨 [임시] DB 연동 전 데이터를 저장할 가짜 리스트 (나중에 DB 코드로 대체)
-    private final List<Map<String, Object>> userInventory = new ArrayList<>();
-    private long nextId = 1;
+    private final InventoryStore store;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // 사용자별 재고 버전 (추가/삭제 시 증가) → 목록 조회 ETag에 사용
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ItemService(InventoryStore store, ApplicationEventPublisher eventPublisher) {
+        this.store = store;
+        this.eventPublisher = eventPublisher;
+    }
 
     /**
-     * ✅ 재고 목록에 새 품목을 추가합니다. (OCR 파이프라인의 최종 단계)
+     * ✅ 재고 목록에 새 품목을 추가합니다.
+     * @param userId 사용자 ID
      * @param itemData 분류 및 만료일 계산이 완료된 품목 데이터
      * @return 추가된 품목 데이터
      */
-    public Map<String, Object> addItem(Map<String, Object> itemData) {
-        // DB 대신 임시 ID를 부여하고 리스트에 추가
-        itemData.put("itemId", nextId++);
-        userInventory.add(itemData);
-        System.out.println("--- [DEBUG: Inventory] 품목 추가됨: " + itemData.get("name"));
-        return itemData;
+    public InventoryItemDTO addItem(String userId, ClassifiedItemDTO itemData) {
+        return addItems(userId, List.of(itemData)).get(0);
+    }
+
+    /**
+     * ✅ 여러 품목을 한 번에 추가합니다. (OCR 파이프라인의 최종 단계, 영수증 1장 = 배치 저장 1회)
+     * @param userId 사용자 ID
+     * @param items 분류 및 만료일 계산이 완료된 품목 목록
+     * @return 추가된 품목 목록 (입력 순서 유지)
+     */
+    public List<InventoryItemDTO> addItems(String userId, List<ClassifiedItemDTO> items) {
+        if (items.isEmpty()) return List.of();
+
+        List<InventoryItemDTO> saved = store.saveAll(userId, items);
+        bumpVersion(userId);
+        eventPublisher.publishEvent(InventoryChangeEvent.added(userId, saved));
+        return saved;
+    }
+
+    /**
+     * ✅ 사용자의 전체 재고 목록을 조회합니다.
+     * @param userId 사용자 ID
+     * @return 전체 재고 품목 리스트 (품목 ID 오름차순)
+     */
+    public List<InventoryItemDTO> getAllItems(String userId) {
+        return store.findAll(userId);
+    }
+
+    /**
+     * ✅ 필터/정렬/커서 조건으로 재고 목록 한 페이지를 조회합니다.
+     * @param userId 사용자 ID
+     * @param query 조회 조건
+     * @return 조건에 맞는 품목 최대 query.limit()개
+     */
+    public List<InventoryItemDTO> queryItems(String userId, InventoryQuery query) {
+        return store.query(userId, query);
     }
 
     /**
-     * ✅ 전체 재고 목록을 조회합니다.
-     * @return 전체 재고 품목 리스트
+     * ✅ 사용자 재고의 현재 버전을 조회합니다. 재고가 바뀔 때마다 값이 커집니다.
      */
-    public List<Map<String, Object>> getAllItems() {
-        // DB 대신 임시 리스트를 반환
-        return userInventory;
+    public long getVersion(String userId) {
+        AtomicLong version = versions.get(userId);
+        return version != null ? version.get() : 0;
+    }
+
+    private void bumpVersion(String userId) {
+        versions.computeIfAbsent(userId, id -> new AtomicLong()).incrementAndGet();
+    }
+
+    /**
+     * ✅ 특정 품목을 ID로 조회합니다.
+     * @return 품목, 없으면 null
+     */
+    public InventoryItemDTO getItem(String userId, long itemId) {
+        return store.find(userId, itemId);
     }
 
     /**
      * ✅ 특정 품목을 ID로 삭제합니다.
+     * @param userId 사용자 ID
      * @param itemId 삭제할 품목 ID
      * @return 삭제 성공 여부
      */
-    public boolean deleteItem(Long itemId) {
-        // DB 대신 임시 리스트에서 ID로 필터링하여 제거
-        return userInventory.removeIf(item -> 
-            Optional.ofNullable(item.get("itemId"))
-                    .map(id -> id.equals(itemId))
-                    .orElse(false)
-        );
+    public boolean deleteItem(String userId, Long itemId) {
+        boolean deleted = store.delete(userId, itemId);
+        if (deleted) {
+            bumpVersion(userId);
+            eventPublisher.publishEvent(InventoryChangeEvent.deleted(userId, itemId));
+        }
+        return deleted;
+    }
+
+    /**
+     * ✅ 오늘부터 N일 안에 만료되는 품목을 조회합니다. (저장소의 (사용자, 만료일) 구간 조회)
+     * @param userId 사용자 ID
+     * @param days 오늘 기준 며칠 후까지 (0이면 오늘 만료 품목만)
+     * @param includeExpired 이미 만료된 품목도 포함할지 여부
+     * @return 만료일 오름차순 품목 리스트
+     */
+    public List<InventoryItemDTO> getExpiringItems(String userId, int days, boolean includeExpired) {
+        LocalDate today = LocalDate.now();
+        LocalDate from = includeExpired ? null : today;
+        return store.findExpiring(userId, from, today.plusDays(days));
     }
-}
\ No newline at end of file
+}
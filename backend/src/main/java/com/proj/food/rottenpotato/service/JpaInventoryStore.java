@@ -0,0 +1,91 @@
+package com.proj.food.rottenpotato.service;
+
+import com.proj.food.rottenpotato.domain.InventoryItem;
+import com.proj.food.rottenpotato.dto.ClassifiedItemDTO;
+import com.proj.food.rottenpotato.dto.InventoryItemDTO;
+import com.proj.food.rottenpotato.repository.InventoryItemRepository;
+import com.proj.food.rottenpotato.repository.InventoryItemSpecs;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * DB 재고 저장소 (기본값)
+ * 영수증 1장의 품목은 saveAll 한 번으로 저장되며, hibernate.jdbc.batch_size 설정에 따라
+ * 여러 행이 JDBC 배치 INSERT로 묶여 전송됩니다.
+ */
+@Component
+@ConditionalOnProperty(name = "inventory.store", havingValue = "jpa", matchIfMissing = true)
+public class JpaInventoryStore implements InventoryStore {
+
+    private final InventoryItemRepository repository;
+
+    @Autowired
+    public JpaInventoryStore(InventoryItemRepository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    @Transactional
+    public List<InventoryItemDTO> saveAll(String userId, List<ClassifiedItemDTO> items) {
+        List<InventoryItem> entities = items.stream()
+                .map(item -> new InventoryItem(userId, item))
+                .toList();
+        return repository.saveAll(entities).stream()
+                .map(InventoryItem::toDTO)
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<InventoryItemDTO> findAll(String userId) {
+        return repository.findByUserIdOrderByIdAsc(userId).stream()
+                .map(InventoryItem::toDTO)
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<InventoryItemDTO> query(String userId, InventoryQuery query) {
+        Sort.Direction direction = query.descending() ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort sort = query.sortByExpireDate()
+                ? Sort.by(direction, "expireDate", "id")
+                : Sort.by(direction, "id");
+
+        // 커서 조건이 WHERE 절에 들어가므로 처음 limit개만 읽음 (Page가 아니므로 count 쿼리 없음)
+        return repository.findBy(InventoryItemSpecs.of(userId, query), q -> q.sortBy(sort).limit(query.limit()).all())
+                .stream()
+                .map(InventoryItem::toDTO)
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, List<InventoryItemDTO>> findExpiringByUser(LocalDate from, LocalDate to) {
+        return repository.findByExpireDateBetweenOrderByExpireDateAscIdAsc(from, to).stream()
+                .collect(Collectors.groupingBy(InventoryItem::getUserId, LinkedHashMap::new,
+                        Collectors.mapping(InventoryItem::toDTO, Collectors.toList())));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public InventoryItemDTO find(String userId, long itemId) {
+        return repository.findByIdAndUserId(itemId, userId)
+                .map(InventoryItem::toDTO)
+                .orElse(null);
+    }
+
+    @Override
+    @Transactional
+    public boolean delete(String userId, long itemId) {
+        return repository.deleteByIdAndUserId(itemId, userId) > 0;
+    }
+}
@@ -0,0 +1,38 @@
+package com.proj.food.rottenpotato.service;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * 영수증 이미지에서 텍스트를 인식하는 OCR 엔진입니다.
+ * receipt.ocr.engine 설정으로 구현체를 선택합니다.
+ * - vision (기본값): Google Cloud Vision API ({@link VisionOcrEngine})
+ * - fixture: 미리 기록한 OCR 텍스트를 재생 ({@link FixtureReplayOcrEngine}), 네트워크/인증 없이 부하 테스트용
+ */
+public interface OcrEngine {
+
+    /**
+     * 이미지 1장의 OCR 결과. 성공 시 text, 실패 시 error만 채워집니다.
+     */
+    record Result(String text, String error) {
+
+        public static Result text(String text) {
+            return new Result(text, null);
+        }
+
+        public static Result error(String error) {
+            return new Result(null, error);
+        }
+
+        public boolean hasError() {
+            return error != null;
+        }
+    }
+
+    /**
+     * 여러 이미지를 OCR 합니다.
+     * @param images 영수증 이미지 바이트 목록
+     * @return 입력 순서와 동일한 순서의 OCR 결과
+     */
+    List<Result> recognize(List<byte[]> images) throws IOException;
+}
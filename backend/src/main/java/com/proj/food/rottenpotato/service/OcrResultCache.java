@@ -0,0 +1,253 @@
+package com.proj.food.rottenpotato.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 영수증 이미지 바이트의 SHA-256 해시를 키로 OCR 결과(텍스트, 영수증 날짜)를 저장하는 캐시입니다.
+ * 같은 사진을 다시 올리면 Vision API를 호출하지 않고 저장된 결과를 재사용합니다.
+ * - 1단계: 메모리 LRU (텍스트 크기 합계 기준으로 제한)
+ * - 2단계: 디스크 (receipt.ocr-cache.dir 설정 시에만 사용, 재시작 후에도 유지)
+ *   cleanup-interval-ms마다 max-disk-age-days보다 오래 쓰이지 않은 파일을 지우고,
+ *   그래도 max-disk-entries개가 넘으면 가장 오래 쓰이지 않은 파일부터 지웁니다. (읽을 때 수정 시각 갱신)
+ */
+@Service
+public class OcrResultCache {
+
+    // 메모리 캐시 최대 크기 (텍스트 문자 수 기준, 기본 4M자 ≒ 8MB)
+    @Value("${receipt.ocr-cache.max-chars:4194304}")
+    private long maxChars;
+
+    // 디스크 캐시 디렉터리 (비어 있으면 디스크 캐시 미사용)
+    @Value("${receipt.ocr-cache.dir:}")
+    private String cacheDir;
+
+    // 디스크 캐시 최대 파일 수 / 마지막 사용 후 보관 일수 (0이면 제한 없음)
+    @Value("${receipt.ocr-cache.max-disk-entries:10000}")
+    private int maxDiskEntries;
+
+    @Value("${receipt.ocr-cache.max-disk-age-days:30}")
+    private int maxDiskAgeDays;
+
+    // receiptDate: 영수증에서 읽은 날짜, 찾지 못했으면 null (처리한 날짜로 대신한 값은 저장하지 않음)
+    private record CachedOcr(String text, LocalDate receiptDate) {}
+
+    private final LinkedHashMap<String, CachedOcr> memory = new LinkedHashMap<>(64, 0.75f, true);
+    private long memoryChars = 0;
+    private Path diskDir;
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong diskEvicted = new AtomicLong();
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (cacheDir != null && !cacheDir.isBlank()) {
+            diskDir = Path.of(cacheDir);
+            Files.createDirectories(diskDir);
+        }
+    }
+
+    /**
+     * 이미지 바이트의 SHA-256 해시(16진수 문자열)를 계산합니다.
+     */
+    public static String sha256Hex(byte[] imageBytes) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(imageBytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256을 사용할 수 없습니다.", e);
+        }
+    }
+
+    /**
+     * 캐시된 OCR 결과를 조회합니다.
+     * @param key 이미지 해시 ({@link #sha256Hex(byte[])})
+     * @return "text", "receiptDate"(영수증에 날짜가 있을 때만)를 담은 OCR 결과, 없으면 null
+     */
+    public Map<String, Object> get(String key) {
+        CachedOcr cached;
+        synchronized (memory) {
+            cached = memory.get(key);
+        }
+        if (cached != null) {
+            memoryHits.incrementAndGet();
+            return toOcrResult(cached);
+        }
+
+        cached = readFromDisk(key);
+        if (cached != null) {
+            diskHits.incrementAndGet();
+            putInMemory(key, cached);
+            return toOcrResult(cached);
+        }
+
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * OCR 결과를 캐시에 저장합니다. 오류 응답이나 빈 텍스트는 저장하지 않습니다.
+     */
+    public void put(String key, Map<String, Object> ocrResult) {
+        String text = (String) ocrResult.get("text");
+        LocalDate receiptDate = (LocalDate) ocrResult.get("receiptDate");
+        if (ocrResult.containsKey("error") || text == null || text.isBlank()) {
+            return;
+        }
+
+        CachedOcr cached = new CachedOcr(text, receiptDate);
+        putInMemory(key, cached);
+        writeToDisk(key, cached);
+    }
+
+    public Map<String, Object> getStats() {
+        synchronized (memory) {
+            return Map.of(
+                    "memoryHits", memoryHits.get(),
+                    "diskHits", diskHits.get(),
+                    "misses", misses.get(),
+                    "memoryEntries", memory.size(),
+                    "memoryChars", memoryChars,
+                    "diskEnabled", diskDir != null,
+                    "diskEvicted", diskEvicted.get()
+            );
+        }
+    }
+
+    /**
+     * 디스크 캐시에서 보관 기간이 지난 파일과 최대 파일 수를 넘는 오래된 파일을 지웁니다.
+     * (남은 임시 파일도 보관 기간이 지나면 함께 정리)
+     */
+    @Scheduled(fixedDelayString = "${receipt.ocr-cache.cleanup-interval-ms:3600000}")
+    public void cleanupDisk() {
+        if (diskDir == null) return;
+
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(diskDir)) {
+            files = listing.filter(Files::isRegularFile).collect(Collectors.toCollection(ArrayList::new));
+        } catch (IOException e) {
+            System.err.println("OCR 캐시 디렉터리 읽기 실패: " + diskDir + " - " + e.getMessage());
+            return;
+        }
+
+        Map<Path, Long> lastUsed = new HashMap<>();
+        for (Path file : files) {
+            try {
+                lastUsed.put(file, Files.getLastModifiedTime(file).toMillis());
+            } catch (IOException e) {
+                // 다른 정리 작업이 먼저 지운 파일
+            }
+        }
+        files.retainAll(lastUsed.keySet());
+        files.sort(Comparator.comparing(lastUsed::get));
+
+        long cutoff = maxDiskAgeDays > 0
+                ? System.currentTimeMillis() - TimeUnit.DAYS.toMillis(maxDiskAgeDays)
+                : Long.MIN_VALUE;
+        int remaining = (int) files.stream().filter(file -> file.toString().endsWith(".txt")).count();
+        for (Path file : files) {
+            boolean entry = file.toString().endsWith(".txt");
+            boolean overCount = entry && maxDiskEntries > 0 && remaining > maxDiskEntries;
+            if (lastUsed.get(file) >= cutoff && !overCount) continue;
+            try {
+                if (Files.deleteIfExists(file) && entry) {
+                    remaining--;
+                    diskEvicted.incrementAndGet();
+                }
+            } catch (IOException e) {
+                System.err.println("OCR 캐시 파일 삭제 실패: " + file + " - " + e.getMessage());
+            }
+        }
+    }
+
+    private void putInMemory(String key, CachedOcr cached) {
+        // 한 건이 전체 용량보다 크면 메모리에는 올리지 않음
+        if (cached.text().length() > maxChars) return;
+
+        synchronized (memory) {
+            CachedOcr previous = memory.put(key, cached);
+            if (previous != null) {
+                memoryChars -= previous.text().length();
+            }
+            memoryChars += cached.text().length();
+
+            // 가장 오래 사용되지 않은 항목부터 제거
+            Iterator<CachedOcr> it = memory.values().iterator();
+            while (memoryChars > maxChars && it.hasNext()) {
+                memoryChars -= it.next().text().length();
+                it.remove();
+            }
+        }
+    }
+
+    // 디스크 형식: 첫 줄은 영수증 날짜(yyyy-MM-dd, 없으면 빈 줄), 나머지는 OCR 텍스트
+    private CachedOcr readFromDisk(String key) {
+        if (diskDir == null) return null;
+        Path file = diskDir.resolve(key + ".txt");
+        if (!Files.exists(file)) return null;
+
+        try {
+            String content = Files.readString(file, StandardCharsets.UTF_8);
+            int newline = content.indexOf('\n');
+            if (newline < 0) return null;
+            String date = content.substring(0, newline);
+            // 정리 작업이 최근에 쓰인 파일을 남기도록 사용 시각으로 갱신
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return new CachedOcr(content.substring(newline + 1), date.isEmpty() ? null : LocalDate.parse(date));
+        } catch (Exception e) {
+            System.err.println("OCR 캐시 파일 읽기 실패: " + file + " - " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeToDisk(String key, CachedOcr cached) {
+        if (diskDir == null) return;
+        Path file = diskDir.resolve(key + ".txt");
+
+        try {
+            // 임시 파일에 쓴 뒤 이동하여 읽는 쪽에서 반쯤 쓰인 파일을 보지 않도록 함
+            Path tmp = Files.createTempFile(diskDir, key, ".tmp");
+            String date = cached.receiptDate() != null ? cached.receiptDate().toString() : "";
+            Files.writeString(tmp, date + "\n" + cached.text(), StandardCharsets.UTF_8);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("OCR 캐시 파일 저장 실패: " + file + " - " + e.getMessage());
+        }
+    }
+
+    private Map<String, Object> toOcrResult(CachedOcr cached) {
+        if (cached.receiptDate() == null) {
+            return Map.of("text", cached.text());
+        }
+        return Map.of(
+                "text", cached.text(),
+                "receiptDate", cached.receiptDate()
+        );
+    }
+}
@@ -0,0 +1,207 @@
+package com.proj.food.rottenpotato.service;
+
+import java.util.*;
+
+/**
+ * 상품 사전 전체를 하나의 Aho-Corasick 오토마톤으로 컴파일한 불변 조회 구조입니다.
+ * 품목명을 한 번만 훑으면서 비식품 여부와 (가장 긴 키워드 기준의) 카테고리/소비기한을 함께 찾습니다.
+ * - 비교 전 품목명은 소문자화하고 공백을 건너뜁니다. (키워드도 같은 방식으로 정규화)
+ * - 길이가 같은 키워드가 여러 개 걸리면 품목명에서 먼저 끝나는 키워드가 이깁니다.
+ */
+public final class ProductDictionary {
+
+    private static final char[] NO_CHARS = new char[0];
+    private static final int[] NO_TARGETS = new int[0];
+
+    private final List<ProductEntry> entries;
+    // entries와 같은 순서의 정규화된 키워드 길이
+    private final int[] keywordLengths;
+
+    // 노드별 전이 (문자 오름차순 정렬, 이진 탐색)
+    private final char[][] edgeChars;
+    private final int[][] edgeTargets;
+    // 실패 링크
+    private final int[] fail;
+    // 이 노드까지 읽은 문자열의 접미사 중 가장 긴 식품 키워드의 entries 인덱스 (-1: 없음)
+    private final int[] bestFood;
+    // 이 노드까지 읽은 문자열의 접미사 중 비식품 키워드가 있는지 여부
+    private final boolean[] nonFood;
+    // 키워드가 그대로 포함되지 않은 품목명을 위한 유사 매칭 색인
+    private final ProductNgramIndex ngramIndex;
+
+    private ProductDictionary(List<ProductEntry> entries, int[] keywordLengths, char[][] edgeChars, int[][] edgeTargets,
+                              int[] fail, int[] bestFood, boolean[] nonFood, ProductNgramIndex ngramIndex) {
+        this.entries = entries;
+        this.keywordLengths = keywordLengths;
+        this.edgeChars = edgeChars;
+        this.edgeTargets = edgeTargets;
+        this.fail = fail;
+        this.bestFood = bestFood;
+        this.nonFood = nonFood;
+        this.ngramIndex = ngramIndex;
+    }
+
+    /**
+     * 키워드 목록으로 오토마톤을 만듭니다. 정규화 후 같은 키워드가 여러 번 나오면 마지막 항목이 사용됩니다.
+     */
+    public static ProductDictionary compile(Collection<ProductEntry> products) {
+        // 1. 키워드 정규화 및 중복 제거
+        Map<String, ProductEntry> byKeyword = new LinkedHashMap<>();
+        for (ProductEntry product : products) {
+            String keyword = normalize(product.keyword());
+            if (!keyword.isEmpty()) {
+                byKeyword.put(keyword, product);
+            }
+        }
+        List<ProductEntry> entries = List.copyOf(byKeyword.values());
+        int[] keywordLengths = byKeyword.keySet().stream().mapToInt(String::length).toArray();
+
+        // 2. 트라이 구성 (빌드 중에만 Map 사용)
+        List<Map<Character, Integer>> children = new ArrayList<>();
+        List<Integer> terminal = new ArrayList<>();
+        List<Integer> depth = new ArrayList<>();
+        children.add(new HashMap<>());
+        terminal.add(-1);
+        depth.add(0);
+
+        int entryIndex = 0;
+        for (String keyword : byKeyword.keySet()) {
+            int node = 0;
+            for (int i = 0; i < keyword.length(); i++) {
+                Integer next = children.get(node).get(keyword.charAt(i));
+                if (next == null) {
+                    next = children.size();
+                    children.get(node).put(keyword.charAt(i), next);
+                    children.add(new HashMap<>());
+                    terminal.add(-1);
+                    depth.add(depth.get(node) + 1);
+                }
+                node = next;
+            }
+            terminal.set(node, entryIndex++);
+        }
+
+        int size = children.size();
+        char[][] edgeChars = new char[size][];
+        int[][] edgeTargets = new int[size][];
+        for (int node = 0; node < size; node++) {
+            Map<Character, Integer> edges = children.get(node);
+            if (edges.isEmpty()) {
+                edgeChars[node] = NO_CHARS;
+                edgeTargets[node] = NO_TARGETS;
+                continue;
+            }
+            char[] chars = new char[edges.size()];
+            int k = 0;
+            for (char c : edges.keySet()) chars[k++] = c;
+            Arrays.sort(chars);
+            int[] targets = new int[chars.length];
+            for (int j = 0; j < chars.length; j++) targets[j] = edges.get(chars[j]);
+            edgeChars[node] = chars;
+            edgeTargets[node] = targets;
+        }
+
+        // 3. BFS로 실패 링크와 노드별 출력(가장 긴 식품 키워드, 비식품 여부) 계산
+        int[] fail = new int[size];
+        int[] bestFood = new int[size];
+        boolean[] nonFood = new boolean[size];
+        Arrays.fill(bestFood, -1);
+
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int child : edgeTargets[0]) {
+            fail[child] = 0;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+
+            int own = terminal.get(node);
+            boolean ownNonFood = own >= 0 && entries.get(own).nonFood();
+            nonFood[node] = ownNonFood || nonFood[fail[node]];
+            // 노드 자신이 식품 키워드이면 그것이 가장 긴 접미사 키워드
+            bestFood[node] = (own >= 0 && !ownNonFood) ? own : bestFood[fail[node]];
+
+            for (int j = 0; j < edgeChars[node].length; j++) {
+                char c = edgeChars[node][j];
+                int child = edgeTargets[node][j];
+                int f = fail[node];
+                int next;
+                while ((next = step(edgeChars, edgeTargets, f, c)) < 0 && f != 0) {
+                    f = fail[f];
+                }
+                fail[child] = Math.max(next, 0);
+                queue.add(child);
+            }
+        }
+
+        ProductNgramIndex ngramIndex = ProductNgramIndex.build(entries, List.copyOf(byKeyword.keySet()));
+
+        return new ProductDictionary(entries, keywordLengths, edgeChars, edgeTargets,
+                fail, bestFood, nonFood, ngramIndex);
+    }
+
+    /**
+     * 품목명을 한 번 훑어 비식품 여부와 가장 긴 식품 키워드를 찾습니다.
+     */
+    public ProductMatch match(CharSequence name) {
+        if (name == null) return ProductMatch.NONE;
+
+        int state = 0;
+        boolean foundNonFood = false;
+        int best = -1;
+        int bestLength = 0;
+
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (isWhitespace(c)) continue;
+            c = Character.toLowerCase(c);
+
+            int next;
+            while ((next = step(edgeChars, edgeTargets, state, c)) < 0 && state != 0) {
+                state = fail[state];
+            }
+            state = Math.max(next, 0);
+
+            if (nonFood[state]) foundNonFood = true;
+            int food = bestFood[state];
+            if (food >= 0 && keywordLengths[food] > bestLength) {
+                best = food;
+                bestLength = keywordLengths[food];
+            }
+        }
+
+        if (!foundNonFood && best < 0) return ProductMatch.NONE;
+        return new ProductMatch(foundNonFood, best >= 0 ? entries.get(best) : null, best >= 0 ? 1.0 : 0);
+    }
+
+    /**
+     * 자모 3-gram 색인으로 품목명과 가장 비슷한 식품 키워드를 찾습니다.
+     * @param minScore 이 점수 미만이면 {@link ProductMatch#NONE}
+     */
+    public ProductMatch fuzzyMatch(CharSequence name, double minScore) {
+        return ngramIndex.bestMatch(name, minScore);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private static int step(char[][] edgeChars, int[][] edgeTargets, int node, char c) {
+        int idx = Arrays.binarySearch(edgeChars[node], c);
+        return idx >= 0 ? edgeTargets[node][idx] : -1;
+    }
+
+    static String normalize(String keyword) {
+        StringBuilder sb = new StringBuilder(keyword.length());
+        for (int i = 0; i < keyword.length(); i++) {
+            char c = keyword.charAt(i);
+            if (!isWhitespace(c)) sb.append(Character.toLowerCase(c));
+        }
+        return sb.toString();
+    }
+
+    // 정규식 \s 와 같은 공백 문자 집합
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+}
@@ -0,0 +1,146 @@
+package com.proj.food.rottenpotato.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 외부 상품 사전 파일을 읽어 {@link FoodClassifierService}에 적용하고, 파일이 바뀌면 다시 읽습니다.
+ *
+ * 파일 형식 (UTF-8, 한 줄에 1건, '#'으로 시작하는 줄은 주석):
+ * <pre>
+ * 키워드,카테고리,소비기한(일)      예) 삼겹살,육류,3
+ * 키워드,비식품                   예) 세제,비식품
+ * </pre>
+ * 새 사전은 별도로 컴파일한 뒤 한 번에 교체되므로, 분류 중인 요청은 기존 사전을 끝까지 그대로 사용합니다.
+ * 파일 읽기나 형식 오류가 있으면 기존 사전을 유지합니다.
+ * 로드/재로드/실패 횟수와 마지막 로드 결과는 {@link #getStats()}로 조회합니다.
+ */
+@Component
+public class ProductDictionaryLoader {
+
+    private static final String NON_FOOD_MARKER = "비식품";
+
+    // 상품 사전 파일 경로 (비어 있으면 내장 사전만 사용)
+    @Value("${classifier.dictionary.path:}")
+    private String dictionaryPath;
+
+    private final FoodClassifierService classifier;
+
+    private FileTime loadedModifiedTime;
+
+    // 최초 로드 + 재로드 횟수, 재로드 횟수, 실패 횟수 (실패 시 기존 사전 유지)
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong reloads = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    // 마지막으로 적용한 사전: 파일 항목 수, 전체 키워드 수, 읽기/컴파일 시간(ms)
+    private volatile int lastFileEntries;
+    private volatile int lastKeywords;
+    private volatile long lastReadMs;
+    private volatile long lastCompileMs;
+
+    @Autowired
+    public ProductDictionaryLoader(FoodClassifierService classifier) {
+        this.classifier = classifier;
+    }
+
+    @PostConstruct
+    public void init() {
+        reloadIfChanged();
+    }
+
+    /**
+     * 파일 수정 시각이 바뀌었으면 사전을 다시 읽어 교체합니다.
+     */
+    @Scheduled(fixedDelayString = "${classifier.dictionary.reload-interval-ms:10000}")
+    public synchronized void reloadIfChanged() {
+        if (dictionaryPath == null || dictionaryPath.isBlank()) return;
+
+        Path path = Path.of(dictionaryPath);
+        try {
+            FileTime modifiedTime = Files.getLastModifiedTime(path);
+            if (modifiedTime.equals(loadedModifiedTime)) return;
+
+            long startNanos = System.nanoTime();
+            List<ProductEntry> products = new ArrayList<>(FoodClassifierService.builtinProducts());
+            int fileEntries = readEntries(path, products);
+            long parsedNanos = System.nanoTime();
+
+            ProductDictionary dictionary = ProductDictionary.compile(products);
+            long compiledNanos = System.nanoTime();
+
+            classifier.replaceDictionary(dictionary);
+            if (loadedModifiedTime != null) reloads.incrementAndGet();
+            loads.incrementAndGet();
+            loadedModifiedTime = modifiedTime;
+            lastFileEntries = fileEntries;
+            lastKeywords = dictionary.size();
+            lastReadMs = (parsedNanos - startNanos) / 1_000_000;
+            lastCompileMs = (compiledNanos - parsedNanos) / 1_000_000;
+
+        } catch (Exception e) {
+            failures.incrementAndGet();
+            System.err.println("상품 사전 로드 실패 (기존 사전 유지): " + path + " - " + e.getMessage());
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("path", dictionaryPath);
+        stats.put("loads", loads.get());
+        stats.put("reloads", reloads.get());
+        stats.put("failures", failures.get());
+        stats.put("fileEntries", lastFileEntries);
+        stats.put("keywords", lastKeywords);
+        stats.put("lastReadMs", lastReadMs);
+        stats.put("lastCompileMs", lastCompileMs);
+        return stats;
+    }
+
+    private int readEntries(Path path, List<ProductEntry> products) throws IOException {
+        int count = 0;
+        int lineNo = 0;
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNo++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+
+                String[] cols = line.split(",");
+                String keyword = cols[0].trim();
+                if (keyword.isEmpty()) {
+                    throw new IOException(lineNo + "번째 줄: 키워드가 비어 있습니다.");
+                }
+
+                if (cols.length == 2 && NON_FOOD_MARKER.equals(cols[1].trim())) {
+                    products.add(ProductEntry.nonFood(keyword));
+                } else if (cols.length == 3) {
+                    try {
+                        products.add(ProductEntry.food(keyword, cols[1].trim(), Integer.parseInt(cols[2].trim())));
+                    } catch (NumberFormatException e) {
+                        throw new IOException(lineNo + "번째 줄: 소비기한이 숫자가 아닙니다. (" + line + ")");
+                    }
+                } else {
+                    throw new IOException(lineNo + "번째 줄: 형식이 올바르지 않습니다. (" + line + ")");
+                }
+                count++;
+            }
+        }
+        return count;
+    }
+}
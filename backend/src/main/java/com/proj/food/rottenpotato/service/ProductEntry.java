@@ -0,0 +1,19 @@
+package com.proj.food.rottenpotato.service;
+
+/**
+ * 상품 사전의 키워드 1건
+ * @param keyword 품목명에서 찾을 키워드 (예: "삼겹살", "세제")
+ * @param category 카테고리 (비식품이면 null)
+ * @param shelfLifeDays 기본 소비기한 (일 단위, 비식품이면 0)
+ * @param nonFood 비식품 키워드 여부
+ */
+public record ProductEntry(String keyword, String category, int shelfLifeDays, boolean nonFood) {
+
+    public static ProductEntry food(String keyword, String category, int shelfLifeDays) {
+        return new ProductEntry(keyword, category, shelfLifeDays, false);
+    }
+
+    public static ProductEntry nonFood(String keyword) {
+        return new ProductEntry(keyword, null, 0, true);
+    }
+}
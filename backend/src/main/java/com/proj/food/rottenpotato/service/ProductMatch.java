@@ -0,0 +1,12 @@
+package com.proj.food.rottenpotato.service;
+
+/**
+ * 품목명 1건을 상품 사전에 대조한 결과
+ * @param nonFood 비식품 키워드가 하나라도 포함되어 있는지 여부
+ * @param product 가장 긴 식품 키워드 (또는 유사 매칭된 키워드)에 해당하는 상품 (없으면 null)
+ * @param similarity 키워드가 그대로 포함되어 있으면 1.0, 유사 매칭이면 0~1 사이 점수, 매칭 없으면 0
+ */
+public record ProductMatch(boolean nonFood, ProductEntry product, double similarity) {
+
+    public static final ProductMatch NONE = new ProductMatch(false, null, 0);
+}
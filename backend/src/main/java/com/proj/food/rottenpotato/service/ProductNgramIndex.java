@@ -0,0 +1,171 @@
+package com.proj.food.rottenpotato.service;
+
+import java.util.*;
+
+/**
+ * 식품 키워드를 자모 단위 3-gram으로 색인한 역색인입니다. (OCR 오인식 품목명의 유사 매칭용)
+ * 한글 음절은 초성/중성/종성으로 분해한 뒤 3-gram을 만들기 때문에, 받침 하나가 틀린 글자
+ * (예: "삼겹샄")도 대부분의 gram을 공유하여 높은 점수를 받습니다.
+ *
+ * 점수 = (품목명과 공유하는 gram 수) / (키워드의 gram 수)
+ * 품목명에 붙은 브랜드명 등 부가 문자는 감점되지 않고, 키워드가 얼마나 온전히 들어 있는지만 봅니다.
+ */
+public final class ProductNgramIndex {
+
+    // 음절 분해 결과 코드: 초성 1~19, 중성 20~40, 종성 41~67, 그 외 문자는 128 + 문자 코드
+    private static final int HANGUL_BASE = 0xAC00;
+    private static final int HANGUL_LAST = 0xD7A3;
+    private static final int BITS_PER_JAMO = 21;
+
+    private final List<ProductEntry> entries;
+    private final int[] gramCounts;
+
+    // gram → 키워드 인덱스 목록 (오름차순), 선형 탐사 해시 테이블
+    private final long[] tableKeys;
+    private final int[][] tablePostings;
+    private final int mask;
+
+    private ProductNgramIndex(List<ProductEntry> entries, int[] gramCounts,
+                              long[] tableKeys, int[][] tablePostings) {
+        this.entries = entries;
+        this.gramCounts = gramCounts;
+        this.tableKeys = tableKeys;
+        this.tablePostings = tablePostings;
+        this.mask = tableKeys.length - 1;
+    }
+
+    /**
+     * 식품 키워드만 색인합니다. (비식품 키워드는 유사 매칭으로 품목을 걸러내지 않도록 제외)
+     * @param normalizedKeywords 정규화된 키워드 (entries와 같은 순서)
+     */
+    static ProductNgramIndex build(List<ProductEntry> entries, List<String> normalizedKeywords) {
+        List<ProductEntry> foods = new ArrayList<>();
+        Map<Long, List<Integer>> postings = new HashMap<>();
+        List<Integer> counts = new ArrayList<>();
+
+        for (int i = 0; i < entries.size(); i++) {
+            if (entries.get(i).nonFood()) continue;
+
+            long[] grams = grams(normalizedKeywords.get(i));
+            if (grams.length == 0) continue;
+
+            int id = foods.size();
+            foods.add(entries.get(i));
+            counts.add(grams.length);
+            for (long gram : grams) {
+                postings.computeIfAbsent(gram, g -> new ArrayList<>()).add(id);
+            }
+        }
+
+        int capacity = Integer.highestOneBit(Math.max(postings.size(), 1) * 2 - 1) << 1;
+        long[] tableKeys = new long[capacity];
+        int[][] tablePostings = new int[capacity][];
+        int mask = capacity - 1;
+        for (Map.Entry<Long, List<Integer>> posting : postings.entrySet()) {
+            long gram = posting.getKey();
+            int slot = slot(gram, mask);
+            while (tablePostings[slot] != null) slot = (slot + 1) & mask;
+            tableKeys[slot] = gram;
+            tablePostings[slot] = posting.getValue().stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        return new ProductNgramIndex(List.copyOf(foods), counts.stream().mapToInt(Integer::intValue).toArray(),
+                tableKeys, tablePostings);
+    }
+
+    /**
+     * 품목명과 가장 비슷한 식품 키워드를 찾습니다.
+     * @param name 품목명 (소문자화·공백 제거는 여기서 수행)
+     * @param minScore 이 점수 미만이면 매칭 없음으로 처리
+     * @return 가장 높은 점수의 상품과 점수, 없으면 {@link ProductMatch#NONE}
+     */
+    public ProductMatch bestMatch(CharSequence name, double minScore) {
+        if (name == null || entries.isEmpty()) return ProductMatch.NONE;
+
+        long[] queryGrams = grams(ProductDictionary.normalize(name.toString()));
+        if (queryGrams.length == 0) return ProductMatch.NONE;
+
+        // 1. 품목명의 gram마다 posting list를 모아 하나의 배열로 합친 뒤 정렬 → 같은 키워드끼리 연속
+        int total = 0;
+        int[][] lists = new int[queryGrams.length][];
+        for (int i = 0; i < queryGrams.length; i++) {
+            lists[i] = postings(queryGrams[i]);
+            total += lists[i].length;
+        }
+        if (total == 0) return ProductMatch.NONE;
+
+        int[] hits = new int[total];
+        int pos = 0;
+        for (int[] list : lists) {
+            System.arraycopy(list, 0, hits, pos, list.length);
+            pos += list.length;
+        }
+        Arrays.sort(hits);
+
+        // 2. 키워드별 공유 gram 수 → 점수 (동점이면 gram이 더 많은 = 더 긴 키워드 우선)
+        int best = -1;
+        double bestScore = 0;
+        for (int i = 0; i < total; ) {
+            int id = hits[i];
+            int j = i;
+            while (j < total && hits[j] == id) j++;
+            int overlap = j - i;
+            double score = (double) overlap / gramCounts[id];
+            if (score > bestScore || (score == bestScore && best >= 0 && gramCounts[id] > gramCounts[best])) {
+                best = id;
+                bestScore = score;
+            }
+            i = j;
+        }
+
+        if (best < 0 || bestScore < minScore) return ProductMatch.NONE;
+        return new ProductMatch(false, entries.get(best), bestScore);
+    }
+
+    private int[] postings(long gram) {
+        int slot = slot(gram, mask);
+        while (tablePostings[slot] != null) {
+            if (tableKeys[slot] == gram) return tablePostings[slot];
+            slot = (slot + 1) & mask;
+        }
+        return new int[0];
+    }
+
+    private static int slot(long gram, int mask) {
+        long h = gram * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    /**
+     * 정규화된 문자열을 자모로 분해해 중복 없는 3-gram 목록을 만듭니다.
+     */
+    static long[] grams(String normalized) {
+        int[] jamo = new int[normalized.length() * 3];
+        int n = 0;
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            if (c >= HANGUL_BASE && c <= HANGUL_LAST) {
+                int s = c - HANGUL_BASE;
+                jamo[n++] = 1 + s / 588;          // 초성
+                jamo[n++] = 20 + (s % 588) / 28;  // 중성
+                int fin = s % 28;
+                if (fin > 0) jamo[n++] = 40 + fin; // 종성
+            } else {
+                jamo[n++] = 128 + c;
+            }
+        }
+        if (n < 3) return new long[0];
+
+        long[] grams = new long[n - 2];
+        for (int i = 0; i + 2 < n; i++) {
+            grams[i] = ((long) jamo[i] << (2 * BITS_PER_JAMO)) | ((long) jamo[i + 1] << BITS_PER_JAMO) | jamo[i + 2];
+        }
+        Arrays.sort(grams);
+
+        int unique = 1;
+        for (int i = 1; i < grams.length; i++) {
+            if (grams[i] != grams[unique - 1]) grams[unique++] = grams[i];
+        }
+        return unique == grams.length ? grams : Arrays.copyOf(grams, unique);
+    }
+}
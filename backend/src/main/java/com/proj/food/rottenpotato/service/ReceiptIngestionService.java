@@ -0,0 +1,143 @@
+package com.proj.food.rottenpotato.service;
+
+import com.proj.food.rottenpotato.dto.ClassifiedItemDTO;
+import com.proj.food.rottenpotato.dto.InventoryItemDTO;
+import com.proj.food.rottenpotato.dto.ParsedItemDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * 영수증 이미지 → OCR → 텍스트 파싱 → 중복 병합 → 분류 → 재고 저장으로 이어지는 파이프라인입니다.
+ * 동기 업로드(ReceiptController)와 비동기 작업(ReceiptJobService)이 함께 사용합니다.
+ */
+@Service
+public class ReceiptIngestionService {
+
+    private final ReceiptOcrService ocrService;
+    private final ReceiptTextParser parser;
+    private final FoodClassifierService classifier;
+    private final ItemService itemService;
+    private final OcrResultCache ocrCache;
+
+    @Autowired
+    public ReceiptIngestionService(ReceiptOcrService ocrService, ReceiptTextParser parser,
+                                   FoodClassifierService classifier, ItemService itemService,
+                                   OcrResultCache ocrCache) {
+        this.ocrService = ocrService;
+        this.parser = parser;
+        this.classifier = classifier;
+        this.itemService = itemService;
+        this.ocrCache = ocrCache;
+    }
+
+    /**
+     * 영수증 한 장을 처리하고 저장된 품목 목록을 반환합니다.
+     * @param userId 품목을 저장할 사용자 ID
+     * @param image 영수증 이미지 바이트
+     * @param progress 단계가 바뀔 때마다 호출되는 콜백 (OCR → PARSING → CLASSIFYING → SAVING)
+     */
+    public List<InventoryItemDTO> ingest(String userId, byte[] image, Consumer<ReceiptJob.Stage> progress) throws IOException {
+        progress.accept(ReceiptJob.Stage.OCR);
+        Map<String, Object> ocrResult = detectWithCache(List.of(image)).get(0);
+        return ingest(userId, ocrResult, progress);
+    }
+
+    // -------------------------------------------------------------------------
+    // 캐시를 먼저 확인하고, 캐시에 없는 이미지만 Vision API로 OCR
+    // -------------------------------------------------------------------------
+    public List<Map<String, Object>> detectWithCache(List<byte[]> images) throws IOException {
+        List<Map<String, Object>> results = new ArrayList<>(images.size());
+        List<String> missKeys = new ArrayList<>();
+        List<byte[]> missImages = new ArrayList<>();
+        List<Integer> missIndexes = new ArrayList<>();
+
+        for (int i = 0; i < images.size(); i++) {
+            String key = OcrResultCache.sha256Hex(images.get(i));
+            Map<String, Object> cached = ocrCache.get(key);
+            results.add(cached);
+
+            if (cached == null) {
+                missKeys.add(key);
+                missImages.add(images.get(i));
+                missIndexes.add(i);
+            }
+        }
+
+        if (!missImages.isEmpty()) {
+            List<Map<String, Object>> ocrResults = ocrService.detectReceiptTexts(missImages);
+            for (int i = 0; i < ocrResults.size(); i++) {
+                ocrCache.put(missKeys.get(i), ocrResults.get(i));
+                results.set(missIndexes.get(i), ocrResults.get(i));
+            }
+        }
+        return results;
+    }
+
+    // -------------------------------------------------------------------------
+    // OCR 결과를 파싱 → 병합 → 분류 → 저장하는 공통 파이프라인
+    // -------------------------------------------------------------------------
+    public List<InventoryItemDTO> ingest(String userId, Map<String, Object> ocrResult, Consumer<ReceiptJob.Stage> progress) {
+        List<ClassifiedItemDTO> classifiedItems = new ArrayList<>();
+
+        String text = (String) ocrResult.get("text");
+        LocalDate receiptDate = (LocalDate) ocrResult.get("receiptDate");
+        if (receiptDate == null) {
+            // 영수증에 날짜가 없으면 처리하는 날 기준 (OCR 캐시에는 넣지 않아 다음에 올려도 그날 기준)
+            receiptDate = LocalDate.now();
+        }
+
+        if (text == null || text.trim().isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        // 텍스트 파싱
+        progress.accept(ReceiptJob.Stage.PARSING);
+        List<ParsedItemDTO> parsedItems = parser.parseReceipt(text);
+
+        // 🔥 중복 품목 자동 합치기
+        Collection<ParsedItemDTO> mergedItems = mergeDuplicates(parsedItems);
+
+        System.out.println("=== [DEBUG] Merged Items ===");
+        for (ParsedItemDTO item : mergedItems) {
+            System.out.println(item.name() + " x " + item.quantity());
+        }
+        System.out.println("============================");
+
+        // 분류
+        progress.accept(ReceiptJob.Stage.CLASSIFYING);
+        for (ParsedItemDTO item : mergedItems) {
+
+            String name = item.name();
+
+            // 비식품 판별과 카테고리/소비기한 조회를 한 번에 수행
+            ProductMatch match = classifier.lookup(name);
+            if (match.nonFood()) {
+                System.out.println("--- [DEBUG: Filtered] 비식품 항목 건너뜀: " + name);
+                continue;
+            }
+
+            classifiedItems.add(classifier.classifyItem(name, item.quantity(), receiptDate, match));
+        }
+
+        // 저장 (영수증 1장의 품목을 한 번에 배치 저장)
+        progress.accept(ReceiptJob.Stage.SAVING);
+        return itemService.addItems(userId, classifiedItems);
+    }
+
+    /**
+     * 같은 이름의 품목을 처음 나온 순서대로 하나로 합치고 수량을 더합니다. (가격은 먼저 나온 품목 기준)
+     */
+    static Collection<ParsedItemDTO> mergeDuplicates(List<ParsedItemDTO> parsedItems) {
+        Map<String, ParsedItemDTO> mergedMap = new LinkedHashMap<>();
+
+        for (ParsedItemDTO item : parsedItems) {
+            mergedMap.merge(item.name(), item, (current, added) -> current.plusQuantity(added.quantity()));
+        }
+        return mergedMap.values();
+    }
+}
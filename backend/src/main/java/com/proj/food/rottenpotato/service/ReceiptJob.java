@@ -0,0 +1,82 @@
+package com.proj.food.rottenpotato.service;
+
+import com.proj.food.rottenpotato.dto.InventoryItemDTO;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 비동기 영수증 처리 작업 1건의 상태입니다.
+ * 워커 스레드가 단계를 갱신하고, 조회 API는 언제든 현재 상태를 읽을 수 있습니다.
+ */
+public class ReceiptJob {
+
+    public enum Stage { QUEUED, OCR, PARSING, CLASSIFYING, SAVING, DONE, FAILED }
+
+    private final String jobId;
+    // 작업을 등록한 사용자 (다른 사용자는 조회할 수 없음)
+    private final String userId;
+    private final Instant createdAt = Instant.now();
+
+    private volatile Stage stage = Stage.QUEUED;
+    private volatile List<InventoryItemDTO> items;
+    private volatile String error;
+    private volatile Instant finishedAt;
+
+    public ReceiptJob(String jobId, String userId) {
+        this.jobId = jobId;
+        this.userId = userId;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public Stage getStage() {
+        return stage;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public boolean isFinished() {
+        return stage == Stage.DONE || stage == Stage.FAILED;
+    }
+
+    void moveTo(Stage next) {
+        this.stage = next;
+    }
+
+    void complete(List<InventoryItemDTO> classifiedItems) {
+        this.items = classifiedItems;
+        this.finishedAt = Instant.now();
+        this.stage = Stage.DONE;
+    }
+
+    void fail(String message) {
+        this.error = message;
+        this.finishedAt = Instant.now();
+        this.stage = Stage.FAILED;
+    }
+
+    /**
+     * 조회 API 응답용 스냅샷 ({ jobId, stage, createdAt, finishedAt?, items?, error? })
+     */
+    public Map<String, Object> toView() {
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("jobId", jobId);
+        view.put("stage", stage);
+        view.put("createdAt", createdAt);
+        if (finishedAt != null) view.put("finishedAt", finishedAt);
+        if (items != null) view.put("items", items);
+        if (error != null) view.put("error", error);
+        return view;
+    }
+}
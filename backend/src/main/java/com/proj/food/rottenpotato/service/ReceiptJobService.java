@@ -0,0 +1,129 @@
+package com.proj.food.rottenpotato.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+/**
+ * 영수증 처리를 요청 스레드에서 분리하여 비동기 작업으로 실행합니다.
+ * - 워커 수와 대기열 크기가 고정되어 있어 처리량 한도가 명시적입니다.
+ * - 대기열이 가득 차면 새 작업을 받지 않고 {@link RejectedExecutionException}을 던집니다.
+ * - 완료된 작업은 보관 시간(retention-minutes)이 지나면 정리됩니다. (새 작업 등록 시, 그리고 purge-interval-ms마다)
+ * - 작업은 등록한 사용자만 조회할 수 있습니다.
+ */
+@Service
+public class ReceiptJobService {
+
+    @Value("${receipt.jobs.workers:4}")
+    private int workers;
+
+    @Value("${receipt.jobs.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${receipt.jobs.retention-minutes:30}")
+    private long retentionMinutes;
+
+    private final ReceiptIngestionService ingestionService;
+
+    private final Map<String, ReceiptJob> jobs = new ConcurrentHashMap<>();
+    // 완료 순서대로 쌓아 두고 앞에서부터 만료된 작업만 정리
+    private final Queue<ReceiptJob> finishedJobs = new ConcurrentLinkedQueue<>();
+    private ThreadPoolExecutor executor;
+
+    @Autowired
+    public ReceiptJobService(ReceiptIngestionService ingestionService) {
+        this.ingestionService = ingestionService;
+    }
+
+    @PostConstruct
+    public void init() {
+        // OCR 대기 시간 동안 플랫폼 스레드를 점유하지 않도록 가상 스레드 워커 사용
+        executor = new ThreadPoolExecutor(
+                workers, workers,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofVirtual().name("receipt-job-", 0).factory(),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * 영수증 처리 작업을 대기열에 넣고 즉시 반환합니다.
+     * @param userId 품목을 저장할 사용자 ID
+     * @param image 영수증 이미지 바이트 (요청이 끝나면 업로드 파일이 사라지므로 미리 읽어 둔 값)
+     * @return 생성된 작업
+     * @throws RejectedExecutionException 대기열이 가득 찬 경우
+     */
+    public ReceiptJob submit(String userId, byte[] image) {
+        purgeExpiredJobs();
+
+        ReceiptJob job = new ReceiptJob(UUID.randomUUID().toString(), userId);
+        jobs.put(job.getJobId(), job);
+
+        try {
+            executor.execute(() -> run(job, userId, image));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getJobId());
+            throw e;
+        }
+        return job;
+    }
+
+    /**
+     * @return 작업, 없거나(보관 시간이 지나 정리됨) 다른 사용자의 작업이면 null
+     */
+    public ReceiptJob getJob(String userId, String jobId) {
+        ReceiptJob job = jobs.get(jobId);
+        return job != null && job.getUserId().equals(userId) ? job : null;
+    }
+
+    public Map<String, Object> getStats() {
+        return Map.of(
+                "workers", workers,
+                "activeWorkers", executor.getActiveCount(),
+                "queued", executor.getQueue().size(),
+                "queueCapacity", queueCapacity,
+                "completedJobs", executor.getCompletedTaskCount()
+        );
+    }
+
+    private void run(ReceiptJob job, String userId, byte[] image) {
+        try {
+            job.complete(ingestionService.ingest(userId, image, job::moveTo));
+        } catch (Exception e) {
+            // 메시지가 없는 예외(NullPointerException 등)도 실패 원인이 남도록 예외 이름으로 대신함
+            String message = e.getMessage() != null ? e.getMessage() : e.toString();
+            System.err.println("영수증 작업 처리 중 오류 발생: " + job.getJobId() + " - " + message);
+            job.fail(message);
+        } finally {
+            finishedJobs.add(job);
+        }
+    }
+
+    // 업로드가 끊겨도 완료된 작업이 계속 쌓이지 않도록 주기적으로도 정리
+    @Scheduled(fixedDelayString = "${receipt.jobs.purge-interval-ms:60000}")
+    public void purgeExpiredJobs() {
+        Instant cutoff = Instant.now().minus(Duration.ofMinutes(retentionMinutes));
+        ReceiptJob oldest;
+        while ((oldest = finishedJobs.peek()) != null && oldest.getFinishedAt().isBefore(cutoff)) {
+            if (finishedJobs.remove(oldest)) {
+                jobs.remove(oldest.getJobId());
+            }
+        }
+    }
+}
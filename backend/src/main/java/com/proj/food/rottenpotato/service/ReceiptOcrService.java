@@ -1,11 +1,11 @@
 package com.proj.food.rottenpotato.service;
 
-import com.google.cloud.vision.v1.*;
-import com.google.protobuf.ByteString;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.io.FileInputStream;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.util.*;
 import java.util.regex.Matcher;
@@ -14,56 +14,55 @@ import java.util.regex.Pattern;
 @Service
 public class ReceiptOcrService {
 
-    public Map<String, Object> detectReceiptText(String imagePath) throws IOException {
-        List<AnnotateImageRequest> requests = new ArrayList<>();
-
-        ByteString imgBytes = ByteString.readFrom(new FileInputStream(imagePath));
-        Image img = Image.newBuilder().setContent(imgBytes).build();
-        Feature feat = Feature.newBuilder().setType(Feature.Type.TEXT_DETECTION).build();
+    private static final Pattern DATE_PATTERN = Pattern.compile("(\\d{4}[./-]\\d{2}[./-]\\d{2})");
 
-        AnnotateImageRequest request = AnnotateImageRequest.newBuilder()
-                .addFeatures(feat)
-                .setImage(img)
-                .build();
-        requests.add(request);
+    // 실제 텍스트 인식은 설정된 OCR 엔진(receipt.ocr.engine)에 위임
+    private final OcrEngine ocrEngine;
 
-        try (ImageAnnotatorClient client = ImageAnnotatorClient.create()) {
-            BatchAnnotateImagesResponse batchResponse = client.batchAnnotateImages(requests);
-            AnnotateImageResponse response = batchResponse.getResponses(0);
+    @Autowired
+    public ReceiptOcrService(OcrEngine ocrEngine) {
+        this.ocrEngine = ocrEngine;
+    }
 
-            // 🧾 디버그용 전체 응답
-            System.out.println("🧾 [DEBUG] Vision API 응답: " + response.toString());
+    public Map<String, Object> detectReceiptText(String imagePath) throws IOException {
+        byte[] imageBytes = Files.readAllBytes(Path.of(imagePath));
+        return detectReceiptTexts(List.of(imageBytes)).get(0);
+    }
 
-            if (response.hasError()) {
-                return Map.of("error", response.getError().getMessage());
-            }
+    /**
+     * 여러 영수증 이미지를 한 번에 OCR 합니다.
+     * @param images 영수증 이미지 바이트 목록
+     * @return 입력 순서와 동일한 순서의 OCR 결과 ("text", "receiptDate" 또는 "error")
+     *         영수증에서 날짜를 찾지 못하면 "receiptDate"가 없습니다. (오늘 날짜로 대신하는 것은 호출하는 쪽에서)
+     */
+    public List<Map<String, Object>> detectReceiptTexts(List<byte[]> images) throws IOException {
+        List<Map<String, Object>> results = new ArrayList<>(images.size());
 
-            // ✅ OCR 결과 텍스트 추출
-            StringBuilder sb = new StringBuilder();
-            for (EntityAnnotation annotation : response.getTextAnnotationsList()) {
-                sb.append(annotation.getDescription()).append("\n");
+        for (OcrEngine.Result result : ocrEngine.recognize(images)) {
+            if (result.hasError()) {
+                results.add(Map.of("error", result.error()));
+                continue;
             }
 
-            String extractedText = sb.toString();
-            System.out.println("✅ [DEBUG] 인식된 텍스트:\n" + extractedText);
+            String extractedText = result.text();
 
             // ✅ 영수증 날짜 추출
             LocalDate receiptDate = extractReceiptDate(extractedText);
 
-            return Map.of(
-                    "text", extractedText,
-                    "receiptDate", receiptDate
-            );
+            Map<String, Object> ocrResult = new HashMap<>();
+            ocrResult.put("text", extractedText);
+            if (receiptDate != null) ocrResult.put("receiptDate", receiptDate);
+            results.add(ocrResult);
         }
+        return results;
     }
 
     private LocalDate extractReceiptDate(String text) {
-        Pattern datePattern = Pattern.compile("(\\d{4}[./-]\\d{2}[./-]\\d{2})");
-        Matcher matcher = datePattern.matcher(text);
+        Matcher matcher = DATE_PATTERN.matcher(text);
         if (matcher.find()) {
             String dateStr = matcher.group(1).replace(".", "-").replace("/", "-");
             return LocalDate.parse(dateStr);
         }
-        return LocalDate.now(); // fallback
+        return null;
     }
 }
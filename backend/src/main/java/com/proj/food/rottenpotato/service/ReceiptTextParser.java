@@ -1,74 +1,85 @@
 package com.proj.food.rottenpotato.service;
 
+import com.proj.food.rottenpotato.dto.ParsedItemDTO;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
+/**
+ * OCR 텍스트를 한 번만 훑으면서 품목(이름, 수량, 가격)을 추출합니다.
+ * 줄마다 정규식/split/replaceAll을 쓰지 않고, 줄 경계를 인덱스로만 다루며
+ * 각 줄의 종류(바코드, 품목 번호, 수량, 가격, 할인, 합계)는 직접 작성한 스캐너로 판별합니다.
+ */
 @Service
 public class ReceiptTextParser {
 
-    public List<Map<String, Object>> parseReceipt(String ocrText) {
+    // 줄 안의 키워드 검사 결과
+    private static final int KEYWORD_NONE = 0;
+    private static final int KEYWORD_DISCOUNT = 1; // 할인, 쿠폰 → 이름에서 제외
+    private static final int KEYWORD_STOP = 2;     // 상품금액, 할인금액, 결제대상, 합계, 총액, 결제, 과세, 면세, 부가세 → 품목 영역 끝
 
-        System.out.println("\n==================== RAW OCR TEXT ====================");
-        System.out.println(ocrText);
-        System.out.println("=======================================================\n");
+    public List<ParsedItemDTO> parseReceipt(CharSequence ocrText) {
 
-        List<Map<String, Object>> results = new ArrayList<>();
+        List<ParsedItemDTO> results = new ArrayList<>();
 
-        if (ocrText == null || ocrText.isEmpty()) {
+        if (ocrText == null || ocrText.length() == 0) {
             return results;
         }
 
-        String[] lines = ocrText.split("\n");
+        // 품목 이름은 하나의 버퍼를 재사용
+        StringBuilder nameBuilder = new StringBuilder();
+        StringBuilder cleanBuffer = new StringBuilder();
+        boolean started = false; // 첫 품목 번호를 만난 뒤로는 계속 true
+        boolean inItem = false;
+        int currentQty = 0;
+        boolean hasQty = false;
+        int currentPrice = 0;
+        boolean hasPrice = false;
 
-        // 번호(001) + 같은 줄 나머지
-        Pattern itemNoPattern = Pattern.compile("^(\\d{3})(.*)$");
-        // 수량: 콤마 없는 순수 숫자
-        Pattern qtyPattern = Pattern.compile("^\\d+$");
-        // 가격: 7,490 / 12,990원 / 7,490占쏙옙 등
-        Pattern pricePattern = Pattern.compile("^\\d{1,3}(,\\d{3})+([^0-9].*)?$");
+        int length = ocrText.length();
+        int lineStart = 0;
 
-        StringBuilder nameBuilder = null;
-        Integer currentQty = null;
-        Integer currentPrice = null;
-        boolean inItem = false;
+        while (lineStart < length) {
+            int lineEnd = lineStart;
+            while (lineEnd < length && ocrText.charAt(lineEnd) != '\n') lineEnd++;
+            int nextLine = lineEnd + 1;
 
-        for (String rawLine : lines) {
-            if (rawLine == null) continue;
-            String line = rawLine.trim();
-            if (line.isEmpty()) continue;
+            // trim
+            int start = lineStart;
+            int end = lineEnd;
+            while (start < end && ocrText.charAt(start) <= ' ') start++;
+            while (end > start && ocrText.charAt(end - 1) <= ' ') end--;
+            lineStart = nextLine;
+
+            if (start == end) continue;
 
             // 바코드(10자리 이상 숫자) 라인은 무시
-            if (line.matches("^\\d{10,}$")) continue;
+            int leadingDigits = countDigits(ocrText, start, end);
+            if (leadingDigits == end - start && leadingDigits >= 10) continue;
 
             // 합계 / 결제 / 과세 / 면세 등 이후는 품목이 아니므로 종료
-            if (line.contains("상품금액") || line.contains("할인금액") || line.contains("결제대상")
-                    || line.contains("합계") || line.contains("총액") || line.contains("결제")
-                    || line.contains("과세") || line.contains("면세") || line.contains("부가세")) {
-
-                saveCurrentItem(results, nameBuilder, currentQty, currentPrice);
+            int keyword = scanKeywords(ocrText, start, end);
+            if (keyword == KEYWORD_STOP) {
+                saveCurrentItem(results, started, nameBuilder, cleanBuffer, hasQty, currentQty, hasPrice, currentPrice);
                 inItem = false;
                 break;
             }
 
             // 🔹 품목 번호 + 같은 줄 나머지 (예: "006 *보먹돼_삼겹살")
-            Matcher noMatcher = itemNoPattern.matcher(line);
-            if (noMatcher.matches()) {
+            if (leadingDigits >= 3 && !hasLineTerminator(ocrText, start + 3, end)) {
                 // 이전 품목 저장
-                saveCurrentItem(results, nameBuilder, currentQty, currentPrice);
+                saveCurrentItem(results, started, nameBuilder, cleanBuffer, hasQty, currentQty, hasPrice, currentPrice);
 
+                started = true;
                 inItem = true;
-                nameBuilder = new StringBuilder();
-                currentQty = null;
-                currentPrice = null;
-
-                String tail = noMatcher.group(2).trim();
-                if (!tail.isEmpty()) {
-                    // 같은 줄에 붙은 이름 부분
-                    nameBuilder.append(tail);
-                }
+                nameBuilder.setLength(0);
+                hasQty = false;
+                hasPrice = false;
+
+                // 같은 줄에 붙은 이름 부분 (trim 후 추가)
+                int tailStart = start + 3;
+                while (tailStart < end && ocrText.charAt(tailStart) <= ' ') tailStart++;
+                nameBuilder.append(ocrText, tailStart, end);
                 continue;
             }
 
@@ -78,69 +89,179 @@ public class ReceiptTextParser {
             }
 
             // 🔹 수량 라인 (순수 숫자, 콤마 없음)
-            Matcher qMatcher = qtyPattern.matcher(line);
-            if (qMatcher.matches()) {
-                try {
-                    currentQty = Integer.parseInt(line);
-                } catch (NumberFormatException ignored) {}
+            if (leadingDigits == end - start) {
+                long qty = parseDigits(ocrText, start, end);
+                if (qty <= Integer.MAX_VALUE) {
+                    currentQty = (int) qty;
+                    hasQty = true;
+                }
                 continue;
             }
 
             // 🔹 가격 라인 (콤마 있는 숫자 + 선택적 문자)
-            Matcher pMatcher = pricePattern.matcher(line);
-            if (pMatcher.matches()) {
-                try {
-                    String numeric = line.replaceAll("[^0-9]", ""); // 숫자만 추출
-                    if (!numeric.isEmpty()) {
-                        currentPrice = Integer.parseInt(numeric);
-                    }
-                } catch (NumberFormatException ignored) {}
+            if (isPriceLine(ocrText, start, end, leadingDigits)) {
+                long price = parseDigits(ocrText, start, end); // 숫자만 추출
+                if (price <= Integer.MAX_VALUE) {
+                    currentPrice = (int) price;
+                    hasPrice = true;
+                }
                 continue;
             }
 
             // 🔹 할인/쿠폰 라인은 이름에서 제외
-            if (line.contains("할인") || line.contains("쿠폰")) {
+            if (keyword == KEYWORD_DISCOUNT) {
                 continue;
             }
 
             // 🔹 그 외 라인들은 모두 이름의 일부라고 가정
-            if (nameBuilder == null) nameBuilder = new StringBuilder(line);
-            else nameBuilder.append(" ").append(line);
+            nameBuilder.append(' ').append(ocrText, start, end);
         }
 
         // 마지막 품목 저장
-        saveCurrentItem(results, nameBuilder, currentQty, currentPrice);
+        // (기존 동작 유지: 합계 줄에서 이미 저장한 품목도 여기서 한 번 더 저장되며, 병합 단계에서 수량이 합쳐짐)
+        saveCurrentItem(results, started, nameBuilder, cleanBuffer, hasQty, currentQty, hasPrice, currentPrice);
 
         return results;
     }
 
-    private void saveCurrentItem(List<Map<String, Object>> results,
+    private void saveCurrentItem(List<ParsedItemDTO> results,
+                                 boolean started,
                                  StringBuilder nameBuilder,
-                                 Integer qty,
-                                 Integer price) {
+                                 StringBuilder cleanBuffer,
+                                 boolean hasQty, int qty,
+                                 boolean hasPrice, int price) {
 
-        if (nameBuilder == null || nameBuilder.length() == 0) return;
-        if (price == null) return; // 가격 없는 항목은 일단 버림
-
-        String rawName = nameBuilder.toString().trim();
+        if (!started || nameBuilder.length() == 0) return;
+        if (!hasPrice) return; // 가격 없는 항목은 일단 버림
 
         // 한글만 남기기
-        String cleanedName = rawName.replaceAll("[^가-힣]", "");
+        cleanBuffer.setLength(0);
+        for (int i = 0; i < nameBuilder.length(); i++) {
+            char c = nameBuilder.charAt(i);
+            if (c >= '가' && c <= '힣') cleanBuffer.append(c);
+        }
         // 끝에 붙은 '원' 제거 (가격이 섞여 들어온 경우 방지)
-        cleanedName = cleanedName.replaceAll("원+$", "");
+        int cleanLength = cleanBuffer.length();
+        while (cleanLength > 0 && cleanBuffer.charAt(cleanLength - 1) == '원') cleanLength--;
+
+        if (cleanLength < 2) return;
+
+        String cleanedName = cleanBuffer.substring(0, cleanLength);
+        int finalQty = hasQty ? qty : 1;
+
+        results.add(new ParsedItemDTO(cleanedName, finalQty, price));
+    }
+
+    // -------------------------------------------------------------------------
+    // 줄 단위 스캐너
+    // -------------------------------------------------------------------------
+
+    // [start, end) 구간 앞쪽의 연속된 ASCII 숫자 개수
+    private static int countDigits(CharSequence s, int start, int end) {
+        int i = start;
+        while (i < end && isDigit(s.charAt(i))) i++;
+        return i - start;
+    }
+
+    // [start, end) 구간의 ASCII 숫자만 이어 붙인 값 (int 범위를 넘으면 Long.MAX_VALUE)
+    private static long parseDigits(CharSequence s, int start, int end) {
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            char c = s.charAt(i);
+            if (!isDigit(c)) continue;
+            value = value * 10 + (c - '0');
+            if (value > Integer.MAX_VALUE) return Long.MAX_VALUE;
+        }
+        return value;
+    }
 
-        if (cleanedName.length() < 2) return;
+    /**
+     * 가격 형식 판별: 7,490 / 12,990원 / 1,234,567 등
+     * (1~3자리 숫자) + (",숫자3자리" 1회 이상) + (숫자가 아닌 문자로 시작하는 꼬리, 선택)
+     */
+    private static boolean isPriceLine(CharSequence s, int start, int end, int leadingDigits) {
+        if (leadingDigits < 1 || leadingDigits > 3) return false;
+
+        int i = start + leadingDigits;
+        int groups = 0;
+        int lastGroupStart = -1;
+        while (i + 4 <= end && s.charAt(i) == ','
+                && isDigit(s.charAt(i + 1)) && isDigit(s.charAt(i + 2)) && isDigit(s.charAt(i + 3))) {
+            lastGroupStart = i;
+            i += 4;
+            groups++;
+        }
+        if (groups == 0) return false;
+
+        // 모든 그룹을 소비한 뒤 꼬리가 없거나, 숫자가 아닌 문자로 시작하는 한 줄짜리 꼬리
+        if (i == end || (!isDigit(s.charAt(i)) && !hasLineTerminator(s, i + 1, end))) return true;
+
+        // 마지막 그룹을 꼬리로 돌려도 되는 경우 (예: "1,234,5678" → 꼬리 ",5678")
+        return groups >= 2 && !hasLineTerminator(s, lastGroupStart + 1, end);
+    }
 
-        int finalQty = (qty != null) ? qty : 1;
+    /**
+     * 합계/결제 키워드와 할인/쿠폰 키워드를 한 번의 순회로 찾습니다.
+     * 합계 키워드가 있으면 곧바로 {@link #KEYWORD_STOP}을 반환합니다.
+     */
+    private static int scanKeywords(CharSequence s, int start, int end) {
+        int found = KEYWORD_NONE;
+        for (int i = start; i < end - 1; i++) {
+            char next = s.charAt(i + 1);
+            switch (s.charAt(i)) {
+                case '상': // 상품금액
+                    if (next == '품' && regionMatches(s, i + 2, end, "금액")) return KEYWORD_STOP;
+                    break;
+                case '할': // 할인금액 / 할인
+                    if (next == '인') {
+                        if (regionMatches(s, i + 2, end, "금액")) return KEYWORD_STOP;
+                        found = KEYWORD_DISCOUNT;
+                    }
+                    break;
+                case '결': // 결제, 결제대상
+                    if (next == '제') return KEYWORD_STOP;
+                    break;
+                case '합': // 합계
+                    if (next == '계') return KEYWORD_STOP;
+                    break;
+                case '총': // 총액
+                    if (next == '액') return KEYWORD_STOP;
+                    break;
+                case '과': // 과세
+                case '면': // 면세
+                    if (next == '세') return KEYWORD_STOP;
+                    break;
+                case '부': // 부가세
+                    if (next == '가' && regionMatches(s, i + 2, end, "세")) return KEYWORD_STOP;
+                    break;
+                case '쿠': // 쿠폰
+                    if (next == '폰') found = KEYWORD_DISCOUNT;
+                    break;
+                default:
+                    break;
+            }
+        }
+        return found;
+    }
 
-        Map<String, Object> item = new HashMap<>();
-        item.put("name", cleanedName);
-        item.put("quantity", finalQty);
-        item.put("price", price);
+    private static boolean regionMatches(CharSequence s, int from, int end, String word) {
+        if (from + word.length() > end) return false;
+        for (int i = 0; i < word.length(); i++) {
+            if (s.charAt(from + i) != word.charAt(i)) return false;
+        }
+        return true;
+    }
 
-        System.out.println("--- [DEBUG: Parsed Item] " + cleanedName +
-                " | qty=" + finalQty + " | price=" + price);
+    // 정규식 '.'이 매칭하지 않는 줄 바꿈 문자 ('\n'은 이미 줄 경계로 처리됨)
+    private static boolean hasLineTerminator(CharSequence s, int from, int end) {
+        for (int i = from; i < end; i++) {
+            char c = s.charAt(i);
+            if (c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') return true;
+        }
+        return false;
+    }
 
-        results.add(item);
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
     }
 }
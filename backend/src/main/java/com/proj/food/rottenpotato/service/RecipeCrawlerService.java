@@ -1,123 +1,672 @@
 package com.proj.food.rottenpotato.service;
 
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import com.proj.food.rottenpotato.dto.RecipeDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
+import org.jsoup.parser.Parser;
+import org.jsoup.parser.StreamParser;
 import org.jsoup.select.Elements;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.io.UnsupportedEncodingException;
+import java.net.URI;
+import java.net.SocketTimeoutException;
 import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
 
 @Service
 public class RecipeCrawlerService {
 
+    // 크롤링 대상 사이트 주소 (부하 테스트 시 로컬 fixture 서버 주소로 변경)
+    @Value("${recipe.crawler.base-url:https://www.10000recipe.com}")
+    private String baseUrl;
+
+    // 검색 페이지 / 상세 페이지 요청 타임아웃(ms)
+    @Value("${recipe.crawler.search-timeout-ms:8000}")
+    private int searchTimeoutMs;
+
+    @Value("${recipe.crawler.detail-timeout-ms:5000}")
+    private int detailTimeoutMs;
+
+    // 같은 호스트에 동시에 보낼 수 있는 최대 요청 수 (상대 사이트 부하 방지)
+    @Value("${recipe.crawler.per-host-concurrency:4}")
+    private int perHostConcurrency;
+
+    // 크롤링 1회 전체 제한 시간(ms), 넘으면 끝난 레시피까지만 반환
+    @Value("${recipe.crawler.deadline-ms:12000}")
+    private long deadlineMs;
+
+    // 검색 결과 캐시: 최대 항목 수, 만료 시간(분), 이 시간(분)이 지나면 기존 값을 주면서 백그라운드 갱신
+    @Value("${recipe.cache.search.max-size:1000}")
+    private long searchCacheSize;
+
+    @Value("${recipe.cache.search.ttl-minutes:360}")
+    private long searchCacheTtlMinutes;
+
+    @Value("${recipe.cache.search.refresh-minutes:30}")
+    private long searchCacheRefreshMinutes;
+
+    // 레시피별 재료 목록 캐시
+    @Value("${recipe.cache.detail.max-size:10000}")
+    private long detailCacheSize;
+
+    @Value("${recipe.cache.detail.ttl-minutes:1440}")
+    private long detailCacheTtlMinutes;
+
+    @Value("${recipe.cache.detail.refresh-minutes:360}")
+    private long detailCacheRefreshMinutes;
+
+    // true면 필요한 영역까지만 읽고 파싱 (false면 페이지 전체를 받아 DOM을 만든 뒤 선택, 비교 측정용)
+    @Value("${recipe.crawler.streaming-parse:true}")
+    private boolean streamingParse;
+
+    // streaming-parse로 일찍 멈춘 HTTP/1.1 응답의 남은 본문이 이 크기(압축된 바이트) 이하면 마저 읽어 연결을 풀로 돌려보냄
+    // (넘으면 연결을 닫음: 받는 바이트를 줄이는 대신 다음 요청에서 새 연결을 맺음, 0이면 항상 닫음)
+    @Value("${recipe.crawler.drain-max-bytes:32768}")
+    private long drainMaxBytes;
+
+    private static final String USER_AGENT =
+            "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0 Safari/537.36";
+
+    // 호스트 → 동시 요청 허가
+    private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+    private final AtomicLong outboundRequests = new AtomicLong();
+    // 가져온 페이지 수, 실제로 받은 바이트, 본문 수신 + 파싱에 걸린 시간
+    private final AtomicLong fetchedPages = new AtomicLong();
+    private final AtomicLong fetchedBytes = new AtomicLong();
+    private final AtomicLong parseNanos = new AtomicLong();
+    // HTTP/1.1 응답 중 본문을 끝까지 읽어 연결을 재사용할 수 있었던 수 / 본문을 남기고 닫아 연결을 버린 수, 남은 본문을 마저 읽은 바이트
+    private final AtomicLong connectionsReusable = new AtomicLong();
+    private final AtomicLong connectionsDropped = new AtomicLong();
+    private final AtomicLong drainedBytes = new AtomicLong();
+    private ExecutorService fetcher;
+    // 본문 읽기 제한 시간이 지나면 스트림을 닫아, 응답이 멈춘 서버 때문에 막힌 read()를 깨움
+    private ScheduledExecutorService readWatchdog;
+    private HttpClient httpClient;
+
+    // 정렬된 재료 집합 → 진행 중인 크롤링 (같은 재료 조합의 동시 요청은 크롤링 1번을 함께 기다림)
+    private final Map<String, CompletableFuture<List<RecipeDTO>>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong flightsStarted = new AtomicLong();
+    private final AtomicLong flightsCoalesced = new AtomicLong();
+    private final AtomicLong flightWaitTimeouts = new AtomicLong();
+
+    // 정규화된 검색어 + 개수 → 검색 결과 (재료 목록 제외)
+    private AsyncLoadingCache<SearchKey, List<RecipeDTO>> searchCache;
+    // 레시피 상세 URL (= 레시피 ID) → 재료 목록이 채워진 레시피
+    private AsyncLoadingCache<String, RecipeDTO> detailCache;
+    // 캐시 만료/갱신 시각 계산용 시계 (테스트에서 교체)
+    Ticker ticker = Ticker.systemTicker();
+
+    private record SearchKey(String keyword, int page, int maxCount) {
+    }
+
+    @PostConstruct
+    public void init() {
+        fetcher = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("recipe-crawler-", 0).factory());
+        readWatchdog = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("recipe-crawler-watchdog").daemon().factory());
+        // 모든 크롤링 요청이 공유하는 클라이언트 (호스트별 연결 풀, keep-alive)
+        httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(detailTimeoutMs))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(fetcher)
+                .build();
+
+        // 크기 제한을 넘으면 W-TinyLFU(최근성 + 사용 빈도)로 제거, 실패한 로드는 캐시하지 않음
+        searchCache = Caffeine.newBuilder()
+                .maximumSize(searchCacheSize)
+                .expireAfterWrite(Duration.ofMinutes(searchCacheTtlMinutes))
+                .refreshAfterWrite(Duration.ofMinutes(searchCacheRefreshMinutes))
+                .ticker(ticker)
+                .executor(fetcher)
+                .recordStats()
+                .buildAsync(key -> searchRecipes(key));
+
+        detailCache = Caffeine.newBuilder()
+                .maximumSize(detailCacheSize)
+                .expireAfterWrite(Duration.ofMinutes(detailCacheTtlMinutes))
+                .refreshAfterWrite(Duration.ofMinutes(detailCacheRefreshMinutes))
+                .ticker(ticker)
+                .executor(fetcher)
+                .recordStats()
+                .buildAsync(new CacheLoader<>() {
+                    @Override
+                    public RecipeDTO load(String url) {
+                        RecipeDTO summary = new RecipeDTO();
+                        summary.setUrl(url);
+                        return loadDetail(summary);
+                    }
+
+                    @Override
+                    public RecipeDTO reload(String url, RecipeDTO oldValue) {
+                        // 갱신 실패 시 Caffeine이 기존 값을 유지
+                        return loadDetail(oldValue);
+                    }
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fetcher.shutdownNow();
+        readWatchdog.shutdownNow();
+    }
+
     /**
      * 사용자가 선택한 재료를 기반으로 만개의 레시피를 크롤링합니다.
+     * 검색 결과와 레시피별 재료 목록은 캐시에서 먼저 찾고, 없는 것만 크롤링합니다.
+     * 상세 페이지(재료 목록)는 동시에 가져오며, 제한 시간 안에 끝나지 못했거나 실패한 레시피는
+     * 재료 목록이 빈 채로 error에 사유를 담아 반환합니다.
      * @param searchKeyword 사용자가 선택한 재료를 공백으로 연결한 문자열 (예: "닭고기 양파")
      * @param maxCount 크롤링할 최대 레시피 개수
-     * @return 재료 정보가 포함된 RecipeDTO 리스트
+     * @return 재료 정보가 포함된 RecipeDTO 리스트 (검색 결과 순서 유지)
      */
     public List<RecipeDTO> crawlRecipeDetails(String searchKeyword, int maxCount) {
+        return crawlRecipeDetails(searchKeyword, 1, maxCount, recipe -> false, deadlineMs);
+    }
+
+    /**
+     * 선택한 재료 조합으로 레시피를 크롤링합니다. (추천 API용)
+     * 재료 순서와 관계없이 같은 조합의 요청이 동시에 들어오면 크롤링은 1번만 하고 결과를 나눠 가집니다.
+     * 이때 검색어는 먼저 들어온 요청의 재료 순서를 따릅니다.
+     * 크롤링은 요청 스레드와 별도로 진행되므로, 먼저 시간 초과로 포기한 요청이 있어도 나머지 요청은 계속 기다립니다.
+     * @param ingredients 사용자가 선택한 재료 목록
+     * @return 재료 정보가 포함된 RecipeDTO 리스트 (호출자별 복사본)
+     */
+    public List<RecipeDTO> crawlRecipesFor(List<String> ingredients) {
+        List<String> normalized = ingredients.stream()
+                .map(RecipeCrawlerService::normalizeKeyword)
+                .filter(name -> !name.isEmpty())
+                .distinct()
+                .toList();
+        if (normalized.isEmpty()) return new ArrayList<>();
+        // 동시 요청은 재료 조합(정렬한 키)으로 묶고, 검색어는 먼저 온 요청의 재료 순서를 그대로 사용
+        // (검색 결과는 검색어의 단어 순서에 따라 달라지므로, 요청한 순서를 바꾸지 않음)
+        String flightKey = String.join(" ", normalized.stream().sorted().toList());
+        String keyword = String.join(" ", normalized);
+
+        CompletableFuture<List<RecipeDTO>> flight = inFlight.get(flightKey);
+        boolean leader = false;
+        if (flight == null) {
+            CompletableFuture<List<RecipeDTO>> created = new CompletableFuture<>();
+            flight = inFlight.putIfAbsent(flightKey, created);
+            if (flight == null) {
+                flight = created;
+                leader = true;
+            }
+        }
+
+        if (leader) {
+            flightsStarted.incrementAndGet();
+            CompletableFuture<List<RecipeDTO>> started = flight;
+            fetcher.execute(() -> {
+                try {
+                    started.complete(crawlRecipeDetails(keyword, 5));
+                } catch (Throwable t) {
+                    started.completeExceptionally(t);
+                } finally {
+                    inFlight.remove(flightKey, started);
+                }
+            });
+        } else {
+            flightsCoalesced.incrementAndGet();
+        }
+
+        try {
+            // 크롤링 자체가 deadline-ms 안에 끝나므로 약간의 여유만 둠
+            return flight.get(deadlineMs + 1000, TimeUnit.MILLISECONDS).stream()
+                    .map(RecipeCrawlerService::copyOf)
+                    .collect(Collectors.toCollection(ArrayList::new));
+        } catch (TimeoutException e) {
+            flightWaitTimeouts.incrementAndGet();
+            System.err.println("레시피 크롤링 대기 시간 초과 (재료: " + keyword + ")");
+        } catch (ExecutionException e) {
+            System.err.println("레시피 크롤링 중 오류 발생: " + e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * 검색 결과의 특정 페이지를 크롤링합니다. (레시피 색인의 백그라운드 수집용)
+     * @param page 검색 결과 페이지 번호 (1부터)
+     * @param skip true를 반환하는 레시피는 상세 페이지를 가져오지 않고 결과에서도 제외 (이미 수집한 레시피 등)
+     * @param timeLimitMs 전체 제한 시간(ms)
+     */
+    public List<RecipeDTO> crawlRecipeDetails(String searchKeyword, int page, int maxCount,
+                                              Predicate<RecipeDTO> skip, long timeLimitMs) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeLimitMs);
+
+        // 1. 검색 결과 (1차 크롤링 또는 캐시)
+        List<RecipeDTO> summaries;
+        try {
+            summaries = await(searchCache.get(new SearchKey(normalizeKeyword(searchKeyword), page, maxCount)), deadline)
+                    .stream()
+                    .filter(recipe -> !skip.test(recipe))
+                    .toList();
+        } catch (ExecutionException | TimeoutException e) {
+            Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+            System.err.println("검색 페이지 크롤링 중 오류 발생: " + cause.getMessage());
+            return new ArrayList<>();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new ArrayList<>();
+        }
+
+        // 2. 레시피별 재료 목록 (2차 크롤링 또는 캐시, 동시 진행)
+        List<CompletableFuture<RecipeDTO>> futures = new ArrayList<>(summaries.size());
+        for (RecipeDTO summary : summaries) {
+            futures.add(detailCache.get(summary.getUrl(), (url, executor) ->
+                    CompletableFuture.supplyAsync(() -> loadDetail(summary), executor)));
+        }
+
+        List<RecipeDTO> recipes = new ArrayList<>(summaries.size());
+        int failed = 0;
+        for (int i = 0; i < summaries.size(); i++) {
+            try {
+                // 캐시에 들어 있는 객체를 호출자가 수정하지 않도록 복사본 반환
+                recipes.add(copyOf(await(futures.get(i), deadline)));
+                continue;
+            } catch (TimeoutException e) {
+                // 로드는 취소하지 않음: 늦게라도 끝나면 다음 요청부터 캐시에서 바로 사용
+                recipes.add(failedCopy(summaries.get(i), "제한 시간 초과"));
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause() instanceof CompletionException ? e.getCause().getCause() : e.getCause();
+                recipes.add(failedCopy(summaries.get(i), cause instanceof TimeoutException
+                        ? "제한 시간 초과" : "상세 페이지 오류: " + cause.getMessage()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                recipes.add(failedCopy(summaries.get(i), "중단됨"));
+            }
+            failed++;
+        }
+
+        if (failed > 0) {
+            System.err.println("상세 페이지 크롤링 실패 " + failed + "/" + summaries.size() + "건 (검색어: " + searchKeyword + ")");
+        }
+        return recipes;
+    }
+
+    /**
+     * 검색/상세 캐시의 적중률, 제거 수와 실제로 보낸 크롤링 요청 수
+     */
+    public Map<String, Object> getCacheStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("search", cacheStats(searchCache));
+        stats.put("detail", cacheStats(detailCache));
+        stats.put("outboundRequests", outboundRequests.get());
+
+        Map<String, Object> singleFlight = new LinkedHashMap<>();
+        singleFlight.put("inFlight", inFlight.size());
+        singleFlight.put("started", flightsStarted.get());
+        singleFlight.put("coalesced", flightsCoalesced.get());
+        singleFlight.put("waitTimeouts", flightWaitTimeouts.get());
+        stats.put("singleFlight", singleFlight);
+
+        long pages = fetchedPages.get();
+        Map<String, Object> fetch = new LinkedHashMap<>();
+        fetch.put("streamingParse", streamingParse);
+        fetch.put("pages", pages);
+        fetch.put("bytes", fetchedBytes.get());
+        fetch.put("avgBytesPerPage", pages > 0 ? fetchedBytes.get() / pages : 0);
+        fetch.put("avgReadParseMs", pages > 0 ? parseNanos.get() / 1_000_000.0 / pages : 0);
+        Map<String, Object> connections = new LinkedHashMap<>();
+        connections.put("drainMaxBytes", drainMaxBytes);
+        connections.put("reusable", connectionsReusable.get());
+        connections.put("dropped", connectionsDropped.get());
+        connections.put("drainedBytes", drainedBytes.get());
+        fetch.put("http1Connections", connections);
+        stats.put("fetch", fetch);
+        return stats;
+    }
+
+    private static Map<String, Object> cacheStats(AsyncLoadingCache<?, ?> cache) {
+        CacheStats stats = cache.synchronous().stats();
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("size", cache.synchronous().estimatedSize());
+        view.put("hits", stats.hitCount());
+        view.put("misses", stats.missCount());
+        view.put("hitRate", stats.hitRate());
+        view.put("evictions", stats.evictionCount());
+        view.put("loadFailures", stats.loadFailureCount());
+        return view;
+    }
+
+    // 검색어 정규화: 앞뒤 공백 제거, 연속 공백은 1칸, 소문자 (재료 순서는 검색 결과에 영향을 주므로 유지)
+    static String normalizeKeyword(String keyword) {
+        return String.join(" ", keyword.trim().toLowerCase(Locale.ROOT).split("\\s+"));
+    }
+
+    private static <T> T await(CompletableFuture<T> future, long deadline)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        return future.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+    }
+
+    // -------------------------------------------------------------------------
+    // 검색 페이지에서 레시피 목록(ID, 제목, URL, 이미지)만 추출하는 보조 메소드
+    // -------------------------------------------------------------------------
+    private List<RecipeDTO> searchRecipes(SearchKey key) throws IOException, TimeoutException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMs);
         List<RecipeDTO> recipes = new ArrayList<>();
         
         String encodedKeyword;
         try {
-            encodedKeyword = URLEncoder.encode(searchKeyword, StandardCharsets.UTF_8.toString());
+            encodedKeyword = URLEncoder.encode(key.keyword(), StandardCharsets.UTF_8.toString());
         } catch (UnsupportedEncodingException e) {
-            encodedKeyword = searchKeyword; 
+            encodedKeyword = key.keyword(); 
         }
         
-        String searchUrl = "https://www.10000recipe.com/recipe/list.html?q=" + encodedKeyword;
-        
-        try {
-            // 1. 검색 페이지 접속 (1차 크롤링)
-            Document doc = Jsoup.connect(searchUrl).timeout(8000).get(); 
-            Elements listItems = doc.select(".common_sp_list_ul li"); 
-
-            // 최대 개수만큼 레시피 추출
-            for (int i = 0; i < Math.min(listItems.size(), maxCount); i++) {
-                Element item = listItems.get(i);
-                RecipeDTO recipe = new RecipeDTO();
-
-                // 1-1. 상세 URL, 제목 추출
-                Element link = item.selectFirst(".common_sp_link");
-                if (link == null) continue;
-
-                String relativeUrl = link.attr("href"); // 예: /recipe/6822165
-                recipe.setUrl("https://www.10000recipe.com" + relativeUrl);
-                recipe.setTitle(item.selectFirst(".common_sp_caption_tit").text());
-                
-                // URL에서 ID 추출
-                String[] parts = relativeUrl.split("/");
-                if (parts.length > 0) {
-                    try {
-                        recipe.setRecipeId(Long.parseLong(parts[parts.length - 1]));
-                    } catch (NumberFormatException ignored) { /* ID가 숫자가 아니면 무시 */ }
-                }
+        String searchUrl = baseUrl + "/recipe/list.html?q=" + encodedKeyword
+                + (key.page() > 1 ? "&page=" + key.page() : "");
 
-                // 1-2. 이미지 URL 추출
-                Element img = item.selectFirst(".common_sp_thumb img");
-                if (img != null) {
-                    recipe.setImgUrl(img.attr("src"));
-                }
-                
-                // 2. 상세 페이지 접속 (2차 크롤링: 재료 목록 추출)
-                List<String> ingredients = crawlIngredients(recipe.getUrl());
-                recipe.setIngredients(ingredients);
-                
-                recipes.add(recipe);
+        // 검색 페이지 접속 (1차 크롤링)
+        Element list = fetchSection(searchUrl, ".common_sp_list_ul", searchTimeoutMs, deadline);
+        Elements listItems = list != null ? list.select("li") : new Elements();
+
+        // 최대 개수만큼 레시피 추출
+        for (int i = 0; i < Math.min(listItems.size(), key.maxCount()); i++) {
+            Element item = listItems.get(i);
+            RecipeDTO recipe = new RecipeDTO();
+
+            // 1. 상세 URL, 제목 추출
+            Element link = item.selectFirst(".common_sp_link");
+            if (link == null) continue;
+
+            String relativeUrl = link.attr("href"); // 예: /recipe/6822165
+            recipe.setUrl(baseUrl + relativeUrl);
+            recipe.setTitle(item.selectFirst(".common_sp_caption_tit").text());
+            
+            // URL에서 ID 추출
+            String[] parts = relativeUrl.split("/");
+            if (parts.length > 0) {
+                try {
+                    recipe.setRecipeId(Long.parseLong(parts[parts.length - 1]));
+                } catch (NumberFormatException ignored) { /* ID가 숫자가 아니면 무시 */ }
+            }
+
+            // 2. 이미지 URL 추출
+            Element img = item.selectFirst(".common_sp_thumb img");
+            if (img != null) {
+                recipe.setImgUrl(img.attr("src"));
             }
             
-        } catch (IOException e) {
-            System.err.println("검색 페이지 크롤링 중 오류 발생: " + e.getMessage());
-            e.printStackTrace();
+            recipes.add(recipe);
         }
-        return recipes;
+        return List.copyOf(recipes);
+    }
+
+    // 검색 결과 1건 + 상세 페이지의 재료 목록 → 캐시에 넣을 완성된 레시피
+    private RecipeDTO loadDetail(RecipeDTO summary) {
+        try {
+            RecipeDTO recipe = copyOf(summary);
+            recipe.setIngredients(List.copyOf(crawlIngredients(summary.getUrl(),
+                    System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMs))));
+            return recipe;
+        } catch (IOException | TimeoutException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private static RecipeDTO copyOf(RecipeDTO source) {
+        RecipeDTO copy = new RecipeDTO();
+        copy.setRecipeId(source.getRecipeId());
+        copy.setTitle(source.getTitle());
+        copy.setUrl(source.getUrl());
+        copy.setImgUrl(source.getImgUrl());
+        copy.setIngredients(source.getIngredients());
+        copy.setTime(source.getTime());
+        copy.setError(source.getError());
+        return copy;
+    }
+
+    private static RecipeDTO failedCopy(RecipeDTO summary, String error) {
+        RecipeDTO copy = copyOf(summary);
+        copy.setIngredients(List.of());
+        copy.setError(error);
+        return copy;
     }
     
     // -------------------------------------------------------------------------
     // 레시피 상세 페이지에서 재료만 추출하는 보조 메소드
     // -------------------------------------------------------------------------
-    private List<String> crawlIngredients(String detailUrl) {
+    private List<String> crawlIngredients(String detailUrl, long deadline) throws IOException, TimeoutException {
         List<String> ingredients = new ArrayList<>();
+        Element materialArea = fetchSection(detailUrl, "#divConfirmedMaterialArea", detailTimeoutMs, deadline);
+        if (materialArea == null) return ingredients;
+
+        // 1. 필수 재료 영역의 모든 항목을 선택하는 CSS 선택자
+        Elements mainIrdnts = materialArea.select("ul li");
+
+        for (Element element : mainIrdnts) {
+            Element aTag = element.selectFirst("a");
+            if (aTag == null) continue; 
+            
+            String ingredientText = aTag.text();
+            
+            if (ingredientText != null && !ingredientText.trim().isEmpty()) {
+                // 괄호 안의 용량 정보(예: '사과(1개)')는 제거
+                String ingredientName = ingredientText.trim();
+                if (ingredientName.contains("(")) {
+                    ingredientName = ingredientName.substring(0, ingredientName.indexOf("(")).trim();
+                }
+                if (!ingredientName.isEmpty()) {
+                    ingredients.add(ingredientName);
+                }
+            }
+        }
+        return ingredients;
+    }
+
+    // -------------------------------------------------------------------------
+    // 호스트별 동시 요청 수와 전체 제한 시간을 지키며 페이지를 가져와 필요한 영역만 추출하는 보조 메소드
+    // - 공유 HttpClient로 연결을 재사용(keep-alive)하고 gzip으로 받음
+    // - streaming-parse면 section이 끝나는 지점까지만 읽고 파싱함 (나머지 HTML은 파싱하지 않음)
+    //   HTTP/1.1은 본문을 다 읽지 않고 닫으면 연결이 버려지므로, 남은 양이 drain-max-bytes 이하일 때만 마저 읽음
+    // -------------------------------------------------------------------------
+    private Element fetchSection(String url, String section, int timeoutMs, long deadline) throws IOException, TimeoutException {
+        Semaphore permits = hostPermits.computeIfAbsent(URI.create(url).getHost(), host -> new Semaphore(perHostConcurrency));
+
+        long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
         try {
-            Document doc = Jsoup.connect(detailUrl).timeout(5000).get();
-
-            // 1. 필수 재료 영역의 모든 항목을 선택하는 CSS 선택자
-            Elements mainIrdnts = doc.select("#divConfirmedMaterialArea ul li");
-
-            for (Element element : mainIrdnts) {
-                Element aTag = element.selectFirst("a");
-                if (aTag == null) continue; 
-                
-                String ingredientText = aTag.text();
-                
-                if (ingredientText != null && !ingredientText.trim().isEmpty()) {
-                    // 괄호 안의 용량 정보(예: '사과(1개)')는 제거
-                    String ingredientName = ingredientText.trim();
-                    if (ingredientName.contains("(")) {
-                        ingredientName = ingredientName.substring(0, ingredientName.indexOf("(")).trim();
-                    }
-                    if (!ingredientName.isEmpty()) {
-                        ingredients.add(ingredientName);
+            if (remainingMs <= 0 || !permits.tryAcquire(remainingMs, TimeUnit.MILLISECONDS)) {
+                throw new TimeoutException("제한 시간 초과: " + url);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TimeoutException("중단됨: " + url);
+        }
+
+        try {
+            remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remainingMs <= 0) throw new TimeoutException("제한 시간 초과: " + url);
+            long readDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.min(timeoutMs, remainingMs));
+
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                    .timeout(Duration.ofMillis(Math.min(timeoutMs, remainingMs)))
+                    .header("User-Agent", USER_AGENT)
+                    .header("Accept", "text/html")
+                    .header("Accept-Encoding", "gzip")
+                    .GET()
+                    .build();
+
+            outboundRequests.incrementAndGet();
+            HttpResponse<InputStream> response;
+            try {
+                response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            } catch (HttpTimeoutException e) {
+                throw new TimeoutException("응답 시간 초과: " + url);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TimeoutException("중단됨: " + url);
+            }
+
+            long start = System.nanoTime();
+            CountingInputStream wire = new CountingInputStream(response.body(), readDeadline, url);
+            // 헤더를 보낸 뒤 본문 전송이 멈추면 read()가 끝없이 막히므로, 제한 시간에 바깥에서 스트림을 닫음
+            ScheduledFuture<?> watchdog = readWatchdog.schedule(wire::expire,
+                    Math.max(readDeadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+            try (InputStream body = "gzip".equalsIgnoreCase(response.headers().firstValue("Content-Encoding").orElse(""))
+                    ? new GZIPInputStream(wire) : wire) {
+                if (response.statusCode() / 100 != 2) {
+                    throw new IOException("HTTP " + response.statusCode() + ": " + url);
+                }
+                Reader reader = new InputStreamReader(body, charsetOf(response));
+
+                if (streamingParse) {
+                    try (StreamParser parser = new StreamParser(Parser.htmlParser()).parse(reader, url)) {
+                        Element found = parser.selectNext(section);
+                        drainRemainder(response, wire);
+                        return found;
                     }
                 }
+                return Jsoup.parse(body, charsetOf(response).name(), url).selectFirst(section);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            } finally {
+                watchdog.cancel(false);
+                if (response.version() == HttpClient.Version.HTTP_1_1) {
+                    (wire.eof ? connectionsReusable : connectionsDropped).incrementAndGet();
+                }
+                fetchedPages.incrementAndGet();
+                fetchedBytes.addAndGet(wire.count);
+                parseNanos.addAndGet(System.nanoTime() - start);
             }
-            
-        } catch (IOException e) {
-            System.err.println("상세 페이지 크롤링 중 오류 발생: " + detailUrl + " - " + e.getMessage());
+        } finally {
+            permits.release();
+        }
+    }
+
+    // 남은 본문이 drain-max-bytes 이하면 끝까지 읽어 둠 (Content-Length로 미리 알 수 있으면 넘는 경우 읽지 않음)
+    private void drainRemainder(HttpResponse<?> response, CountingInputStream wire) {
+        if (response.version() != HttpClient.Version.HTTP_1_1 || wire.eof || drainMaxBytes <= 0) return;
+        long length = response.headers().firstValueAsLong("Content-Length").orElse(-1);
+        if (length >= 0 && length - wire.count > drainMaxBytes) return;
+
+        long start = wire.count;
+        byte[] buffer = new byte[8192];
+        try {
+            while (wire.count - start <= drainMaxBytes && wire.read(buffer, 0, buffer.length) >= 0) {
+                // 버림
+            }
+        } catch (IOException ignored) {
+            // 시간 초과 등으로 못 읽으면 그대로 닫음 (연결은 버려짐)
+        }
+        drainedBytes.addAndGet(wire.count - start);
+    }
+
+    private static Charset charsetOf(HttpResponse<?> response) {
+        String contentType = response.headers().firstValue("Content-Type").orElse("");
+        int at = contentType.toLowerCase(Locale.ROOT).indexOf("charset=");
+        if (at >= 0) {
+            try {
+                return Charset.forName(contentType.substring(at + 8).replace("\"", "").split(";")[0].trim());
+            } catch (IllegalArgumentException ignored) { /* 알 수 없는 문자셋이면 UTF-8 */ }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    /**
+     * 실제로 받은(압축된) 바이트 수를 세고, 본문을 읽는 동안에도 제한 시간을 넘기면 중단하는 스트림
+     * 데이터가 오지 않아 read()가 막혀 있어도 expire()가 스트림을 닫으면 시간 초과로 끝납니다.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+        private final long deadline;
+        private final String url;
+        private volatile boolean expired;
+        long count;
+        // 본문 끝까지 읽었는지 (HTTP/1.1 연결을 풀로 돌려보낼 수 있는지)
+        boolean eof;
+
+        CountingInputStream(InputStream in, long deadline, String url) {
+            super(in);
+            this.deadline = deadline;
+            this.url = url;
+        }
+
+        @Override
+        public int read() throws IOException {
+            checkDeadline();
+            try {
+                int b = super.read();
+                if (b >= 0) count++; else eof = true;
+                return b;
+            } catch (IOException e) {
+                throw expired ? timeout() : e;
+            }
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            checkDeadline();
+            try {
+                int n = super.read(buffer, offset, length);
+                if (n > 0) count += n; else if (n < 0) eof = true;
+                return n;
+            } catch (IOException e) {
+                throw expired ? timeout() : e;
+            }
+        }
+
+        // 읽기 제한 시간 감시 스레드에서 호출
+        void expire() {
+            expired = true;
+            try {
+                in.close();
+            } catch (IOException ignored) {
+                // 이미 닫힌 경우
+            }
+        }
+
+        private void checkDeadline() throws IOException {
+            if (expired || System.nanoTime() > deadline) throw timeout();
+        }
+
+        private SocketTimeoutException timeout() {
+            return new SocketTimeoutException("본문 읽기 시간 초과: " + url);
         }
-        return ingredients;
     }
 
     // 기본 크롤링 개수를 5개로 설정하는 오버로드 메소드 (컨트롤러 사용용)
     public List<RecipeDTO> crawlRecipeDetails(String searchKeyword) {
         return crawlRecipeDetails(searchKeyword, 5);
     }
-}
\ No newline at end of file
+}
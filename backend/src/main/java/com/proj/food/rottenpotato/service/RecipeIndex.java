@@ -0,0 +1,411 @@
+package com.proj.food.rottenpotato.service;
+
+import com.proj.food.rottenpotato.dto.RecipeDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 재료 → 레시피 역색인 (로컬 파일에 저장)
+ * 수집한 레시피마다 문서 번호(0, 1, 2...)를 붙이고, 재료마다 그 재료가 들어간 문서 번호를 BitSet으로 보관합니다.
+ * 추천 요청은 네트워크 없이 BitSet 합집합으로 후보를 고른 뒤 점수를 매기고, 크기 K인 힙으로 상위 K개만 고릅니다.
+ * 레시피가 max-recipes개를 넘으면 먼저 수집한 레시피부터 지워 90%로 줄이고 문서 번호를 다시 매깁니다.
+ * (지울 때마다 다시 매기지 않도록 여유를 둠)
+ */
+@Component
+public class RecipeIndex {
+
+    // 색인 파일 경로 (비워 두면 메모리에만 보관)
+    @Value("${recipe.index.path:}")
+    private String indexPath;
+
+    // 색인에 보관할 최대 레시피 수 (0이면 제한 없음)
+    @Value("${recipe.index.max-recipes:50000}")
+    private int maxRecipes;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // 문서 번호 → 레시피
+    private final List<RecipeDTO> recipes = new ArrayList<>();
+    // 레시피 URL → 문서 번호
+    private final Map<String, Integer> docByUrl = new HashMap<>();
+    // 정규화된 재료명 → 재료 번호, 재료 번호 → 재료명 / 문서 번호 BitSet
+    private final Map<String, Integer> ingredientIds = new HashMap<>();
+    private final List<String> ingredientNames = new ArrayList<>();
+    private final List<BitSet> postings = new ArrayList<>();
+
+    // 메인 재료 → 그 문자열을 포함하는 재료 번호 (재료 사전 전체를 매번 훑지 않도록)
+    private static final int CONTAINING_CACHE_SIZE = 10_000;
+    private final Map<String, ContainingIds> containingCache = new ConcurrentHashMap<>();
+
+    private boolean dirty;
+    // 변경할 때마다 증가 (저장하는 동안 바뀌었는지 확인용)
+    private long changes;
+    private long evicted;
+
+    @PostConstruct
+    public void load() {
+        if (indexPath == null || indexPath.isBlank()) return;
+        Path path = Path.of(indexPath);
+        if (!Files.exists(path)) return;
+
+        List<RecipeDTO> loaded = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                RecipeDTO recipe = fromLine(line);
+                if (recipe != null) loaded.add(recipe);
+            }
+        } catch (IOException e) {
+            System.err.println("🚨 레시피 색인 파일 읽기 실패: " + path + " - " + e.getMessage());
+            return;
+        }
+        addAll(loaded);
+        lock.writeLock().lock();
+        try {
+            dirty = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * ✅ 레시피를 색인에 추가합니다. 이미 있는 레시피(같은 URL)는 재료 목록을 새 값으로 바꿉니다.
+     * 재료 목록이 비었거나 크롤링에 실패한 레시피는 무시합니다.
+     * 최대 개수를 넘으면 먼저 수집한 레시피부터 지웁니다. (방금 추가한 레시피가 지워질 수도 있음)
+     * @return 새로 추가되거나 바뀐 레시피 수
+     */
+    public int addAll(List<RecipeDTO> crawled) {
+        int changed = 0;
+        lock.writeLock().lock();
+        try {
+            for (RecipeDTO recipe : crawled) {
+                if (recipe.getError() != null || recipe.getUrl() == null
+                        || recipe.getIngredients() == null || recipe.getIngredients().isEmpty()) continue;
+
+                Integer doc = docByUrl.get(recipe.getUrl());
+                if (doc == null) {
+                    doc = recipes.size();
+                    recipes.add(recipe);
+                    docByUrl.put(recipe.getUrl(), doc);
+                } else {
+                    if (recipe.getIngredients().equals(recipes.get(doc).getIngredients())) continue;
+                    for (String ingredient : recipes.get(doc).getIngredients()) {
+                        Integer id = ingredientIds.get(ProductDictionary.normalize(ingredient));
+                        if (id != null) postings.get(id).clear(doc);
+                    }
+                    recipes.set(doc, recipe);
+                }
+                indexIngredients(recipe, doc);
+                changed++;
+            }
+            if (changed > 0) {
+                dirty = true;
+                changes++;
+            }
+            if (maxRecipes > 0 && recipes.size() > maxRecipes) evictOldest();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return changed;
+    }
+
+    private void indexIngredients(RecipeDTO recipe, int doc) {
+        for (String ingredient : recipe.getIngredients()) {
+            String name = ProductDictionary.normalize(ingredient);
+            if (name.isEmpty()) continue;
+            int id = ingredientIds.computeIfAbsent(name, key -> {
+                ingredientNames.add(key);
+                postings.add(new BitSet());
+                return ingredientNames.size() - 1;
+            });
+            postings.get(id).set(doc);
+        }
+    }
+
+    // 먼저 수집한 레시피부터 지워 최대 개수의 90%만 남기고, 남은 레시피로 색인을 다시 만듦 (쓰기 잠금 안에서 호출)
+    private void evictOldest() {
+        int keep = Math.max(1, maxRecipes - maxRecipes / 10);
+        List<RecipeDTO> kept = new ArrayList<>(recipes.subList(recipes.size() - keep, recipes.size()));
+        evicted += recipes.size() - keep;
+
+        recipes.clear();
+        docByUrl.clear();
+        ingredientIds.clear();
+        ingredientNames.clear();
+        postings.clear();
+        // 재료 번호가 바뀌므로 메인 재료 캐시도 비움
+        containingCache.clear();
+        for (RecipeDTO recipe : kept) {
+            int doc = recipes.size();
+            recipes.add(recipe);
+            docByUrl.put(recipe.getUrl(), doc);
+            indexIngredients(recipe, doc);
+        }
+    }
+
+    /**
+     * ✅ 이미 색인된 레시피인지 확인합니다.
+     */
+    public boolean contains(String url) {
+        lock.readLock().lock();
+        try {
+            return docByUrl.containsKey(url);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 레시피들의 문서 번호 집합 (색인에 없는 레시피는 제외, 읽기 잠금 안에서 호출)
+    private BitSet docsOf(List<RecipeDTO> recipeList) {
+        BitSet docs = new BitSet();
+        for (RecipeDTO recipe : recipeList) {
+            Integer doc = recipe.getUrl() != null ? docByUrl.get(recipe.getUrl()) : null;
+            if (doc != null) docs.set(doc);
+        }
+        return docs;
+    }
+
+    /**
+     * ✅ 선택한 재료로 색인에서 점수가 높은 레시피 K개를 찾습니다.
+     * 점수 = 레시피에 정확히 같은 재료가 있는 선택 재료의 가중치 합
+     *      + 메인 재료(첫 번째)를 포함하는 재료(예: "돼지고기" → "돼지고기앞다리살")가 있으면 100점
+     * @param selectedIngredients 사용자가 선택한 재료 (첫 번째가 메인 재료)
+     * @param weights 선택 재료별 가중치 (selectedIngredients와 같은 순서, 기본 1.0)
+     * @param limit 최대 개수 (K)
+     * @param restrictTo 이 레시피들 안에서만 찾음 (null이면 전체, 색인에 없는 레시피는 제외)
+     * @return 점수 내림차순 레시피 (점수 0인 레시피 제외, 동점이면 먼저 수집한 레시피 우선)
+     */
+    public List<RecipeDTO> topK(List<String> selectedIngredients, double[] weights, int limit, List<RecipeDTO> restrictTo) {
+        if (selectedIngredients.isEmpty() || limit <= 0) return List.of();
+        String mainIngredient = ProductDictionary.normalize(selectedIngredients.get(0));
+
+        lock.readLock().lock();
+        try {
+            double[] scores = new double[recipes.size()];
+            BitSet candidates = new BitSet(recipes.size());
+
+            // 1. 기본 점수: 선택 재료 → 재료 번호 1번 조회 후, 그 재료가 들어간 문서(BitSet)에 가중치 가산
+            for (int i = 0; i < selectedIngredients.size(); i++) {
+                Integer id = ingredientIds.get(ProductDictionary.normalize(selectedIngredients.get(i)));
+                if (id == null) continue;
+                BitSet docs = postings.get(id);
+                candidates.or(docs);
+                for (int doc = docs.nextSetBit(0); doc >= 0; doc = docs.nextSetBit(doc + 1)) {
+                    scores[doc] += weights[i];
+                }
+            }
+
+            // 2. 메인 재료 보너스
+            if (!mainIngredient.isEmpty()) {
+                BitSet mainDocs = new BitSet(recipes.size());
+                for (int id : idsContaining(mainIngredient)) {
+                    mainDocs.or(postings.get(id));
+                }
+                candidates.or(mainDocs);
+                for (int doc = mainDocs.nextSetBit(0); doc >= 0; doc = mainDocs.nextSetBit(doc + 1)) {
+                    scores[doc] += 100;
+                }
+            }
+            // 문서 번호는 최대 개수를 넘어 다시 매겨질 수 있으므로 같은 잠금 안에서 구함
+            if (restrictTo != null) candidates.and(docsOf(restrictTo));
+
+            // 3. 크기 K인 최소 힙으로 상위 K개 선택 (힙 맨 위 = 지금까지 K개 중 가장 낮은 점수)
+            int[] heap = new int[Math.min(limit, candidates.cardinality())];
+            int size = 0;
+            for (int doc = candidates.nextSetBit(0); doc >= 0; doc = candidates.nextSetBit(doc + 1)) {
+                if (size < heap.length) {
+                    heap[size] = doc;
+                    siftUp(heap, size++, scores);
+                } else if (heap.length > 0 && better(doc, heap[0], scores)) {
+                    heap[0] = doc;
+                    siftDown(heap, size, scores);
+                }
+            }
+
+            // 4. 힙에서 낮은 점수부터 꺼내 뒤에서부터 채움
+            RecipeDTO[] ranked = new RecipeDTO[size];
+            while (size > 0) {
+                ranked[size - 1] = recipes.get(heap[0]);
+                heap[0] = heap[--size];
+                siftDown(heap, size, scores);
+            }
+            return new ArrayList<>(Arrays.asList(ranked));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // a가 b보다 순위가 높은지 (점수 높은 순, 동점이면 문서 번호 작은 순)
+    private static boolean better(int a, int b, double[] scores) {
+        return scores[a] > scores[b] || (scores[a] == scores[b] && a < b);
+    }
+
+    private static void siftUp(int[] heap, int index, double[] scores) {
+        int doc = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!better(heap[parent], doc, scores)) break;
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = doc;
+    }
+
+    private static void siftDown(int[] heap, int size, double[] scores) {
+        if (size == 0) return;
+        int doc = heap[0];
+        int index = 0;
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) break;
+            if (child + 1 < size && better(heap[child], heap[child + 1], scores)) child++;
+            if (!better(doc, heap[child], scores)) break;
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = doc;
+    }
+
+    // 메인 재료를 포함하는 재료 번호 목록 (재료가 새로 추가된 만큼만 이어서 검사, 읽기 잠금 안에서 호출)
+    private int[] idsContaining(String mainIngredient) {
+        ContainingIds cached = containingCache.get(mainIngredient);
+        int vocabularySize = ingredientNames.size();
+        if (cached != null && cached.scannedUpTo == vocabularySize) return cached.ids;
+
+        int from = cached != null ? cached.scannedUpTo : 0;
+        int[] ids = cached != null ? cached.ids : new int[0];
+        int count = ids.length;
+        for (int id = from; id < vocabularySize; id++) {
+            if (ingredientNames.get(id).contains(mainIngredient)) {
+                if (count == ids.length) ids = Arrays.copyOf(ids, Math.max(4, count * 2));
+                ids[count++] = id;
+            }
+        }
+        ids = Arrays.copyOf(ids, count);
+
+        if (containingCache.size() >= CONTAINING_CACHE_SIZE) containingCache.clear();
+        containingCache.put(mainIngredient, new ContainingIds(ids, vocabularySize));
+        return ids;
+    }
+
+    private record ContainingIds(int[] ids, int scannedUpTo) {
+    }
+
+    /**
+     * ✅ 변경 사항이 있으면 색인 파일을 다시 씁니다. (임시 파일에 쓴 뒤 교체)
+     */
+    @PreDestroy
+    public void save() {
+        if (indexPath == null || indexPath.isBlank()) return;
+
+        List<RecipeDTO> snapshot;
+        long snapshotChanges;
+        lock.readLock().lock();
+        try {
+            if (!dirty) return;
+            snapshot = List.copyOf(recipes);
+            snapshotChanges = changes;
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Path path = Path.of(indexPath);
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, "recipe-index", ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                for (RecipeDTO recipe : snapshot) {
+                    writer.write(toLine(recipe));
+                    writer.newLine();
+                }
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            lock.writeLock().lock();
+            try {
+                // 쓰는 동안 바뀐 레시피가 없을 때만 저장 완료로 표시
+                if (changes == snapshotChanges) dirty = false;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } catch (IOException e) {
+            System.err.println("🚨 레시피 색인 파일 저장 실패: " + path + " - " + e.getMessage());
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return recipes.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        lock.readLock().lock();
+        try {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("recipes", recipes.size());
+            stats.put("ingredients", ingredientNames.size());
+            stats.put("maxRecipes", maxRecipes);
+            stats.put("evicted", evicted);
+            stats.put("unsaved", dirty);
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // 색인 파일 한 줄: 레시피ID \t 제목 \t URL \t 이미지URL \t 재료1|재료2|...
+    // -------------------------------------------------------------------------
+    private static String toLine(RecipeDTO recipe) {
+        return (recipe.getRecipeId() != null ? recipe.getRecipeId() : "") + "\t"
+                + clean(recipe.getTitle()) + "\t"
+                + clean(recipe.getUrl()) + "\t"
+                + clean(recipe.getImgUrl()) + "\t"
+                + String.join("|", recipe.getIngredients().stream().map(RecipeIndex::clean).toList());
+    }
+
+    private static RecipeDTO fromLine(String line) {
+        String[] fields = line.split("\t", -1);
+        if (fields.length != 5 || fields[2].isEmpty() || fields[4].isEmpty()) return null;
+
+        RecipeDTO recipe = new RecipeDTO();
+        try {
+            if (!fields[0].isEmpty()) recipe.setRecipeId(Long.parseLong(fields[0]));
+        } catch (NumberFormatException ignored) { /* ID 없이 사용 */ }
+        recipe.setTitle(fields[1]);
+        recipe.setUrl(fields[2]);
+        recipe.setImgUrl(fields[3].isEmpty() ? null : fields[3]);
+        recipe.setIngredients(List.of(fields[4].split("\\|")));
+        return recipe;
+    }
+
+    // 구분자로 쓰는 문자(탭, 줄바꿈, |)는 공백으로 치환
+    private static String clean(String value) {
+        if (value == null) return "";
+        return value.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ').replace('|', ' ');
+    }
+}
@@ -0,0 +1,96 @@
+package com.proj.food.rottenpotato.service;
+
+import com.proj.food.rottenpotato.dto.RecipeDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 레시피 색인을 백그라운드에서 조금씩 채웁니다.
+ * 설정한 키워드(recipe.index.crawl.keywords, 비워 두면 상품 사전의 식품 키워드)로 검색 페이지를 한 장씩 넘기며,
+ * 아직 색인에 없는 레시피의 상세 페이지만 가져옵니다. 모든 키워드를 끝까지 돌면 1페이지부터 다시 시작합니다.
+ * 사용자 재고의 품목명은 외부 사이트로 보내지 않습니다.
+ * 기본은 꺼져 있으며, recipe.index.crawl.enabled=true일 때만 동작합니다. (꺼져 있으면 추천은 색인 파일과 실시간 크롤링만 사용)
+ */
+@Component
+public class RecipeIndexCrawler {
+
+    @Value("${recipe.index.crawl.enabled:false}")
+    private boolean enabled;
+
+    // 검색 키워드 (쉼표 구분, 비워 두면 상품 사전의 식품 키워드)
+    @Value("${recipe.index.crawl.keywords:}")
+    private String configuredKeywords;
+
+    // 한 번 실행할 때 검색할 키워드 수 / 검색 페이지당 레시피 수 / 키워드당 최대 페이지 수
+    @Value("${recipe.index.crawl.keywords-per-round:3}")
+    private int keywordsPerRound;
+
+    @Value("${recipe.index.crawl.recipes-per-page:40}")
+    private int recipesPerPage;
+
+    @Value("${recipe.index.crawl.max-pages:5}")
+    private int maxPages;
+
+    // 검색 페이지 1장 크롤링 제한 시간(ms)
+    @Value("${recipe.index.crawl.deadline-ms:60000}")
+    private long deadlineMs;
+
+    private final RecipeIndex recipeIndex;
+    private final RecipeCrawlerService recipeCrawlerService;
+
+    // 키워드 → 다음에 가져올 검색 페이지 번호 (maxPages를 넘으면 이번 주기에는 끝난 키워드)
+    private final Map<String, Integer> nextPage = new ConcurrentHashMap<>();
+
+    @Autowired
+    public RecipeIndexCrawler(RecipeIndex recipeIndex, RecipeCrawlerService recipeCrawlerService) {
+        this.recipeIndex = recipeIndex;
+        this.recipeCrawlerService = recipeCrawlerService;
+    }
+
+    @Scheduled(initialDelayString = "${recipe.index.crawl.initial-delay-ms:60000}",
+            fixedDelayString = "${recipe.index.crawl.interval-ms:600000}")
+    public void crawl() {
+        if (!enabled) return;
+
+        for (String keyword : nextKeywords()) {
+            int page = nextPage.getOrDefault(keyword, 1);
+            List<RecipeDTO> recipes = recipeCrawlerService.crawlRecipeDetails(keyword, page, recipesPerPage,
+                    recipe -> recipeIndex.contains(recipe.getUrl()), deadlineMs);
+            recipeIndex.addAll(recipes);
+            nextPage.put(keyword, page + 1);
+        }
+        recipeIndex.save();
+    }
+
+    // 설정한 키워드(없으면 상품 사전 키워드) 중 아직 페이지가 남은 키워드를 고름
+    private List<String> nextKeywords() {
+        Set<String> seeds = new LinkedHashSet<>();
+        for (String keyword : configuredKeywords.split(",")) {
+            if (!keyword.isBlank()) seeds.add(RecipeCrawlerService.normalizeKeyword(keyword));
+        }
+        if (seeds.isEmpty()) {
+            for (ProductEntry product : FoodClassifierService.builtinProducts()) {
+                if (!product.nonFood()) seeds.add(RecipeCrawlerService.normalizeKeyword(product.keyword()));
+            }
+        }
+
+        List<String> pending = seeds.stream()
+                .filter(keyword -> nextPage.getOrDefault(keyword, 1) <= maxPages)
+                .limit(keywordsPerRound)
+                .toList();
+        if (pending.isEmpty() && !seeds.isEmpty()) {
+            // 한 바퀴 다 돌았으면 새 레시피를 찾기 위해 1페이지부터 다시
+            nextPage.clear();
+            return seeds.stream().limit(keywordsPerRound).toList();
+        }
+        return pending;
+    }
+}
@@ -0,0 +1,85 @@
+package com.proj.food.rottenpotato.service;
+
+import com.proj.food.rottenpotato.dto.InventoryItemDTO;
+import com.proj.food.rottenpotato.dto.RecipeDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 레시피 추천 점수 계산 (색인 검색과 실시간 크롤링 결과 정렬에 같은 규칙 적용)
+ * 선택 재료마다 기본 가중치 1을 주고, 사용자 재고에서 그 재료의 소비기한이 가까울수록 가중치를 더 줍니다.
+ * (예: 오늘 만료되는 우유 → 1 + expiry-weight, horizon일 뒤 만료 → 거의 1)
+ * 실제 점수 계산과 상위 K개 선택은 RecipeIndex(재료 번호 + BitSet + 힙)에서 합니다.
+ */
+@Component
+public class RecipeScorer {
+
+    // 소비기한 임박 재료의 최대 추가 가중치
+    @Value("${recipe.scoring.expiry-weight:2.0}")
+    private double expiryWeight;
+
+    // 며칠 안에 만료되는 재료부터 가중치를 줄지
+    @Value("${recipe.scoring.expiry-horizon-days:7}")
+    private int horizonDays;
+
+    private final RecipeIndex recipeIndex;
+    private final ItemService itemService;
+
+    @Autowired
+    public RecipeScorer(RecipeIndex recipeIndex, ItemService itemService) {
+        this.recipeIndex = recipeIndex;
+        this.itemService = itemService;
+    }
+
+    /**
+     * ✅ 색인 전체에서 점수가 높은 레시피 K개를 찾습니다.
+     * @param userId 사용자 ID (null이면 소비기한 가중치 없음)
+     * @param selectedIngredients 사용자가 선택한 재료 (첫 번째가 메인 재료)
+     * @param limit 최대 개수
+     */
+    public List<RecipeDTO> recommend(String userId, List<String> selectedIngredients, int limit) {
+        return recipeIndex.topK(selectedIngredients, weights(userId, selectedIngredients), limit, null);
+    }
+
+    /**
+     * ✅ 실시간 크롤링한 레시피들을 같은 점수 규칙으로 정렬합니다. (색인에 추가한 뒤 그 레시피들 안에서만 검색)
+     * 재료가 없거나 크롤링에 실패한 레시피와 점수가 0인 레시피는 결과에서 빠집니다.
+     */
+    public List<RecipeDTO> rank(String userId, List<String> selectedIngredients, List<RecipeDTO> crawled) {
+        recipeIndex.addAll(crawled);
+        return recipeIndex.topK(selectedIngredients, weights(userId, selectedIngredients),
+                crawled.size(), crawled);
+    }
+
+    // 선택 재료별 가중치: 1 + 소비기한 임박 가산
+    private double[] weights(String userId, List<String> selectedIngredients) {
+        double[] weights = new double[selectedIngredients.size()];
+        Arrays.fill(weights, 1.0);
+        if (userId == null || expiryWeight <= 0) return weights;
+
+        LocalDate today = LocalDate.now();
+        List<InventoryItemDTO> expiring = itemService.getExpiringItems(userId, horizonDays, false);
+        if (expiring.isEmpty()) return weights;
+
+        for (int i = 0; i < selectedIngredients.size(); i++) {
+            String selected = ProductDictionary.normalize(selectedIngredients.get(i));
+            if (selected.isEmpty()) continue;
+            for (InventoryItemDTO item : expiring) {
+                // 만료일 순으로 정렬되어 있으므로 처음 맞는 품목이 가장 임박한 품목 ("서울우유" ↔ "우유")
+                String itemName = ProductDictionary.normalize(item.name());
+                if (itemName.contains(selected) || selected.contains(itemName)) {
+                    long daysLeft = ChronoUnit.DAYS.between(today, item.expireDate());
+                    weights[i] += expiryWeight * (horizonDays - daysLeft + 1) / (horizonDays + 1);
+                    break;
+                }
+            }
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,91 @@
+package com.proj.food.rottenpotato.service;
+
+import com.google.cloud.vision.v1.*;
+import com.google.protobuf.ByteString;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Google Cloud Vision API 기반 OCR 엔진 (기본값)
+ */
+@Component
+@ConditionalOnProperty(name = "receipt.ocr.engine", havingValue = "vision", matchIfMissing = true)
+public class VisionOcrEngine implements OcrEngine {
+
+    // Vision API batchAnnotateImages 요청 1건에 담을 수 있는 최대 이미지 수
+    private static final int MAX_IMAGES_PER_REQUEST = 16;
+
+    private static final Feature TEXT_DETECTION = Feature.newBuilder()
+            .setType(Feature.Type.TEXT_DETECTION)
+            .build();
+
+    // 🔌 gRPC 채널을 재사용하기 위해 애플리케이션 전체에서 하나의 클라이언트만 사용
+    private volatile ImageAnnotatorClient client;
+
+    /**
+     * 이미지가 {@value #MAX_IMAGES_PER_REQUEST}장을 넘으면 여러 batchAnnotateImages 요청으로 나누어 보냅니다.
+     */
+    @Override
+    public List<Result> recognize(List<byte[]> images) throws IOException {
+        List<Result> results = new ArrayList<>(images.size());
+        ImageAnnotatorClient annotator = getClient();
+
+        for (int from = 0; from < images.size(); from += MAX_IMAGES_PER_REQUEST) {
+            List<byte[]> chunk = images.subList(from, Math.min(from + MAX_IMAGES_PER_REQUEST, images.size()));
+
+            List<AnnotateImageRequest> requests = new ArrayList<>(chunk.size());
+            for (byte[] imageBytes : chunk) {
+                Image img = Image.newBuilder().setContent(ByteString.copyFrom(imageBytes)).build();
+                requests.add(AnnotateImageRequest.newBuilder()
+                        .addFeatures(TEXT_DETECTION)
+                        .setImage(img)
+                        .build());
+            }
+
+            BatchAnnotateImagesResponse batchResponse = annotator.batchAnnotateImages(requests);
+            for (AnnotateImageResponse response : batchResponse.getResponsesList()) {
+                results.add(toResult(response));
+            }
+        }
+        return results;
+    }
+
+    private Result toResult(AnnotateImageResponse response) {
+        if (response.hasError()) {
+            return Result.error(response.getError().getMessage());
+        }
+
+        // ✅ OCR 결과 텍스트 추출
+        StringBuilder sb = new StringBuilder();
+        for (EntityAnnotation annotation : response.getTextAnnotationsList()) {
+            sb.append(annotation.getDescription()).append("\n");
+        }
+        return Result.text(sb.toString());
+    }
+
+    private ImageAnnotatorClient getClient() throws IOException {
+        ImageAnnotatorClient current = client;
+        if (current == null) {
+            synchronized (this) {
+                current = client;
+                if (current == null) {
+                    current = ImageAnnotatorClient.create();
+                    client = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    @PreDestroy
+    public void close() {
+        if (client != null) {
+            client.close();
+        }
+    }
+}
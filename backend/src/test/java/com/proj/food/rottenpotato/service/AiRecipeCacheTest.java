@@ -0,0 +1,152 @@
+package com.proj.food.rottenpotato.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * AI 레시피 캐시: 정규화된 키, variants 정책, 생성 시각 기준 TTL과 파일 저장/로드
+ */
+class AiRecipeCacheTest {
+
+    private static final long TTL_MINUTES = 60;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ManualClock clock = new ManualClock();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void keyIgnoresOrderCaseWhitespaceAndNumberForm() {
+        AiRecipeCache cache = cache("always", "");
+
+        String key = cache.key(
+                List.of(ingredient(" 양파 ", 3), ingredient("Chicken  Breast", 4)),
+                Map.of("spicy_level", 2, "cooking_time", "30 분"),
+                " 국물 없이 ");
+        String same = cache.key(
+                List.of(ingredient("chicken breast", 4), ingredient("양파", 3)),
+                Map.of("cooking_time", "30   분", "spicy_level", 2.0),
+                "국물  없이");
+
+        assertThat(same).isEqualTo(key);
+        assertThat(cache.key(List.of(ingredient("양파", 3)), Map.of("spicy_level", 3), null))
+                .isNotEqualTo(cache.key(List.of(ingredient("양파", 3)), Map.of("spicy_level", 2), null));
+        assertThat(cache.key(List.of(ingredient("양파", 3)), Map.of(), "국물 없이"))
+                .isNotEqualTo(cache.key(List.of(ingredient("양파", 3)), Map.of(), null));
+    }
+
+    @Test
+    void keyFollowsThePriorityBucket() {
+        AiRecipeCache cache = cache("always", "");
+        Map<String, Object> eightDaysLeft = ingredient("우유", 2);
+        eightDaysLeft.put("days_until_expiry", 8);
+        Map<String, Object> tenDaysLeft = ingredient("우유", 2);
+        tenDaysLeft.put("days_until_expiry", 10);
+        Map<String, Object> threeDaysLeft = ingredient("우유", 4);
+        threeDaysLeft.put("days_until_expiry", 3);
+
+        String base = cache.key(List.of(eightDaysLeft), Map.of(), null);
+        // 구간 안에서 남은 일수만 다르면 같은 키, 구간이 바뀌면 다른 키
+        assertThat(cache.key(List.of(tenDaysLeft), Map.of(), null)).isEqualTo(base);
+        assertThat(cache.key(List.of(threeDaysLeft), Map.of(), null)).isNotEqualTo(base);
+        // 같은 재료가 여러 개면 가장 급한 구간 기준
+        assertThat(cache.key(List.of(eightDaysLeft, threeDaysLeft), Map.of(), null))
+                .isEqualTo(cache.key(List.of(threeDaysLeft), Map.of(), null));
+    }
+
+    @Test
+    void alwaysPolicyReusesTheFirstResponse() {
+        AiRecipeCache cache = cache("always", "");
+        String key = cache.key(List.of(ingredient("양파", 3)), Map.of(), null);
+
+        assertThat(cache.get(key)).isNull();
+        cache.put(key, recipe("첫 번째"));
+        cache.put(key, recipe("두 번째"));
+
+        assertThat(cache.get(key)).isEqualTo(recipe("첫 번째"));
+        assertThat(cache.get(key)).isEqualTo(recipe("첫 번째"));
+        assertThat(cache.getStats()).containsEntry("hits", 2L).containsEntry("misses", 1L);
+    }
+
+    @Test
+    void variantsPolicyFillsThenRotates() {
+        AiRecipeCache cache = cache("variants", "");
+        String key = cache.key(List.of(ingredient("양파", 3)), Map.of(), null);
+
+        // 3개가 모일 때까지는 미스 → 새로 생성
+        for (int i = 1; i <= 3; i++) {
+            assertThat(cache.get(key)).isNull();
+            cache.put(key, recipe("변형 " + i));
+        }
+        cache.put(key, recipe("변형 4"));
+
+        List<Map<String, Object>> served = new ArrayList<>();
+        for (int i = 0; i < 7; i++) served.add(cache.get(key));
+        assertThat(served).containsExactly(recipe("변형 1"), recipe("변형 2"), recipe("변형 3"),
+                recipe("변형 1"), recipe("변형 2"), recipe("변형 3"), recipe("변형 1"));
+        assertThat(cache.getStats()).containsEntry("misses", 3L).containsEntry("variantMisses", 2L);
+    }
+
+    @Test
+    void ttlCountsFromCreationAndSurvivesReload() {
+        String path = tempDir.resolve("ai-recipe-cache.json").toString();
+        AiRecipeCache cache = cache("always", path);
+        String oldKey = cache.key(List.of(ingredient("양파", 3)), Map.of(), null);
+        String newKey = cache.key(List.of(ingredient("감자", 3)), Map.of(), null);
+
+        cache.put(oldKey, recipe("양파 요리"));
+        clock.advance(Duration.ofMinutes(40));
+        cache.put(newKey, recipe("감자 요리"));
+        clock.advance(Duration.ofMinutes(10));
+        cache.save();
+
+        // 다시 읽어도 만료 시각은 처음 생성한 시각 기준 (양파: 50분 경과, 감자: 10분 경과)
+        AiRecipeCache reloaded = cache("always", path);
+        assertThat(reloaded.get(oldKey)).isEqualTo(recipe("양파 요리"));
+        assertThat(reloaded.get(newKey)).isEqualTo(recipe("감자 요리"));
+
+        clock.advance(Duration.ofMinutes(10));
+        assertThat(reloaded.get(oldKey)).isNull();
+        assertThat(reloaded.get(newKey)).isEqualTo(recipe("감자 요리"));
+        assertThat(cache.get(oldKey)).isNull();
+
+        // 파일에 남아 있어도 이미 만료된 항목은 읽지 않음
+        clock.advance(Duration.ofMinutes(41));
+        assertThat(cache("always", path).getStats()).containsEntry("size", 0L);
+    }
+
+    private AiRecipeCache cache(String policy, String path) {
+        AiRecipeCache cache = new AiRecipeCache(objectMapper, clock);
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "policy", policy);
+        ReflectionTestUtils.setField(cache, "maxVariants", 3);
+        ReflectionTestUtils.setField(cache, "maxSize", 100L);
+        ReflectionTestUtils.setField(cache, "ttlMinutes", TTL_MINUTES);
+        ReflectionTestUtils.setField(cache, "cachePath", path);
+        cache.init();
+        return cache;
+    }
+
+    private static Map<String, Object> ingredient(String name, int priority) {
+        Map<String, Object> ingredient = new LinkedHashMap<>();
+        ingredient.put("name", name);
+        ingredient.put("priority_score", priority);
+        return ingredient;
+    }
+
+    private static Map<String, Object> recipe(String menu) {
+        return Map.of("success", true, "recipe", Map.of("menu_name", menu));
+    }
+}
@@ -0,0 +1,159 @@
+package com.proj.food.rottenpotato.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 테스트용 AI 서버 (Node.js ai-service 대신 /api/generate-recipe에 응답)
+ * - 성공 응답: {"success":true,"recipe":{"menu_name":"stub-{호출 번호}"}}
+ * - status가 200이 아니면 본문 없이 그 상태 코드로 응답
+ * - gate가 있으면 응답하기 전에 gate가 열릴 때까지 기다림 (요청이 도착하면 received 허가 1개 증가)
+ * - 스트리밍(/api/generate-recipe/stream): chunkDelayMs마다 chunk 이벤트를 streamChunks번 보낸 뒤
+ *   streamDone이면 done 이벤트. 기다리는 동안에도 20ms마다 SSE 주석(": ping")을 보내
+ *   클라이언트가 끊으면 바로 쓰기에 실패하고 streamAborted가 증가함
+ */
+final class AiStubServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final AtomicInteger calls = new AtomicInteger();
+    private final Semaphore received = new Semaphore(0);
+
+    private final AtomicInteger streamCalls = new AtomicInteger();
+    private final AtomicInteger streamAborted = new AtomicInteger();
+
+    volatile int status = 200;
+    volatile CountDownLatch gate;
+    volatile int streamChunks = 3;
+    volatile long chunkDelayMs = 20;
+    volatile boolean streamDone = true;
+
+    AiStubServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 64);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/api/generate-recipe", this::generate);
+        server.createContext("/api/generate-recipe/stream", this::stream);
+        server.start();
+    }
+
+    String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/api/generate-recipe";
+    }
+
+    String streamUrl() {
+        return url() + "/stream";
+    }
+
+    int calls() {
+        return calls.get();
+    }
+
+    int streamCalls() {
+        return streamCalls.get();
+    }
+
+    int streamAborted() {
+        return streamAborted.get();
+    }
+
+    /**
+     * 요청이 count개 더 도착할 때까지 기다립니다.
+     */
+    boolean awaitReceived(int count) throws InterruptedException {
+        return received.tryAcquire(count, 5, TimeUnit.SECONDS);
+    }
+
+    private void generate(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            exchange.getRequestBody().readAllBytes();
+            int call = calls.incrementAndGet();
+            received.release();
+            awaitGate();
+
+            if (status != 200) {
+                exchange.sendResponseHeaders(status, -1);
+                return;
+            }
+            byte[] body = ("{\"success\":true,\"recipe\":{\"menu_name\":\"stub-" + call + "\"}}")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (IOException ignored) {
+            // 클라이언트가 먼저 끊은 경우
+        }
+    }
+
+    private void stream(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            exchange.getRequestBody().readAllBytes();
+            streamCalls.incrementAndGet();
+            received.release();
+
+            if (status != 200) {
+                exchange.sendResponseHeaders(status, -1);
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+            exchange.sendResponseHeaders(200, 0);
+            OutputStream out = exchange.getResponseBody();
+            try {
+                for (int i = 0; i < streamChunks; i++) {
+                    pause(out, chunkDelayMs);
+                    writeEvent(out, "chunk", "{\"text\":\"tok" + i + " \"}");
+                }
+                if (streamDone) {
+                    writeEvent(out, "done", "{\"success\":true,\"recipe\":{\"menu_name\":\"stream\"}}");
+                }
+                out.close();
+            } catch (IOException e) {
+                streamAborted.incrementAndGet();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static void pause(OutputStream out, long millis) throws IOException, InterruptedException {
+        long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        long remaining;
+        while ((remaining = end - System.nanoTime()) > 0) {
+            Thread.sleep(Math.min(20, TimeUnit.NANOSECONDS.toMillis(remaining) + 1));
+            out.write(": ping\n\n".getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+        }
+    }
+
+    private static void writeEvent(OutputStream out, String event, String data) throws IOException {
+        out.write(("event: " + event + "\ndata: " + data + "\n\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private void awaitGate() {
+        CountDownLatch latch = gate;
+        if (latch == null) return;
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        CountDownLatch latch = gate;
+        if (latch != null) latch.countDown();
+        server.stop(0);
+    }
+}
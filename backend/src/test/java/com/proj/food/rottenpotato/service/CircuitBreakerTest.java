@@ -0,0 +1,137 @@
+package com.proj.food.rottenpotato.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 서킷 브레이커 상태 전이 (시계를 직접 움직여 OPEN 유지 시간을 확인)
+ */
+class CircuitBreakerTest {
+
+    private static final long OPEN_MS = 30_000;
+
+    private final ManualClock clock = new ManualClock();
+    // 최근 10번 중 4번 이상 호출했고 실패율 50% 이상이면 OPEN
+    private final CircuitBreaker breaker = new CircuitBreaker("test", 10, 4, 0.5, OPEN_MS, clock);
+
+    @Test
+    void failureRateAppliesOnlyAfterMinCalls() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(breaker.allowRequest()).isTrue();
+            breaker.onFailure();
+        }
+        // 3번 모두 실패했지만 minCalls(4) 전이라 CLOSED 유지
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        assertThat(breaker.allowRequest()).isTrue();
+        breaker.onFailure();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.allowRequest()).isFalse();
+        assertThat(breaker.getStats()).containsEntry("shortCircuited", 1L);
+    }
+
+    @Test
+    void staysClosedBelowFailureRate() {
+        for (int i = 0; i < 10; i++) {
+            assertThat(breaker.allowRequest()).isTrue();
+            if (i % 3 == 2) breaker.onFailure(); else breaker.onSuccess();
+        }
+        // 10번 중 3번 실패 (30%), 중간에도 50%를 넘은 적 없음
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void openMovesToHalfOpenAfterOpenMs() {
+        open();
+
+        clock.advance(Duration.ofMillis(OPEN_MS - 1));
+        assertThat(breaker.allowRequest()).isFalse();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        clock.advance(Duration.ofMillis(1));
+        assertThat(breaker.allowRequest()).isTrue();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+    }
+
+    @Test
+    void halfOpenAllowsSingleProbe() {
+        open();
+        clock.advance(Duration.ofMillis(OPEN_MS));
+
+        assertThat(breaker.allowRequest()).isTrue();
+        assertThat(breaker.allowRequest()).isFalse();
+        assertThat(breaker.allowRequest()).isFalse();
+
+        breaker.onSuccess();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.allowRequest()).isTrue();
+        assertThat(breaker.allowRequest()).isTrue();
+    }
+
+    @Test
+    void failedProbeReopensForAnotherOpenMs() {
+        open();
+        clock.advance(Duration.ofMillis(OPEN_MS));
+
+        assertThat(breaker.allowRequest()).isTrue();
+        breaker.onFailure();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        clock.advance(Duration.ofMillis(OPEN_MS - 1));
+        assertThat(breaker.allowRequest()).isFalse();
+        clock.advance(Duration.ofMillis(1));
+        assertThat(breaker.allowRequest()).isTrue();
+    }
+
+    @Test
+    void cancelledProbeReleasesTheSlot() {
+        open();
+        clock.advance(Duration.ofMillis(OPEN_MS));
+
+        assertThat(breaker.allowRequest()).isTrue();
+        assertThat(breaker.allowRequest()).isFalse();
+
+        // 시험 호출이 취소되면 결과 없이 다음 시험 호출을 허용 (HALF_OPEN 유지)
+        breaker.onCancelled();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.allowRequest()).isTrue();
+        assertThat(breaker.allowRequest()).isFalse();
+    }
+
+    @Test
+    void cancelledCallsDoNotCountInClosedState() {
+        for (int i = 0; i < 10; i++) {
+            assertThat(breaker.allowRequest()).isTrue();
+            breaker.onCancelled();
+        }
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.getStats()).containsEntry("windowCalls", 0);
+    }
+
+    @Test
+    void closingStartsAFreshWindow() {
+        open();
+        clock.advance(Duration.ofMillis(OPEN_MS));
+        assertThat(breaker.allowRequest()).isTrue();
+        breaker.onSuccess();
+
+        // OPEN 이전 실패는 지워졌으므로 다시 minCalls번 실패해야 OPEN
+        for (int i = 0; i < 3; i++) {
+            breaker.allowRequest();
+            breaker.onFailure();
+        }
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    private void open() {
+        for (int i = 0; i < 4; i++) {
+            breaker.allowRequest();
+            breaker.onFailure();
+        }
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+}
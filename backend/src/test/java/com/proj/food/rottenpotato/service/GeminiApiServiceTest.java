@@ -0,0 +1,193 @@
+package com.proj.food.rottenpotato.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 로컬 스텁 AI 서버를 상대로 한 AI 레시피 클라이언트의 벌크헤드/서킷 브레이커, 캐시 미스 합치기 동작
+ */
+class GeminiApiServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private AiStubServer stub;
+    private GeminiApiService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stub = new AiStubServer();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) service.shutdown();
+        stub.close();
+    }
+
+    @Test
+    void bulkheadTimeoutReturnsBusyWithoutCountingAsFailure() throws Exception {
+        service = service(1, 50, 5, false);
+        stub.gate = new CountDownLatch(1);
+
+        // 첫 호출이 하나뿐인 자리를 차지한 채 응답을 기다림
+        CompletableFuture<Map<String, Object>> first = CompletableFuture.supplyAsync(() -> generate("양파"));
+        assertThat(stub.awaitReceived(1)).isTrue();
+
+        Map<String, Object> busy = generate("감자");
+        assertThat(busy).containsEntry("success", false).containsEntry("degraded", true);
+        assertThat(errorCode(busy)).isEqualTo("AI_BUSY");
+        assertThat(stub.calls()).isEqualTo(1);
+
+        Map<String, Object> stats = service.getStats();
+        assertThat(section(stats, "bulkhead")).containsEntry("rejected", 1L).containsEntry("inUse", 1);
+        assertThat(section(stats, "circuit")).containsEntry("windowCalls", 0).containsEntry("state", "CLOSED");
+        assertThat(stats).containsEntry("failures", 0L);
+
+        stub.gate.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS)).containsEntry("success", true);
+        stats = service.getStats();
+        assertThat(section(stats, "bulkhead")).containsEntry("inUse", 0);
+        assertThat(section(stats, "circuit")).containsEntry("windowCalls", 1);
+    }
+
+    @Test
+    void openCircuitSkipsTheServerAndReleasesThePermit() {
+        service = service(4, 50, 2, false);
+        stub.status = 500;
+
+        assertThat(errorCode(generate("양파"))).isEqualTo("AI_UNAVAILABLE");
+        assertThat(errorCode(generate("감자"))).isEqualTo("AI_UNAVAILABLE");
+        assertThat(errorCode(generate("당근"))).isEqualTo("AI_CIRCUIT_OPEN");
+
+        assertThat(stub.calls()).isEqualTo(2);
+        Map<String, Object> stats = service.getStats();
+        assertThat(section(stats, "circuit")).containsEntry("state", "OPEN").containsEntry("shortCircuited", 1L);
+        assertThat(section(stats, "bulkhead")).containsEntry("inUse", 0);
+        assertThat(stats).containsEntry("failures", 2L).containsEntry("calls", 2L);
+    }
+
+    @Test
+    void lastGoodResponseServedWhileUnavailable() {
+        service = service(4, 50, 5, false);
+        assertThat(generate("양파")).containsEntry("success", true);
+
+        stub.status = 500;
+        Map<String, Object> fallback = generate("양파");
+        assertThat(fallback).containsEntry("success", true).containsEntry("cached", true);
+        assertThat(section(service.getStats(), "fallback")).containsEntry("servedLastGood", 1L);
+    }
+
+    @Test
+    void concurrentMissesShareOneUpstreamCall() throws Exception {
+        service = service(8, 50, 5, true);
+        stub.gate = new CountDownLatch(1);
+
+        List<Future<Map<String, Object>>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 5; i++) {
+                futures.add(executor.submit(() -> generate("양파")));
+            }
+            // 첫 요청이 AI 서버에 도착하고 나머지 4개가 그 호출을 기다리는 상태가 된 뒤에 응답
+            assertThat(stub.awaitReceived(1)).isTrue();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (!Long.valueOf(4).equals(section(service.getStats(), "inFlight").get("coalesced"))
+                    && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            stub.gate.countDown();
+        }
+
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (Future<Map<String, Object>> future : futures) results.add(future.get());
+
+        assertThat(stub.calls()).isEqualTo(1);
+        assertThat(results).allSatisfy(result -> assertThat(result)
+                .containsEntry("success", true)
+                .containsEntry("recipe", Map.of("menu_name", "stub-1")));
+        // 호출한 요청 1개만 새로 생성한 응답, 기다린 요청은 cached: true 표시된 각자의 복사본
+        List<Map<String, Object>> shared = results.stream().filter(r -> Boolean.TRUE.equals(r.get("cached"))).toList();
+        Map<String, Object> leader = results.stream().filter(r -> !r.containsKey("cached")).findFirst().orElseThrow();
+        assertThat(shared).hasSize(4);
+        for (Map<String, Object> copy : shared) {
+            assertThat(copy).isNotSameAs(leader);
+            assertThat(shared.stream().filter(other -> other == copy)).hasSize(1);
+        }
+        assertThat(section(service.getStats(), "inFlight")).containsEntry("size", 0).containsEntry("coalesced", 4L);
+
+        // 끝난 뒤에 온 요청은 캐시에서
+        assertThat(generate("양파")).containsEntry("cached", true);
+        assertThat(stub.calls()).isEqualTo(1);
+    }
+
+    @Test
+    void differentKeysDoNotWaitForEachOther() throws Exception {
+        service = service(8, 50, 5, true);
+        stub.gate = new CountDownLatch(1);
+
+        CompletableFuture<Map<String, Object>> onion = CompletableFuture.supplyAsync(() -> generate("양파"));
+        assertThat(stub.awaitReceived(1)).isTrue();
+        CompletableFuture<Map<String, Object>> potato = CompletableFuture.supplyAsync(() -> generate("감자"));
+        assertThat(stub.awaitReceived(1)).isTrue();
+        stub.gate.countDown();
+
+        assertThat(onion.get(5, TimeUnit.SECONDS)).doesNotContainKey("cached");
+        assertThat(potato.get(5, TimeUnit.SECONDS)).doesNotContainKey("cached");
+        assertThat(stub.calls()).isEqualTo(2);
+        assertThat(section(service.getStats(), "inFlight")).containsEntry("coalesced", 0L);
+    }
+
+    private GeminiApiService service(int maxConcurrent, long bulkheadWaitMs, int circuitMinCalls, boolean cacheEnabled) {
+        AiRecipeCache cache = new AiRecipeCache(objectMapper);
+        ReflectionTestUtils.setField(cache, "enabled", cacheEnabled);
+        ReflectionTestUtils.setField(cache, "policy", "always");
+        ReflectionTestUtils.setField(cache, "maxSize", 100L);
+        ReflectionTestUtils.setField(cache, "ttlMinutes", 60L);
+        ReflectionTestUtils.setField(cache, "cachePath", "");
+        cache.init();
+
+        GeminiApiService gemini = new GeminiApiService(objectMapper, cache);
+        ReflectionTestUtils.setField(gemini, "aiServiceUrl", stub.url());
+        ReflectionTestUtils.setField(gemini, "aiServiceStreamUrl", stub.streamUrl());
+        ReflectionTestUtils.setField(gemini, "connectTimeoutMs", 1000L);
+        ReflectionTestUtils.setField(gemini, "readTimeoutMs", 5000L);
+        ReflectionTestUtils.setField(gemini, "streamTimeoutMs", 5000L);
+        ReflectionTestUtils.setField(gemini, "maxConcurrent", maxConcurrent);
+        ReflectionTestUtils.setField(gemini, "bulkheadWaitMs", bulkheadWaitMs);
+        ReflectionTestUtils.setField(gemini, "circuitWindowSize", 10);
+        ReflectionTestUtils.setField(gemini, "circuitMinCalls", circuitMinCalls);
+        ReflectionTestUtils.setField(gemini, "circuitFailureRate", 0.5);
+        ReflectionTestUtils.setField(gemini, "circuitOpenMs", 60_000L);
+        ReflectionTestUtils.setField(gemini, "lastGoodMaxSize", 10);
+        gemini.init();
+        return gemini;
+    }
+
+    private Map<String, Object> generate(String ingredient) {
+        return service.generateRecipe(List.of(Map.of("name", ingredient, "priority_score", 3)), Map.of());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> section(Map<String, Object> stats, String name) {
+        return (Map<String, Object>) stats.get(name);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String errorCode(Map<String, Object> response) {
+        Object error = response.get("error");
+        return error instanceof Map<?, ?> map ? (String) ((Map<String, Object>) map).get("code") : null;
+    }
+}
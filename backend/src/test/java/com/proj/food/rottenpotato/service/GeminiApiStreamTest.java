@@ -0,0 +1,222 @@
+package com.proj.food.rottenpotato.service;
+
+import com.proj.food.rottenpotato.dto.ClassifiedItemDTO;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * POST /inventory/ai-generate/stream을 실제 서버로 띄워 스텁 AI 서버의 SSE를 중계할 때
+ * 클라이언트 연결 종료 / 시간 초과 / done 없이 끝난 스트림의 취소·집계가 한 번씩만 일어나는지 확인합니다.
+ * (통계는 컨텍스트를 공유하므로 테스트마다 시작 시점과의 차이로 비교, 사용자마다 재료가 달라 캐시 키도 다름)
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "receipt.ocr.engine=fixture",
+        "inventory.store=memory",
+        "spring.datasource.url=jdbc:h2:mem:ai-stream-test",
+        "recipe.index.path=",
+        "ai.cache.enabled=false",
+        "ai.cache.path=",
+        "ai.service.read-timeout-ms=5000",
+        "ai.service.stream.timeout-ms=1500"
+})
+class GeminiApiStreamTest {
+
+    private static final AiStubServer STUB = newStub();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private GeminiApiService geminiApiService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @DynamicPropertySource
+    static void aiServer(DynamicPropertyRegistry registry) {
+        registry.add("ai.service.url", STUB::url);
+        registry.add("ai.service.stream-url", STUB::streamUrl);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        STUB.close();
+    }
+
+    @BeforeEach
+    void resetStub() {
+        STUB.status = 200;
+        STUB.streamChunks = 3;
+        STUB.chunkDelayMs = 20;
+        STUB.streamDone = true;
+    }
+
+    @Test
+    void relaysChunksThenDone() throws Exception {
+        Snapshot before = snapshot();
+
+        String events = stream(addItem("relay", "양파"), null);
+
+        assertThat(events).contains("event:start", "tok0", "tok1", "tok2", "event:done", "\"menu_name\":\"stream\"");
+        awaitTrue(() -> inUse() == 0);
+        Snapshot after = snapshot();
+        assertThat(after.completed - before.completed).isEqualTo(1);
+        assertThat(after.successes - before.successes).isEqualTo(1);
+        assertThat(after.failures - before.failures).isZero();
+        assertThat(after.cancelled - before.cancelled).isZero();
+    }
+
+    @Test
+    void clientDisconnectCancelsUpstreamAndReleasesPermitOnce() throws Exception {
+        STUB.streamChunks = 200;
+        Snapshot before = snapshot();
+        int abortedBefore = STUB.streamAborted();
+
+        // 첫 chunk를 받자마자 연결을 끊음
+        String events = stream(addItem("leaver", "감자"), "event:chunk");
+        assertThat(events).contains("event:chunk").doesNotContain("event:done");
+
+        awaitTrue(() -> snapshot().cancelled - before.cancelled == 1 && STUB.streamAborted() - abortedBefore == 1);
+        awaitTrue(() -> inUse() == 0);
+        // 잠시 뒤에도 취소 집계와 벌크헤드 자리는 그대로 (두 번 반환하면 inUse가 음수)
+        Thread.sleep(300);
+        Snapshot after = snapshot();
+        assertThat(inUse()).isZero();
+        assertThat(after.cancelled - before.cancelled).isEqualTo(1);
+        assertThat(after.failures - before.failures).isZero();
+        assertThat(after.completed - before.completed).isZero();
+        assertThat(after.windowCalls).isEqualTo(before.windowCalls);
+    }
+
+    @Test
+    void timeoutCountsOneFailure() throws Exception {
+        // 첫 chunk가 stream.timeout-ms(1.5초)보다 늦게 옴
+        STUB.streamChunks = 1;
+        STUB.chunkDelayMs = 4000;
+        Snapshot before = snapshot();
+        int abortedBefore = STUB.streamAborted();
+
+        stream(addItem("slow", "당근"), null);
+
+        awaitTrue(() -> snapshot().failures - before.failures == 1 && STUB.streamAborted() - abortedBefore == 1);
+        awaitTrue(() -> inUse() == 0);
+        Thread.sleep(300);
+        Snapshot after = snapshot();
+        assertThat(after.failures - before.failures).isEqualTo(1);
+        assertThat(after.timeouts - before.timeouts).isEqualTo(1);
+        assertThat(after.cancelled - before.cancelled).isZero();
+        assertThat(after.completed - before.completed).isZero();
+        assertThat(inUse()).isZero();
+    }
+
+    @Test
+    void streamEndingWithoutDoneSendsFallbackDone() throws Exception {
+        STUB.streamChunks = 2;
+        STUB.streamDone = false;
+        Snapshot before = snapshot();
+
+        String events = stream(addItem("cut", "두부"), null);
+
+        assertThat(events).contains("tok1", "event:done", "\"success\":false", "\"degraded\":true", "AI_UNAVAILABLE");
+        assertThat(events.indexOf("event:done")).isEqualTo(events.lastIndexOf("event:done"));
+        awaitTrue(() -> inUse() == 0);
+        Snapshot after = snapshot();
+        assertThat(after.failures - before.failures).isEqualTo(1);
+        assertThat(after.cancelled - before.cancelled).isZero();
+        assertThat(after.completed - before.completed).isZero();
+    }
+
+    private String addItem(String userId, String name) {
+        itemService.addItem(userId, new ClassifiedItemDTO(name, 1, "채소", LocalDate.now().plusDays(3)));
+        return userId;
+    }
+
+    /**
+     * 스트리밍 API를 호출하고 받은 내용을 반환합니다.
+     * @param disconnectAfter 이 문자열을 받으면 바로 연결을 끊음 (RST), null이면 서버가 닫을 때까지 읽음
+     */
+    private String stream(String userId, String disconnectAfter) throws IOException {
+        byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+        String request = "POST /inventory/ai-generate/stream HTTP/1.1\r\n"
+                + "Host: localhost\r\n"
+                + "X-User-Id: " + userId + "\r\n"
+                + "Content-Type: application/json\r\n"
+                + "Accept: text/event-stream\r\n"
+                + "Content-Length: " + body.length + "\r\n"
+                + "Connection: close\r\n\r\n";
+
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        try (Socket socket = new Socket("127.0.0.1", port)) {
+            socket.setSoTimeout(10_000);
+            OutputStream out = socket.getOutputStream();
+            out.write(request.getBytes(StandardCharsets.US_ASCII));
+            out.write(body);
+            out.flush();
+
+            InputStream in = socket.getInputStream();
+            byte[] buffer = new byte[4096];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                received.write(buffer, 0, n);
+                if (disconnectAfter != null && received.toString(StandardCharsets.UTF_8).contains(disconnectAfter)) {
+                    socket.setSoLinger(true, 0);
+                    break;
+                }
+            }
+        }
+        return received.toString(StandardCharsets.UTF_8);
+    }
+
+    private record Snapshot(long successes, long failures, long timeouts, long completed, long cancelled, int windowCalls) {
+    }
+
+    @SuppressWarnings("unchecked")
+    private Snapshot snapshot() {
+        Map<String, Object> stats = geminiApiService.getStats();
+        Map<String, Object> stream = (Map<String, Object>) stats.get("stream");
+        Map<String, Object> circuit = (Map<String, Object>) stats.get("circuit");
+        return new Snapshot((long) stats.get("successes"), (long) stats.get("failures"), (long) stats.get("timeouts"),
+                (long) stream.get("completed"), (long) stream.get("cancelled"), (int) circuit.get("windowCalls"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private int inUse() {
+        return (int) ((Map<String, Object>) geminiApiService.getStats().get("bulkhead")).get("inUse");
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("조건을 기다리다 시간 초과").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+
+    private static AiStubServer newStub() {
+        try {
+            return new AiStubServer();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
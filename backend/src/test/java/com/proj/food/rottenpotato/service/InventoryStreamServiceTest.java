@@ -0,0 +1,281 @@
+package com.proj.food.rottenpotato.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * 재고 변경 SSE: Last-Event-ID 이어 보내기, 느린 구독자의 resync 합치기, 재시작 전 ID, 채널 정리와 구독의 경합
+ * (MockMvc로 구독해 SseEmitter가 보낸 내용을 응답 본문에서 읽음)
+ */
+class InventoryStreamServiceTest {
+
+    private static final String USER = "alice";
+    private static final int BUFFER_SIZE = 4;
+    private static final int HISTORY_SIZE = 8;
+    private static final Pattern EVENT_ID = Pattern.compile("^id:(\\S+)$", Pattern.MULTILINE);
+
+    private InventoryStreamService service;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        service = new InventoryStreamService();
+        ReflectionTestUtils.setField(service, "bufferSize", BUFFER_SIZE);
+        ReflectionTestUtils.setField(service, "historySize", HISTORY_SIZE);
+        ReflectionTestUtils.setField(service, "timeoutMs", 60_000L);
+        ReflectionTestUtils.setField(service, "historyRetentionMs", 60_000L);
+        service.init();
+        mockMvc = MockMvcBuilders.standaloneSetup(new StreamController(service)).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void reconnectReplaysEventsAfterLastEventId() throws Exception {
+        MvcResult first = subscribe(null);
+        publishDeleted(1, 2, 3);
+        awaitTrue(() -> ids(first).size() == 3);
+        List<String> ids = ids(first);
+
+        MvcResult resumed = subscribe(ids.get(0));
+        awaitTrue(() -> ids(resumed).size() == 2);
+        assertThat(ids(resumed)).containsExactly(ids.get(1), ids.get(2));
+        assertThat(content(resumed)).contains("\"itemId\":2", "\"itemId\":3").doesNotContain("\"itemId\":1", "resync");
+
+        // 마지막 이벤트까지 받았으면 이어 보낼 것 없이 heartbeat만
+        MvcResult upToDate = subscribe(ids.get(2));
+        awaitTrue(() -> content(upToDate).contains(":ping"));
+        assertThat(ids(upToDate)).isEmpty();
+    }
+
+    @Test
+    void lastEventIdOutsideHistoryGetsResync() throws Exception {
+        MvcResult first = subscribe(null);
+        publishDeleted(1);
+        awaitTrue(() -> ids(first).size() == 1);
+        String oldest = ids(first).get(0);
+
+        // 10개 발행 → 보관 중인 것은 3~10번이라 1번 다음(2번)부터 이어 보낼 수 없음
+        // (버퍼가 넘치지 않도록 하나씩 받은 뒤 발행)
+        for (int i = 2; i <= HISTORY_SIZE + 2; i++) {
+            publishDeleted(i);
+            int received = i;
+            awaitTrue(() -> ids(first).size() == received);
+        }
+        String latest = ids(first).get(HISTORY_SIZE + 1);
+
+        MvcResult stale = subscribe(oldest);
+        awaitTrue(() -> content(stale).contains("event:resync"));
+        // resync의 ID는 현재 마지막 이벤트 ID, 그 뒤로 이어 받을 수 있음
+        assertThat(ids(stale)).containsExactly(latest);
+        assertThat(content(stale)).doesNotContain("event:deleted");
+    }
+
+    @Test
+    void idFromPreviousServerRunGetsResync() throws Exception {
+        subscribe(null);
+        publishDeleted(1, 2);
+
+        // 재시작 전 서버가 붙인 ID (순번은 범위 안이지만 EPOCH가 다름)
+        MvcResult afterRestart = subscribe("0previous-1");
+        MvcResult malformed = subscribe("no-dash-number");
+        MvcResult future = subscribe(currentEpoch() + "-99");
+
+        for (MvcResult result : List.of(afterRestart, malformed, future)) {
+            awaitTrue(() -> content(result).contains("event:resync"));
+            assertThat(content(result)).doesNotContain("event:deleted");
+        }
+    }
+
+    @Test
+    void overflowingSubscriberGetsOneResyncWithLatestId() throws Exception {
+        QueuedExecutor sender = new QueuedExecutor();
+        ReflectionTestUtils.setField(service, "sender", sender);
+
+        // 전송 작업이 실행되지 않는 동안 버퍼(4)보다 많은 이벤트가 쌓임
+        MvcResult slow = subscribe(null);
+        publishDeleted(1, 2, 3, 4, 5, 6, 7);
+        assertThat(sender.size()).isEqualTo(1);
+        sender.runAll();
+
+        assertThat(content(slow)).doesNotContain("event:deleted", ":ping");
+        assertThat(count(content(slow), "event:resync")).isEqualTo(1);
+        String resyncId = ids(slow).get(0);
+        assertThat(resyncId).endsWith("-7");
+
+        // resync를 보낸 뒤에는 다시 이벤트가 하나씩 전달됨
+        publishDeleted(8);
+        sender.runAll();
+        assertThat(ids(slow)).containsExactly(resyncId, resyncId.replace("-7", "-8"));
+        assertThat(content(slow)).contains("\"itemId\":8");
+    }
+
+    @Test
+    void subscribeRetriesWhenItsChannelIsEvictedConcurrently() throws Exception {
+        // 구독자가 떠나 정리 대상이 된 채널
+        MvcResult left = subscribe(null);
+        left.getRequest().getAsyncContext().complete();
+        awaitTrue(() -> Integer.valueOf(0).equals(service.getStats().get("subscribers")));
+        ReflectionTestUtils.setField(service, "historyRetentionMs", 0L);
+
+        Map<String, Object> channels = channels();
+        Object evicting = channels.get(USER);
+        Thread subscriber;
+        synchronized (evicting) {
+            // 구독이 기존 채널을 찾은 뒤 채널 잠금을 기다리는 동안 정리 작업이 그 채널을 제거
+            subscriber = Thread.ofVirtual().start(() -> service.subscribe(USER, null));
+            awaitTrue(() -> subscriber.getState() == Thread.State.BLOCKED
+                    || subscriber.getState() == Thread.State.WAITING);
+            service.evictIdleChannels();
+            assertThat(channels).doesNotContainKey(USER);
+        }
+        subscriber.join(5_000);
+
+        // 정리된 채널이 아니라 새 채널에 등록됨 → 이후 이벤트를 받을 수 있음
+        assertThat(channels.get(USER)).isNotNull().isNotSameAs(evicting);
+        assertThat(service.getStats()).containsEntry("users", 1).containsEntry("subscribers", 1)
+                .containsEntry("evictedChannels", 1L);
+
+        // 구독자가 있는 채널은 보관 시간이 지나도 정리하지 않음
+        service.evictIdleChannels();
+        assertThat(service.getStats()).containsEntry("users", 1).containsEntry("evictedChannels", 1L);
+    }
+
+    private MvcResult subscribe(String lastEventId) throws Exception {
+        var builder = get("/stream");
+        if (lastEventId != null) builder.header("Last-Event-ID", lastEventId);
+        return mockMvc.perform(builder).andExpect(request().asyncStarted()).andReturn();
+    }
+
+    private void publishDeleted(long... itemIds) {
+        for (long itemId : itemIds) {
+            service.onInventoryChange(InventoryChangeEvent.deleted(USER, itemId));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> channels() {
+        return (Map<String, Object>) ReflectionTestUtils.getField(service, "channels");
+    }
+
+    private static String currentEpoch() {
+        return (String) ReflectionTestUtils.getField(InventoryStreamService.class, "EPOCH");
+    }
+
+    private static String content(MvcResult result) {
+        MockHttpServletResponse response = result.getResponse();
+        try {
+            return response.getContentAsString(StandardCharsets.UTF_8);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static List<String> ids(MvcResult result) {
+        Matcher matcher = EVENT_ID.matcher(content(result));
+        return matcher.results().map(match -> match.group(1)).toList();
+    }
+
+    private static int count(String text, String token) {
+        return text.split(Pattern.quote(token), -1).length - 1;
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("조건을 기다리다 시간 초과").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    @RestController
+    static class StreamController {
+        private final InventoryStreamService service;
+
+        StreamController(InventoryStreamService service) {
+            this.service = service;
+        }
+
+        @GetMapping("/stream")
+        SseEmitter stream(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+            return service.subscribe(USER, lastEventId);
+        }
+    }
+
+    /**
+     * 전송 작업을 바로 실행하지 않고 모아 두었다가 runAll()에서 테스트 스레드로 실행
+     */
+    private static final class QueuedExecutor extends AbstractExecutorService {
+        private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+        @Override
+        public synchronized void execute(Runnable task) {
+            tasks.add(task);
+        }
+
+        synchronized int size() {
+            return tasks.size();
+        }
+
+        void runAll() {
+            Runnable task;
+            while ((task = poll()) != null) task.run();
+        }
+
+        private synchronized Runnable poll() {
+            return tasks.poll();
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return List.of();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return true;
+        }
+    }
+}
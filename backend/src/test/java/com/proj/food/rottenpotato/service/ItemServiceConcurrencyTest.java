@@ -0,0 +1,182 @@
+package com.proj.food.rottenpotato.service;
+
+import com.proj.food.rottenpotato.dto.ClassifiedItemDTO;
+import com.proj.food.rottenpotato.dto.InventoryItemDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 여러 스레드가 같은 사용자들의 재고에 동시에 추가/삭제/조회할 때
+ * 품목이 사라지거나 ID가 겹치지 않는지, 전체 조회와 만료일 구간 조회가 끝까지 일치하는지 확인합니다.
+ */
+class ItemServiceConcurrencyTest {
+
+    private static final List<String> USERS = List.of("guest", "alice", "bob", "carol");
+    private static final LocalDate BASE_DATE = LocalDate.of(2025, 11, 3);
+    private static final int WRITERS = 8;
+    private static final int DELETERS = 4;
+    private static final int READERS = 2;
+    private static final int ROUNDS_PER_WRITER = 500;
+
+    private final InMemoryInventoryStore store = new InMemoryInventoryStore();
+    private final AtomicInteger events = new AtomicInteger();
+    private final ItemService itemService = new ItemService(store, event -> events.incrementAndGet());
+
+    @Test
+    void concurrentWritersAndDeletersKeepEveryItemExactlyOnce() throws Exception {
+        // 추가된 품목 (삭제 스레드가 꺼내 가며, 짝수 ID만 삭제)
+        ConcurrentLinkedQueue<InventoryItemDTO> added = new ConcurrentLinkedQueue<>();
+        Set<Long> allIds = ConcurrentHashMap.newKeySet();
+        Map<String, AtomicInteger> addedPerUser = new ConcurrentHashMap<>();
+        Map<String, AtomicInteger> deletedPerUser = new ConcurrentHashMap<>();
+        Map<String, AtomicInteger> changesPerUser = new ConcurrentHashMap<>();
+        AtomicInteger duplicateIds = new AtomicInteger();
+        AtomicInteger repeatedDeletes = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch writersDone = new CountDownLatch(WRITERS);
+
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS + DELETERS + READERS);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int w = 0; w < WRITERS; w++) {
+            int writer = w;
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    for (int round = 0; round < ROUNDS_PER_WRITER; round++) {
+                        String userId = USERS.get((writer + round) % USERS.size());
+                        // 단건 추가와 영수증 1장 분량의 배치 추가를 섞음, 만료일은 며칠에 몰리도록
+                        List<ClassifiedItemDTO> items = new ArrayList<>();
+                        int count = round % 3 == 0 ? 1 : 3;
+                        for (int i = 0; i < count; i++) {
+                            items.add(new ClassifiedItemDTO("품목" + writer + "-" + round + "-" + i, 1, "기타",
+                                    BASE_DATE.plusDays((round + i) % 5)));
+                        }
+                        List<InventoryItemDTO> saved = count == 1
+                                ? List.of(itemService.addItem(userId, items.get(0)))
+                                : itemService.addItems(userId, items);
+                        for (InventoryItemDTO item : saved) {
+                            if (!allIds.add(item.itemId())) duplicateIds.incrementAndGet();
+                            added.add(item);
+                        }
+                        addedPerUser.computeIfAbsent(userId, id -> new AtomicInteger()).addAndGet(saved.size());
+                        changesPerUser.computeIfAbsent(userId, id -> new AtomicInteger()).incrementAndGet();
+                    }
+                } finally {
+                    writersDone.countDown();
+                }
+                return null;
+            }));
+        }
+
+        Map<Long, String> owners = new ConcurrentHashMap<>();
+        for (int d = 0; d < DELETERS; d++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                while (true) {
+                    InventoryItemDTO item = added.poll();
+                    if (item == null) {
+                        if (writersDone.getCount() == 0 && added.isEmpty()) break;
+                        Thread.onSpinWait();
+                        continue;
+                    }
+                    String userId = ownerOf(item);
+                    owners.put(item.itemId(), userId);
+                    if (item.itemId() % 2 != 0) continue;
+
+                    assertThat(itemService.deleteItem(userId, item.itemId())).isTrue();
+                    // 같은 품목을 다시 지우면 실패해야 함 (이미 삭제된 품목이 다시 세어지지 않도록)
+                    if (itemService.deleteItem(userId, item.itemId())) repeatedDeletes.incrementAndGet();
+                    deletedPerUser.computeIfAbsent(userId, id -> new AtomicInteger()).incrementAndGet();
+                    changesPerUser.computeIfAbsent(userId, id -> new AtomicInteger()).incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        // 조회는 추가/삭제 중에도 예외 없이 스냅샷을 돌려줘야 함
+        for (int r = 0; r < READERS; r++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                while (writersDone.getCount() > 0) {
+                    for (String userId : USERS) {
+                        itemService.getAllItems(userId);
+                        store.findExpiring(userId, BASE_DATE, BASE_DATE.plusDays(2));
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(60, TimeUnit.SECONDS)).as("스트레스 테스트 시간 초과").isTrue();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+
+        assertThat(duplicateIds.get()).as("중복 발급된 품목 ID").isZero();
+        assertThat(repeatedDeletes.get()).as("두 번 삭제된 품목").isZero();
+
+        int totalAdded = 0;
+        for (String userId : USERS) {
+            int addedCount = count(addedPerUser, userId);
+            int remainingCount = addedCount - count(deletedPerUser, userId);
+            totalAdded += addedCount;
+
+            List<InventoryItemDTO> remaining = itemService.getAllItems(userId);
+            Set<Long> expectedIds = owners.entrySet().stream()
+                    .filter(e -> e.getValue().equals(userId) && e.getKey() % 2 != 0)
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toSet());
+
+            assertThat(remaining).as(userId + " 남은 품목 수").hasSize(remainingCount);
+            assertThat(ids(remaining)).as(userId + " 남은 품목 ID").isEqualTo(expectedIds);
+            assertThat(ids(store.findExpiring(userId, BASE_DATE, BASE_DATE.plusDays(4))))
+                    .as(userId + " 만료일 구간 조회").isEqualTo(expectedIds);
+            assertThat(itemService.getVersion(userId)).as(userId + " 재고 버전").isEqualTo(count(changesPerUser, userId));
+        }
+        assertThat(allIds).hasSize(totalAdded);
+        assertThat(owners).hasSize(totalAdded);
+        assertThat(events.get()).as("발행된 변경 이벤트 수")
+                .isEqualTo(changesPerUser.values().stream().mapToInt(AtomicInteger::get).sum());
+    }
+
+    // 품목명 "품목{writer}-{round}-{i}"로 추가한 사용자를 되짚음
+    private static String ownerOf(InventoryItemDTO item) {
+        String[] parts = item.name().substring(2).split("-");
+        int writer = Integer.parseInt(parts[0]);
+        int round = Integer.parseInt(parts[1]);
+        return USERS.get((writer + round) % USERS.size());
+    }
+
+    private static int count(Map<String, AtomicInteger> counts, String userId) {
+        AtomicInteger count = counts.get(userId);
+        return count != null ? count.get() : 0;
+    }
+
+    private static Set<Long> ids(List<InventoryItemDTO> items) {
+        Set<Long> ids = new HashSet<>();
+        for (InventoryItemDTO item : items) {
+            ids.add(item.itemId());
+        }
+        return ids;
+    }
+}
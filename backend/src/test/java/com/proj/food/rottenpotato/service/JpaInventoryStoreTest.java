@@ -0,0 +1,166 @@
+package com.proj.food.rottenpotato.service;
+
+import com.proj.food.rottenpotato.dto.ClassifiedItemDTO;
+import com.proj.food.rottenpotato.dto.InventoryItemDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * H2 위에서 JPA 재고 저장소의 배치 INSERT와 (사용자, 만료일) / (사용자, 카테고리) 조회를 확인합니다.
+ * 실행한 SQL 문 수는 Hibernate 통계로 셉니다. (batch_size 등 JPA 설정은 application.properties 그대로)
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(JpaInventoryStore.class)
+class JpaInventoryStoreTest {
+
+    private static final LocalDate BASE_DATE = LocalDate.of(2025, 11, 3);
+    private static final List<String> CATEGORIES = List.of("육류", "채소", "유제품/계란");
+
+    @Autowired
+    private JpaInventoryStore store;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void saveAllSendsBatchedInserts() {
+        List<ClassifiedItemDTO> items = items("영수증품목", 120);
+
+        statistics.clear();
+        List<InventoryItemDTO> saved = store.saveAll("alice", items);
+        entityManager.flush();
+
+        assertThat(saved).hasSize(120);
+        assertThat(saved).extracting(InventoryItemDTO::itemId).doesNotHaveDuplicates().doesNotContainNull();
+        assertThat(saved).extracting(InventoryItemDTO::name)
+                .containsExactlyElementsOf(items.stream().map(ClassifiedItemDTO::name).toList());
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(120);
+        // 행마다 INSERT 1번이 아니라 batch_size(50)개씩 묶은 배치 3번 + 시퀀스 조회(50개 단위 할당) 몇 번
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(10);
+
+        entityManager.clear();
+        assertThat(store.findAll("alice")).hasSize(120);
+    }
+
+    @Test
+    void queryByUserAndExpireDate() {
+        store.saveAll("alice", items("앨리스", 30));
+        store.saveAll("bob", items("밥", 30));
+        entityManager.flush();
+        entityManager.clear();
+
+        InventoryQuery firstPage = new InventoryQuery(null, BASE_DATE.plusDays(2), BASE_DATE.plusDays(5),
+                true, false, null, null, 8);
+
+        statistics.clear();
+        List<InventoryItemDTO> page1 = store.query("alice", firstPage);
+        // 목록 조회는 SELECT 1번 (전체 개수 count 쿼리 없음)
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        List<InventoryItemDTO> page2 = store.query("alice", firstPage.withCursor(firstPage.cursorAfter(page1.get(page1.size() - 1))));
+        List<InventoryItemDTO> all = new ArrayList<>(page1);
+        all.addAll(page2);
+
+        // 30개 중 만료일이 +2~+5일인 품목은 12개: 8개 + 4개, (만료일, ID) 순, 다른 사용자 품목 없음
+        assertThat(page1).hasSize(8);
+        assertThat(page2).hasSize(4);
+        assertThat(all).allSatisfy(item -> {
+            assertThat(item.name()).startsWith("앨리스");
+            assertThat(item.expireDate()).isBetween(BASE_DATE.plusDays(2), BASE_DATE.plusDays(5));
+        });
+        assertThat(all).isSortedAccordingTo((a, b) -> a.expireDate().equals(b.expireDate())
+                ? Long.compare(a.itemId(), b.itemId())
+                : a.expireDate().compareTo(b.expireDate()));
+        assertThat(all).extracting(InventoryItemDTO::itemId).doesNotHaveDuplicates();
+
+        assertThat(explain("SELECT id FROM inventory_item WHERE user_id = 'alice' AND expire_date BETWEEN '2025-11-05' AND '2025-11-08' ORDER BY expire_date, id"))
+                .containsIgnoringCase("idx_inventory_user_expire");
+    }
+
+    @Test
+    void findExpiringByUserReadsOnlyTheRange() {
+        store.saveAll("alice", items("앨리스", 30));
+        store.saveAll("bob", items("밥", 30));
+        store.saveAll("carol", List.of(new ClassifiedItemDTO("캐롤", 1, "채소", BASE_DATE.plusDays(20))));
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics.clear();
+        Map<String, List<InventoryItemDTO>> expiring = store.findExpiringByUser(BASE_DATE, BASE_DATE.plusDays(1));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        // 사용자마다 30개 중 만료일이 +0~+1일인 품목 6개, 구간 밖 품목만 있는 사용자는 빠짐
+        assertThat(expiring).containsOnlyKeys("alice", "bob");
+        assertThat(expiring.get("alice")).hasSize(6).allSatisfy(item -> assertThat(item.name()).startsWith("앨리스"));
+        assertThat(expiring.get("bob")).hasSize(6);
+        assertThat(expiring.get("alice")).isEqualTo(store.findExpiring("alice", BASE_DATE, BASE_DATE.plusDays(1)));
+
+        assertThat(explain("SELECT id FROM inventory_item WHERE expire_date BETWEEN '2025-11-03' AND '2025-11-04'"))
+                .containsIgnoringCase("idx_inventory_expire");
+    }
+
+    @Test
+    void queryByUserAndCategory() {
+        store.saveAll("alice", items("앨리스", 30));
+        store.saveAll("bob", items("밥", 30));
+        entityManager.flush();
+        entityManager.clear();
+
+        InventoryQuery query = new InventoryQuery("채소", null, null, false, true, null, null, 100);
+
+        statistics.clear();
+        List<InventoryItemDTO> vegetables = store.query("alice", query);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        assertThat(vegetables).hasSize(10);
+        assertThat(vegetables).allSatisfy(item -> {
+            assertThat(item.name()).startsWith("앨리스");
+            assertThat(item.category()).isEqualTo("채소");
+        });
+        assertThat(vegetables).extracting(InventoryItemDTO::itemId).isSortedAccordingTo((a, b) -> Long.compare(b, a));
+
+        assertThat(explain("SELECT id FROM inventory_item WHERE user_id = 'alice' AND category = '채소' ORDER BY id DESC"))
+                .containsIgnoringCase("idx_inventory_user_category");
+    }
+
+    // i번째 품목: 카테고리는 3개를 돌아가며, 만료일은 기준일 + (i % 10)일
+    private static List<ClassifiedItemDTO> items(String prefix, int count) {
+        List<ClassifiedItemDTO> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(new ClassifiedItemDTO(prefix + i, 1, CATEGORIES.get(i % CATEGORIES.size()), BASE_DATE.plusDays(i % 10)));
+        }
+        return items;
+    }
+
+    private String explain(String sql) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+    }
+}
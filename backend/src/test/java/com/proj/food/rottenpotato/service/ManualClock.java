@@ -0,0 +1,34 @@
+package com.proj.food.rottenpotato.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * 테스트에서 직접 움직이는 시계 (2025-11-03T00:00:00Z에서 시작)
+ */
+final class ManualClock extends Clock {
+
+    private volatile Instant now = Instant.parse("2025-11-03T00:00:00Z");
+
+    void advance(Duration duration) {
+        now = now.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return this;
+    }
+
+    @Override
+    public Instant instant() {
+        return now;
+    }
+}
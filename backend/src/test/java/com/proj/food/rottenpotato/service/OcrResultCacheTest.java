@@ -0,0 +1,139 @@
+package com.proj.food.rottenpotato.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * OCR 결과 캐시: 메모리 LRU의 문자 수 제한, 디스크 저장/재시작 후 로드, 디스크 정리
+ */
+class OcrResultCacheTest {
+
+    private static final LocalDate RECEIPT_DATE = LocalDate.of(2025, 11, 3);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void memoryEvictsLeastRecentlyUsedOverCharBudget() throws IOException {
+        OcrResultCache cache = cache(10, "", 0, 0);
+        cache.put("a", ocr("aaaa", null));
+        cache.put("b", ocr("bbbb", null));
+        // a를 최근에 사용했으므로 c가 들어오면 b가 밀려남
+        assertThat(cache.get("a")).containsEntry("text", "aaaa");
+        cache.put("c", ocr("cccc", null));
+
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.get("a")).containsEntry("text", "aaaa");
+        assertThat(cache.get("c")).containsEntry("text", "cccc");
+        assertThat(cache.getStats()).containsEntry("memoryEntries", 2).containsEntry("memoryChars", 8L);
+
+        // 한 건이 전체 용량보다 크면 메모리에 올리지 않고 기존 항목도 그대로
+        cache.put("big", ocr("x".repeat(11), null));
+        assertThat(cache.get("big")).isNull();
+        assertThat(cache.getStats()).containsEntry("memoryEntries", 2).containsEntry("memoryChars", 8L);
+    }
+
+    @Test
+    void errorsAndBlankTextAreNotCached() throws IOException {
+        OcrResultCache cache = cache(100, "", 0, 0);
+        cache.put("error", Map.of("text", "부분", "error", "VISION_FAILED"));
+        cache.put("blank", Map.of("text", "  "));
+
+        assertThat(cache.get("error")).isNull();
+        assertThat(cache.get("blank")).isNull();
+        assertThat(cache.getStats()).containsEntry("memoryEntries", 0).containsEntry("misses", 2L);
+    }
+
+    @Test
+    void diskRoundTripKeepsTextAndDate() throws IOException {
+        String dir = tempDir.toString();
+        OcrResultCache writer = cache(100, dir, 0, 0);
+        writer.put("dated", ocr("우유 2,500\n두부 1,800", RECEIPT_DATE));
+        writer.put("undated", ocr("양파 3,000", null));
+
+        // 재시작: 메모리는 비었고 디스크에서 읽음
+        OcrResultCache reader = cache(100, dir, 0, 0);
+        assertThat(reader.get("dated"))
+                .isEqualTo(Map.of("text", "우유 2,500\n두부 1,800", "receiptDate", RECEIPT_DATE));
+        // 날짜를 찾지 못한 영수증은 날짜 없이 (처리한 날짜로 채우지 않음)
+        assertThat(reader.get("undated")).isEqualTo(Map.of("text", "양파 3,000"));
+        assertThat(reader.get("missing")).isNull();
+        assertThat(reader.getStats()).containsEntry("diskHits", 2L).containsEntry("misses", 1L);
+
+        // 디스크에서 읽은 항목은 메모리에 올라감
+        assertThat(reader.get("dated")).containsEntry("receiptDate", RECEIPT_DATE);
+        assertThat(reader.getStats()).containsEntry("memoryHits", 1L).containsEntry("diskHits", 2L);
+    }
+
+    @Test
+    void cleanupRemovesStaleFilesThenOldestOverMaxEntries() throws IOException {
+        OcrResultCache cache = cache(100, tempDir.toString(), 2, 30);
+        for (String key : new String[]{"stale", "old", "recent", "newest"}) {
+            cache.put(key, ocr(key, null));
+        }
+        Files.writeString(tempDir.resolve("left.tmp"), "반쯤 쓰인 파일");
+        long now = System.currentTimeMillis();
+        touch("stale.txt", now - TimeUnit.DAYS.toMillis(31));
+        touch("left.tmp", now - TimeUnit.DAYS.toMillis(31));
+        touch("old.txt", now - TimeUnit.HOURS.toMillis(3));
+        touch("recent.txt", now - TimeUnit.HOURS.toMillis(2));
+        touch("newest.txt", now - TimeUnit.HOURS.toMillis(1));
+
+        cache.cleanupDisk();
+
+        // 보관 기간이 지난 파일(임시 파일 포함)을 지운 뒤, 3개 중 가장 오래 쓰이지 않은 1개를 지움
+        try (var files = Files.list(tempDir)) {
+            assertThat(files.map(file -> file.getFileName().toString()))
+                    .containsExactlyInAnyOrder("recent.txt", "newest.txt");
+        }
+        assertThat(cache.getStats()).containsEntry("diskEvicted", 2L);
+    }
+
+    @Test
+    void diskReadRefreshesLastUsed() throws IOException {
+        OcrResultCache writer = cache(100, tempDir.toString(), 1, 0);
+        writer.put("first", ocr("first", null));
+        writer.put("second", ocr("second", null));
+        long now = System.currentTimeMillis();
+        touch("first.txt", now - TimeUnit.HOURS.toMillis(2));
+        touch("second.txt", now - TimeUnit.HOURS.toMillis(1));
+
+        // 새 인스턴스에서 first를 디스크로 읽으면 first가 최근 사용 파일이 됨
+        OcrResultCache reader = cache(100, tempDir.toString(), 1, 0);
+        assertThat(reader.get("first")).containsEntry("text", "first");
+        reader.cleanupDisk();
+
+        assertThat(tempDir.resolve("first.txt")).exists();
+        assertThat(tempDir.resolve("second.txt")).doesNotExist();
+    }
+
+    private void touch(String fileName, long millis) throws IOException {
+        Files.setLastModifiedTime(tempDir.resolve(fileName), FileTime.fromMillis(millis));
+    }
+
+    private static OcrResultCache cache(long maxChars, String dir, int maxDiskEntries, int maxDiskAgeDays)
+            throws IOException {
+        OcrResultCache cache = new OcrResultCache();
+        ReflectionTestUtils.setField(cache, "maxChars", maxChars);
+        ReflectionTestUtils.setField(cache, "cacheDir", dir);
+        ReflectionTestUtils.setField(cache, "maxDiskEntries", maxDiskEntries);
+        ReflectionTestUtils.setField(cache, "maxDiskAgeDays", maxDiskAgeDays);
+        cache.init();
+        return cache;
+    }
+
+    private static Map<String, Object> ocr(String text, LocalDate receiptDate) {
+        return receiptDate != null ? Map.of("text", text, "receiptDate", receiptDate) : Map.of("text", text);
+    }
+}
@@ -0,0 +1,83 @@
+package com.proj.food.rottenpotato.service;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 테스트용 영수증 파일(*.receipt) 읽기
+ * "=== ocr" 줄 다음부터 "=== expected" 줄 전까지는 OCR 텍스트 원문(줄 끝 포함),
+ * 그 뒤는 "|"로 구분한 기대 결과 한 줄씩입니다. ("#" 주석과 빈 줄은 건너뜀)
+ */
+final class ReceiptCorpus {
+
+    private static final String OCR_MARKER = "=== ocr";
+    private static final String EXPECTED_MARKER = "=== expected";
+
+    record Case(String name, String ocrText, List<List<String>> expected) {
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    private ReceiptCorpus() {
+    }
+
+    /**
+     * @param location 클래스패스 디렉터리 (예: "receipts")
+     */
+    static List<Case> load(String location) {
+        try {
+            Resource[] resources = new PathMatchingResourcePatternResolver()
+                    .getResources("classpath:" + location + "/*.receipt");
+            List<Case> cases = new ArrayList<>();
+            for (Resource resource : resources) {
+                cases.add(parse(resource.getFilename(), resource.getContentAsString(StandardCharsets.UTF_8)));
+            }
+            cases.sort(Comparator.comparing(Case::name));
+            if (cases.isEmpty()) {
+                throw new IllegalStateException("영수증 파일이 없습니다: " + location);
+            }
+            return cases;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static Case parse(String name, String content) {
+        StringBuilder ocr = null;
+        List<List<String>> expected = null;
+
+        int pos = 0;
+        while (pos < content.length()) {
+            int newline = content.indexOf('\n', pos);
+            int next = newline < 0 ? content.length() : newline + 1;
+            String raw = content.substring(pos, next);
+            String line = raw.strip();
+            pos = next;
+
+            if (line.equals(OCR_MARKER)) {
+                ocr = new StringBuilder();
+            } else if (line.equals(EXPECTED_MARKER)) {
+                expected = new ArrayList<>();
+            } else if (expected != null) {
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                expected.add(Arrays.stream(line.split("\\|")).map(String::strip).toList());
+            } else if (ocr != null) {
+                ocr.append(raw);
+            }
+        }
+        if (ocr == null || expected == null) {
+            throw new IllegalArgumentException(name + ": '" + OCR_MARKER + "'와 '" + EXPECTED_MARKER + "' 구역이 모두 필요합니다.");
+        }
+        return new Case(name, ocr.toString(), expected);
+    }
+}
@@ -0,0 +1,162 @@
+package com.proj.food.rottenpotato.service;
+
+import com.proj.food.rottenpotato.dto.ParsedItemDTO;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 영수증 파싱 리플레이 벤치마크 (./gradlew receiptBenchmark, check에 포함)
+ * src/test/resources/receipts/*.receipt 코퍼스를 파싱 → 중복 병합 → 비식품 판별/분류 순서로
+ * 여러 스레드에서 반복 처리하고 정확도, 처리량(품목/s), 영수증 1장 지연 시간 분포(p50/p95/p99)를 출력합니다.
+ * 정확도는 (품목명, 수량, 가격, 카테고리)가 모두 맞은 품목 기준 F1 = 2 × 일치 / (기대 품목 + 추출 품목) 입니다.
+ * 정확도나 처리량이 기준 아래로 떨어지면 실패합니다.
+ * (현재 정확도는 약 0.68: 합계 줄 직전 품목을 두 번 저장해 수량이 두 배가 되는 이전 파서 동작이
+ *  그대로 남아 있기 때문이며, 이 동작을 고치면 기준을 함께 올립니다.)
+ *
+ * 설정 (-P 또는 -D, 모두 선택):
+ *   receipt.bench.threads            동시 처리 스레드 수 (기본 CPU 코어 수)
+ *   receipt.bench.rounds             측정할 코퍼스 반복 횟수 (기본 500)
+ *   receipt.bench.warmup-rounds      워밍업 반복 횟수, 측정에서 제외 (기본 200)
+ *   receipt.bench.min-accuracy       최소 정확도 (기본 0.65)
+ *   receipt.bench.min-items-per-sec  최소 처리량 (기본 20000)
+ */
+@Tag("benchmark")
+class ReceiptPipelineBenchmarkTest {
+
+    private static final LocalDate RECEIPT_DATE = LocalDate.of(2025, 11, 3);
+    private static final String NON_FOOD = "비식품";
+
+    private final ReceiptTextParser parser = new ReceiptTextParser();
+    private final FoodClassifierService classifier = new FoodClassifierService();
+
+    @Test
+    void replayCorpus() throws Exception {
+        int threads = Integer.getInteger("receipt.bench.threads", Runtime.getRuntime().availableProcessors());
+        int rounds = Integer.getInteger("receipt.bench.rounds", 500);
+        int warmupRounds = Integer.getInteger("receipt.bench.warmup-rounds", 200);
+        // 기본 0.65는 현재 측정값 0.682 바로 아래: 합계 줄 직전 품목을 두 번 저장하는 파서 버그(수량 두 배)만큼
+        // 정확도가 깎여 있음. 그 버그를 고치면 이 기준도 올림
+        double minAccuracy = Double.parseDouble(System.getProperty("receipt.bench.min-accuracy", "0.65"));
+        double minItemsPerSec = Double.parseDouble(System.getProperty("receipt.bench.min-items-per-sec", "20000"));
+
+        // application.properties와 같은 분류 설정
+        ReflectionTestUtils.setField(classifier, "fuzzyMinScore", 0.6);
+        ReflectionTestUtils.setField(classifier, "fuzzyCacheSize", 1024);
+
+        List<ReceiptCorpus.Case> corpus = ReceiptCorpus.load("receipts");
+
+        // 1. 정확도 (한 번 처리한 결과를 기대값과 비교)
+        Map<String, List<List<String>>> reference = new HashMap<>();
+        int expectedItems = 0;
+        int extractedItems = 0;
+        int matchedItems = 0;
+        for (ReceiptCorpus.Case receipt : corpus) {
+            List<List<String>> actual = process(receipt);
+            reference.put(receipt.name(), actual);
+
+            List<List<String>> missing = new ArrayList<>(receipt.expected());
+            List<List<String>> unexpected = new ArrayList<>();
+            for (List<String> row : actual) {
+                if (!missing.remove(row)) unexpected.add(row);
+            }
+            expectedItems += receipt.expected().size();
+            extractedItems += actual.size();
+            matchedItems += actual.size() - unexpected.size();
+            if (!missing.isEmpty() || !unexpected.isEmpty()) {
+                System.out.println("--- [BENCH] " + receipt.name() + " 불일치 | 누락 " + missing + " | 오검출 " + unexpected);
+            }
+        }
+        double accuracy = 2.0 * matchedItems / (expectedItems + extractedItems);
+
+        // 2. 처리량/지연 시간 (여러 스레드에서 같은 결과가 나오는지도 함께 확인)
+        Result result;
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            run(executor, corpus, warmupRounds, reference);
+            result = run(executor, corpus, rounds, reference);
+        }
+        long[] sorted = result.latencies().clone();
+        Arrays.sort(sorted);
+        double itemsPerSec = result.items() / (result.elapsedNanos() / 1e9);
+
+        System.out.printf("영수증 %d장 (기대 품목 %d개) | 정확도 %.3f (일치 %d, 추출 %d)%n",
+                corpus.size(), expectedItems, accuracy, matchedItems, extractedItems);
+        System.out.printf("스레드 %d, 영수증 %d장 처리 %.2fs | %.0f 품목/s | p50 %.1fµs  p95 %.1fµs  p99 %.1fµs  max %.1fµs%n",
+                threads, sorted.length, result.elapsedNanos() / 1e9, itemsPerSec,
+                percentile(sorted, 50), percentile(sorted, 95), percentile(sorted, 99),
+                sorted.length > 0 ? sorted[sorted.length - 1] / 1e3 : 0);
+
+        assertThat(result.inconsistent()).as("스레드 간 결과가 다른 영수증 수").isZero();
+        assertThat(accuracy).as("정확도 (receipt.bench.min-accuracy)").isGreaterThanOrEqualTo(minAccuracy);
+        assertThat(itemsPerSec).as("처리량 품목/s (receipt.bench.min-items-per-sec)").isGreaterThanOrEqualTo(minItemsPerSec);
+    }
+
+    /**
+     * 영수증 1장을 업로드 파이프라인과 같은 순서로 처리합니다. (저장 단계 제외)
+     * 행 형식: 품목명, 수량, 가격, 카테고리(비식품이면 "비식품")
+     */
+    private List<List<String>> process(ReceiptCorpus.Case receipt) {
+        List<ParsedItemDTO> parsed = parser.parseReceipt(receipt.ocrText());
+        List<List<String>> rows = new ArrayList<>();
+        for (ParsedItemDTO item : ReceiptIngestionService.mergeDuplicates(parsed)) {
+            ProductMatch match = classifier.lookup(item.name());
+            String category = match.nonFood()
+                    ? NON_FOOD
+                    : classifier.classifyItem(item.name(), item.quantity(), RECEIPT_DATE, match).category();
+            rows.add(List.of(item.name(), String.valueOf(item.quantity()), String.valueOf(item.price()), category));
+        }
+        return rows;
+    }
+
+    private record Result(long[] latencies, long items, long elapsedNanos, int inconsistent) {
+    }
+
+    private Result run(ExecutorService executor, List<ReceiptCorpus.Case> corpus, int rounds,
+                       Map<String, List<List<String>>> reference) throws Exception {
+        int count = rounds * corpus.size();
+        long[] latencies = new long[count];
+        List<Callable<List<List<String>>>> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ReceiptCorpus.Case receipt = corpus.get(i % corpus.size());
+            int index = i;
+            tasks.add(() -> {
+                long start = System.nanoTime();
+                List<List<String>> rows = process(receipt);
+                latencies[index] = System.nanoTime() - start;
+                return rows;
+            });
+        }
+
+        long start = System.nanoTime();
+        List<Future<List<List<String>>>> futures = executor.invokeAll(tasks);
+        long elapsedNanos = System.nanoTime() - start;
+
+        long items = 0;
+        int inconsistent = 0;
+        for (int i = 0; i < count; i++) {
+            List<List<String>> rows = futures.get(i).get();
+            items += rows.size();
+            if (!rows.equals(reference.get(corpus.get(i % corpus.size()).name()))) inconsistent++;
+        }
+        return new Result(latencies, items, elapsedNanos, inconsistent);
+    }
+
+    private static double percentile(long[] sorted, int percentile) {
+        if (sorted.length == 0) return 0;
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1e3;
+    }
+}
@@ -0,0 +1,52 @@
+package com.proj.food.rottenpotato.service;
+
+import com.proj.food.rottenpotato.dto.ParsedItemDTO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 단일 패스 스캐너로 바꾼 파서가 정규식 기반 이전 파서와 같은 결과를 내는지 확인합니다.
+ * 기대값은 src/test/resources/parser-golden/*.receipt (이전 파서의 출력, 병합 전 순서/중복 그대로)
+ */
+class ReceiptTextParserGoldenTest {
+
+    private final ReceiptTextParser parser = new ReceiptTextParser();
+
+    static List<ReceiptCorpus.Case> goldenCases() {
+        return ReceiptCorpus.load("parser-golden");
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("goldenCases")
+    void matchesPreviousParser(ReceiptCorpus.Case golden) {
+        List<List<String>> actual = parser.parseReceipt(golden.ocrText()).stream()
+                .map(ReceiptTextParserGoldenTest::row)
+                .toList();
+
+        assertThat(actual).as(golden.name()).isEqualTo(golden.expected());
+    }
+
+    @Test
+    void emptyTextHasNoItems() {
+        assertThat(parser.parseReceipt(null)).isEmpty();
+        assertThat(parser.parseReceipt("")).isEmpty();
+        assertThat(parser.parseReceipt(" \n\r\n ")).isEmpty();
+    }
+
+    @Test
+    void acceptsAnyCharSequence() {
+        String text = "001 서울우유\n2\n2,990\n";
+
+        assertThat(parser.parseReceipt(new StringBuilder(text)))
+                .containsExactly(new ParsedItemDTO("서울우유", 2, 2990));
+    }
+
+    private static List<String> row(ParsedItemDTO item) {
+        return List.of(item.name(), String.valueOf(item.quantity()), String.valueOf(item.price()));
+    }
+}
@@ -0,0 +1,236 @@
+package com.proj.food.rottenpotato.service;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.proj.food.rottenpotato.dto.RecipeDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 레시피 크롤러를 로컬 fixture 서버에 붙여 확인합니다.
+ * - 같은 재료 조합의 동시 요청은 크롤링 1번을 나눠 가지고, 검색어는 먼저 온 요청의 재료 순서를 따름
+ * - 전체 제한 시간 안에 끝나지 못했거나 실패한 상세 페이지는 그 레시피만 error로 표시하고 나머지는 그대로 반환
+ * - 갱신 시간이 지난 캐시 항목은 기존 값을 바로 주고 백그라운드에서 다시 가져옴
+ */
+class RecipeCrawlerServiceTest {
+
+    @TempDir
+    Path fixtureDir;
+
+    private RecipeFixtureServer server;
+    private RecipeCrawlerService crawler;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new RecipeFixtureServer(0, fixtureDir).start();
+        server.detailSteps = 20;
+        crawler = crawler(server.baseUrl());
+    }
+
+    @AfterEach
+    void tearDown() {
+        crawler.shutdown();
+        server.close();
+    }
+
+    @Test
+    void concurrentSameIngredientSetsShareOneCrawlInLeaderOrder() throws Exception {
+        // 목록/상세 응답을 늦춰 크롤링이 끝나기 전에 나머지 요청이 들어오게 함
+        server.latencyMs = 500;
+        ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            Future<List<RecipeDTO>> leader = callers.submit(() -> crawler.crawlRecipesFor(List.of("양파", "계란")));
+            awaitTrue(() -> Integer.valueOf(1).equals(singleFlight().get("inFlight")));
+
+            // 순서, 대소문자/공백, 중복만 다른 같은 재료 조합
+            List<Future<List<RecipeDTO>>> followers = new ArrayList<>();
+            for (List<String> ingredients : List.of(List.of("계란", "양파"), List.of(" 계란 ", "양파", "양파"), List.of("양파", "계란"))) {
+                followers.add(callers.submit(() -> crawler.crawlRecipesFor(ingredients)));
+            }
+
+            List<RecipeDTO> first = leader.get(10, TimeUnit.SECONDS);
+            assertThat(first).hasSize(5).allSatisfy(recipe -> assertThat(recipe.getIngredients()).isNotEmpty());
+            for (Future<List<RecipeDTO>> follower : followers) {
+                List<RecipeDTO> shared = follower.get(10, TimeUnit.SECONDS);
+                assertThat(shared).extracting(RecipeDTO::getUrl)
+                        .containsExactlyElementsOf(first.stream().map(RecipeDTO::getUrl).toList());
+                // 결과는 호출자별 복사본
+                assertThat(shared.get(0)).isNotSameAs(first.get(0));
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        // 검색 페이지는 먼저 온 요청의 순서("양파 계란")로 1번만, 상세 페이지는 레시피당 1번
+        assertThat(server.searchedKeywords()).containsExactly("양파 계란");
+        assertThat(server.requests()).isEqualTo(1 + 5);
+        assertThat(singleFlight()).containsEntry("inFlight", 0).containsEntry("started", 1L).containsEntry("coalesced", 3L);
+    }
+
+    @Test
+    void slowAndFailingDetailPagesComeBackAsPartialResults() throws Exception {
+        // 같은 검색 결과의 레시피 ID를 별도 크롤러로 미리 확인
+        RecipeCrawlerService probe = crawler(server.baseUrl(), 5000L);
+        List<RecipeDTO> listed;
+        try {
+            listed = probe.crawlRecipeDetails("두부 대파", 5);
+        } finally {
+            probe.shutdown();
+        }
+        assertThat(listed).hasSize(5);
+        long failingId = listed.get(1).getRecipeId();
+        long slowId = listed.get(3).getRecipeId();
+        server.failingRecipes.add(failingId);
+        server.slowRecipes.add(slowId);
+        server.slowRecipeDelayMs = 3000;
+
+        RecipeCrawlerService bounded = crawler(server.baseUrl(), 800L);
+        try {
+            long start = System.nanoTime();
+            List<RecipeDTO> recipes = bounded.crawlRecipeDetails("두부 대파", 5);
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            // 느린 레시피를 기다리지 않고 제한 시간(0.8초) 무렵에 검색 결과 순서대로 반환
+            assertThat(elapsedMs).isLessThan(2000);
+            assertThat(recipes).extracting(RecipeDTO::getUrl)
+                    .containsExactlyElementsOf(listed.stream().map(RecipeDTO::getUrl).toList());
+            for (int i = 0; i < recipes.size(); i++) {
+                RecipeDTO recipe = recipes.get(i);
+                if (i == 1) {
+                    assertThat(recipe.getError()).startsWith("상세 페이지 오류").contains("HTTP 500");
+                    assertThat(recipe.getIngredients()).isEmpty();
+                } else if (i == 3) {
+                    assertThat(recipe.getError()).isEqualTo("제한 시간 초과");
+                    assertThat(recipe.getIngredients()).isEmpty();
+                } else {
+                    assertThat(recipe.getError()).isNull();
+                    assertThat(recipe.getIngredients()).isEqualTo(listed.get(i).getIngredients());
+                }
+            }
+
+            // 실패한 상세 페이지는 캐시하지 않으므로, 서버가 회복되면 그 2건만 다시 요청
+            // (시간 초과로 먼저 반환한 로드가 실패로 끝나 캐시에서 빠질 때까지 기다림, 진행 중이면 다음 요청도 그 로드를 기다림)
+            awaitTrue(() -> Long.valueOf(2).equals(cacheStats(bounded, "detail").get("loadFailures")));
+            server.failingRecipes.clear();
+            server.slowRecipes.clear();
+            long before = server.requests();
+            List<RecipeDTO> recovered = bounded.crawlRecipeDetails("두부 대파", 5);
+            assertThat(recovered).allSatisfy(recipe -> assertThat(recipe.getError()).isNull());
+            assertThat(server.requests() - before).isEqualTo(2);
+        } finally {
+            bounded.shutdown();
+        }
+    }
+
+    @Test
+    void refreshAfterWriteServesStaleValueThenRefreshedOne() throws Exception {
+        AtomicLong nanos = new AtomicLong();
+        RecipeCrawlerService cached = crawler(server.baseUrl(), 5000L, nanos::get);
+        try {
+            List<RecipeDTO> first = cached.crawlRecipeDetails("양파", 2);
+            assertThat(first).hasSize(2).allSatisfy(recipe -> assertThat(recipe.getError()).isNull());
+            RecipeDTO kept = first.get(0);
+
+            // 사이트 내용이 바뀜: 검색 결과는 첫 번째 레시피만, 그 레시피의 재료는 "새재료"
+            Files.createDirectories(fixtureDir.resolve("list"));
+            Files.writeString(fixtureDir.resolve("list/" + URLEncoder.encode("양파", StandardCharsets.UTF_8) + "-1.html"),
+                    "<html><body><ul class=\"common_sp_list_ul\"><li><div class=\"common_sp_thumb\"><a href=\"/recipe/"
+                            + kept.getRecipeId() + "\" class=\"common_sp_link\"><img src=\"/img/1.jpg\"></a></div>"
+                            + "<div class=\"common_sp_caption_tit\">" + kept.getTitle() + "</div></li></ul></body></html>");
+            Files.createDirectories(fixtureDir.resolve("recipe"));
+            Files.writeString(fixtureDir.resolve("recipe/" + kept.getRecipeId() + ".html"),
+                    "<html><body><div id=\"divConfirmedMaterialArea\"><ul><li><a href=\"#\">새재료(1개)</a></li></ul></div></body></html>");
+
+            // 1. 만료 전이면 요청 없이 캐시에서
+            long before = server.requests();
+            assertThat(cached.crawlRecipeDetails("양파", 2)).isEqualTo(first);
+            assertThat(server.requests()).isEqualTo(before);
+
+            // 2. 갱신 시간(30분)이 지나면 기존 값을 바로 반환하고, 검색 1건 + 상세 2건을 백그라운드에서 다시 가져옴
+            nanos.addAndGet(TimeUnit.MINUTES.toNanos(31));
+            assertThat(cached.crawlRecipeDetails("양파", 2)).isEqualTo(first);
+            awaitTrue(() -> server.requests() - before == 3);
+
+            // 3. 갱신이 끝나면 새 검색 결과와 새 재료 목록
+            awaitTrue(() -> cached.crawlRecipeDetails("양파", 2).equals(List.of(withIngredients(kept, List.of("새재료")))));
+            assertThat(server.requests() - before).isEqualTo(3);
+            assertThat(cacheStats(cached, "search")).containsEntry("loadFailures", 0L);
+        } finally {
+            cached.shutdown();
+        }
+    }
+
+    private static RecipeDTO withIngredients(RecipeDTO recipe, List<String> ingredients) {
+        RecipeDTO copy = new RecipeDTO();
+        copy.setRecipeId(recipe.getRecipeId());
+        copy.setTitle(recipe.getTitle());
+        copy.setUrl(recipe.getUrl());
+        copy.setImgUrl(recipe.getImgUrl());
+        copy.setIngredients(ingredients);
+        return copy;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> singleFlight() {
+        return (Map<String, Object>) crawler.getCacheStats().get("singleFlight");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> cacheStats(RecipeCrawlerService crawler, String cache) {
+        return (Map<String, Object>) crawler.getCacheStats().get(cache);
+    }
+
+    private static RecipeCrawlerService crawler(String baseUrl) {
+        return crawler(baseUrl, 5000L);
+    }
+
+    private static RecipeCrawlerService crawler(String baseUrl, long deadlineMs) {
+        return crawler(baseUrl, deadlineMs, Ticker.systemTicker());
+    }
+
+    private static RecipeCrawlerService crawler(String baseUrl, long deadlineMs, Ticker ticker) {
+        RecipeCrawlerService crawler = new RecipeCrawlerService();
+        crawler.ticker = ticker;
+        ReflectionTestUtils.setField(crawler, "baseUrl", baseUrl);
+        ReflectionTestUtils.setField(crawler, "searchTimeoutMs", 3000);
+        ReflectionTestUtils.setField(crawler, "detailTimeoutMs", 3000);
+        ReflectionTestUtils.setField(crawler, "perHostConcurrency", 8);
+        ReflectionTestUtils.setField(crawler, "deadlineMs", deadlineMs);
+        ReflectionTestUtils.setField(crawler, "searchCacheSize", 100L);
+        ReflectionTestUtils.setField(crawler, "searchCacheTtlMinutes", 60L);
+        ReflectionTestUtils.setField(crawler, "searchCacheRefreshMinutes", 30L);
+        ReflectionTestUtils.setField(crawler, "detailCacheSize", 100L);
+        ReflectionTestUtils.setField(crawler, "detailCacheTtlMinutes", 60L);
+        ReflectionTestUtils.setField(crawler, "detailCacheRefreshMinutes", 30L);
+        ReflectionTestUtils.setField(crawler, "streamingParse", true);
+        ReflectionTestUtils.setField(crawler, "drainMaxBytes", 32768L);
+        crawler.init();
+        return crawler;
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("조건을 기다리다 시간 초과").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.proj.food.rottenpotato.service;
+
+import com.proj.food.rottenpotato.dto.ClassifiedItemDTO;
+import com.proj.food.rottenpotato.dto.RecipeDTO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 레시피 역색인: 상위 K개 검색이 기존 정렬 방식(ItemController에서 레시피마다 점수를 매겨 전체 정렬)과 같은지,
+ * 최대 개수를 넘을 때 먼저 수집한 레시피부터 지우는 동작
+ */
+class RecipeIndexTest {
+
+    // 고정 말뭉치: 동점, 메인 재료를 포함하는 재료("돼지고기앞다리살"), 점수 0인 레시피가 섞여 있음
+    private static final List<List<String>> CORPUS = List.of(
+            List.of("돼지고기", "양파", "대파"),
+            List.of("돼지고기앞다리살", "양파"),
+            List.of("양파", "대파", "마늘"),
+            List.of("두부", "대파"),
+            List.of("계란", "우유", "밀가루"),
+            List.of("양파", "마늘"),
+            List.of("돼지고기", "김치", "두부"),
+            List.of("감자", "당근"),
+            List.of("대파", "양파"),
+            List.of("Bacon", "양파"),
+            List.of("돼지고기목살", "마늘", "대파"),
+            List.of("밀가루", "우유"));
+
+    private static final List<List<String>> QUERIES = List.of(
+            List.of("돼지고기", "양파"),
+            List.of("양파", "대파", "마늘"),
+            List.of("대파", "두부"),
+            List.of("bacon", "양파"),
+            List.of("밀가루", "계란", "우유"),
+            List.of("마늘"),
+            List.of("없는재료", "감자"),
+            List.of("없는재료"));
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void evictsOldestDownToNinetyPercentOverMaxRecipes() {
+        RecipeIndex index = index(10, "");
+        index.addAll(recipes(0, 10, "양파"));
+        assertThat(index.size()).isEqualTo(10);
+
+        // 11번째가 들어오면 0~1번을 지워 9개만 남김
+        index.addAll(recipes(10, 1, "양파"));
+        assertThat(index.size()).isEqualTo(9);
+        assertThat(index.contains(url(0))).isFalse();
+        assertThat(index.contains(url(1))).isFalse();
+        assertThat(index.contains(url(2))).isTrue();
+        assertThat(index.contains(url(10))).isTrue();
+        assertThat(index.getStats()).containsEntry("evicted", 2L).containsEntry("maxRecipes", 10);
+
+        // 문서 번호를 다시 매긴 뒤에도 검색 결과와 수집 순서(동점 순위)가 맞아야 함
+        assertThat(urls(index.topK(List.of("양파"), new double[]{1}, 3, null)))
+                .containsExactly(url(2), url(3), url(4));
+        List<RecipeDTO> latest = recipes(10, 1, "양파");
+        assertThat(urls(index.topK(List.of("양파"), new double[]{1}, 5, latest))).containsExactly(url(10));
+    }
+
+    @Test
+    void evictionDropsIngredientsOnlyUsedByEvictedRecipes() {
+        RecipeIndex index = index(4, "");
+        index.addAll(recipes(0, 1, "두부"));
+        index.addAll(recipes(1, 4, "양파"));
+
+        assertThat(index.contains(url(0))).isFalse();
+        assertThat(index.topK(List.of("두부"), new double[]{1}, 5, null)).isEmpty();
+        assertThat(index.getStats()).containsEntry("ingredients", 1);
+    }
+
+    @Test
+    void savedFileKeepsOnlyTheRemainingRecipes() throws Exception {
+        Path file = tempDir.resolve("recipe-index.tsv");
+        RecipeIndex index = index(10, file.toString());
+        index.addAll(recipes(0, 12, "감자"));
+        index.save();
+
+        assertThat(Files.readAllLines(file)).hasSize(index.size());
+        RecipeIndex reloaded = index(10, file.toString());
+        assertThat(reloaded.size()).isEqualTo(index.size());
+        assertThat(reloaded.contains(url(11))).isTrue();
+        assertThat(reloaded.contains(url(0))).isFalse();
+    }
+
+    @Test
+    void topKMatchesLegacyFullSortOnFixedCorpus() {
+        RecipeIndex index = index(0, "");
+        List<RecipeDTO> corpus = corpus();
+        index.addAll(corpus);
+
+        for (List<String> query : QUERIES) {
+            List<String> expected = urls(legacyRank(corpus, query));
+            double[] weights = new double[query.size()];
+            Arrays.fill(weights, 1.0);
+            assertThat(urls(index.topK(query, weights, corpus.size(), null))).as("검색: %s", query)
+                    .containsExactlyElementsOf(expected);
+            // K개만 고를 때도 전체 정렬의 앞부분과 같아야 함 (힙에서 동점 순서 유지)
+            assertThat(urls(index.topK(query, weights, 2, null))).as("상위 2개: %s", query)
+                    .containsExactlyElementsOf(expected.subList(0, Math.min(2, expected.size())));
+        }
+    }
+
+    @Test
+    void tiesKeepCollectionOrderAndZeroScoresAreExcluded() {
+        RecipeIndex index = index(0, "");
+        index.addAll(corpus());
+
+        // "마늘"만 들어간 레시피 3개(2, 5, 10번)는 모두 101점 → 수집 순서대로, 나머지(점수 0)는 제외
+        assertThat(urls(index.topK(List.of("마늘"), new double[]{1}, 10, null)))
+                .containsExactly(url(2), url(5), url(10));
+        // 메인 재료는 없고 다른 재료만 맞는 레시피(감자, 1점)도 포함
+        assertThat(urls(index.topK(List.of("없는재료", "감자"), new double[]{1, 1}, 10, null)))
+                .containsExactly(url(7));
+        assertThat(index.topK(List.of("없는재료"), new double[]{1}, 10, null)).isEmpty();
+    }
+
+    @Test
+    void containingCacheSeesIngredientsAddedLater() {
+        RecipeIndex index = index(0, "");
+        index.addAll(corpus());
+        // 1. "돼지고기"를 포함하는 재료 번호를 캐시에 올림
+        assertThat(urls(index.topK(List.of("돼지고기"), new double[]{1}, 20, null)))
+                .containsExactly(url(0), url(6), url(1), url(10));
+
+        // 2. 캐시 이후에 처음 나온 재료("돼지고기등심")도 메인 재료 보너스를 받아야 함
+        index.addAll(List.of(recipe(20, List.of("돼지고기등심", "양파"))));
+        assertThat(urls(index.topK(List.of("돼지고기"), new double[]{1}, 20, null)))
+                .containsExactly(url(0), url(6), url(1), url(10), url(20));
+
+        // 3. 재료가 바뀐 레시피(같은 URL)는 예전 재료로 더 이상 검색되지 않음
+        index.addAll(List.of(recipe(1, List.of("닭고기", "양파"))));
+        assertThat(urls(index.topK(List.of("돼지고기"), new double[]{1}, 20, null)))
+                .containsExactly(url(0), url(6), url(10), url(20));
+        assertThat(urls(index.topK(List.of("닭고기"), new double[]{1}, 20, null))).containsExactly(url(1));
+    }
+
+    @Test
+    void scorerRankMatchesLegacyWithinCrawledAndWeightsExpiringItems() {
+        RecipeIndex index = index(0, "");
+        index.addAll(corpus());
+        InMemoryInventoryStore store = new InMemoryInventoryStore();
+        ItemService itemService = new ItemService(store, event -> { });
+        RecipeScorer scorer = new RecipeScorer(index, itemService);
+        ReflectionTestUtils.setField(scorer, "expiryWeight", 2.0);
+        ReflectionTestUtils.setField(scorer, "horizonDays", 7);
+
+        // 실시간 크롤링 결과: 색인에 있던 레시피 일부 + 새 레시피 + 실패/재료 없는 레시피
+        RecipeDTO failed = recipe(31, List.of("밀가루", "계란"));
+        failed.setError("제한 시간 초과");
+        List<RecipeDTO> crawled = List.of(recipe(30, List.of("밀가루", "계란")), recipe(33, List.of("밀가루", "우유")),
+                recipe(4, List.of("계란", "우유", "밀가루")), failed, recipe(32, List.of()), recipe(7, List.of("감자", "당근")));
+        List<String> query = List.of("밀가루", "계란", "우유");
+
+        // 사용자 정보가 없으면 기존 방식과 같은 순서 (크롤링 결과 안에서만, 점수 0 / 실패 제외)
+        assertThat(urls(scorer.rank(null, query, crawled))).containsExactlyElementsOf(urls(legacyRank(crawled, query)))
+                .containsExactly(url(4), url(30), url(33));
+
+        // 오늘 만료되는 우유가 있으면 우유 가중치 3 → 우유가 들어간 33번(104점)이 계란이 들어간 30번(102점)보다 앞
+        itemService.addItem("alice", new ClassifiedItemDTO("서울우유", 1, "유제품", LocalDate.now()));
+        assertThat(urls(scorer.rank("alice", query, crawled))).containsExactly(url(4), url(33), url(30));
+        // 색인 전체 검색: 우유(3) + 메인 재료 보너스 → 4번(104), 11번(103), 33번(103), 계란만 있는 30번(1)
+        assertThat(urls(scorer.recommend("alice", List.of("우유", "계란"), 4)))
+                .containsExactly(url(4), url(11), url(33), url(30));
+    }
+
+    /**
+     * 기존 ItemController.recommendRecipes의 점수 계산과 정렬 (비교 기준)
+     * 점수 = 레시피 재료에 그대로 있는 선택 재료 수 + 메인 재료를 포함하는 재료가 있으면 100, 0점 제외, 안정 정렬
+     */
+    private static List<RecipeDTO> legacyRank(List<RecipeDTO> recipes, List<String> selectedIngredients) {
+        List<String> selected = selectedIngredients.stream().map(s -> s.toLowerCase(Locale.ROOT)).toList();
+        String mainIngredient = selected.get(0);
+        return recipes.stream()
+                .filter(recipe -> recipe.getError() == null)
+                .filter(recipe -> recipe.getIngredients() != null && !recipe.getIngredients().isEmpty())
+                .map(recipe -> {
+                    List<String> ingredients = recipe.getIngredients().stream().map(s -> s.toLowerCase(Locale.ROOT)).toList();
+                    long matchCount = selected.stream().filter(ingredients::contains).count();
+                    long mainBonus = ingredients.stream().anyMatch(ingredient -> ingredient.contains(mainIngredient)) ? 100L : 0L;
+                    return new AbstractMap.SimpleEntry<>(recipe, matchCount + mainBonus);
+                })
+                .filter(entry -> entry.getValue() > 0)
+                .sorted(Comparator.comparing(AbstractMap.SimpleEntry<RecipeDTO, Long>::getValue).reversed())
+                .map(AbstractMap.SimpleEntry::getKey)
+                .toList();
+    }
+
+    private static List<RecipeDTO> corpus() {
+        List<RecipeDTO> corpus = new ArrayList<>();
+        for (int i = 0; i < CORPUS.size(); i++) {
+            corpus.add(recipe(i, CORPUS.get(i)));
+        }
+        return corpus;
+    }
+
+    private static RecipeIndex index(int maxRecipes, String path) {
+        RecipeIndex index = new RecipeIndex();
+        ReflectionTestUtils.setField(index, "indexPath", path);
+        ReflectionTestUtils.setField(index, "maxRecipes", maxRecipes);
+        index.load();
+        return index;
+    }
+
+    private static List<RecipeDTO> recipes(int from, int count, String ingredient) {
+        List<RecipeDTO> recipes = new ArrayList<>();
+        for (int i = from; i < from + count; i++) {
+            recipes.add(recipe(i, List.of(ingredient)));
+        }
+        return recipes;
+    }
+
+    private static RecipeDTO recipe(int id, List<String> ingredients) {
+        RecipeDTO recipe = new RecipeDTO();
+        recipe.setRecipeId((long) id);
+        recipe.setTitle("레시피 " + id);
+        recipe.setUrl(url(id));
+        recipe.setIngredients(ingredients);
+        return recipe;
+    }
+
+    private static String url(int id) {
+        return "https://example.com/recipe/" + id;
+    }
+
+    private static List<String> urls(List<RecipeDTO> recipes) {
+        return recipes.stream().map(RecipeDTO::getUrl).toList();
+    }
+}
@@ -0,0 +1,316 @@
+package com.proj.food.rottenpotato.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 만개의 레시피 대신 응답하는 로컬 HTTP 서버 (크롤러 테스트와 추천 부하 테스트용, 실제 사이트에 요청하지 않음)
+ * 앱 jar에는 들어가지 않으며, 테스트에서 직접 띄우거나 ./gradlew recipeFixtureServer로 따로 실행합니다.
+ * 앱의 recipe.crawler.base-url을 이 서버 주소(http://localhost:{port})로 바꿔서 사용합니다.
+ * - 목록: /recipe/list.html?q=...&page=N → {dir}/list/{q}-{N}.html, 없으면 {dir}/list.html, 그것도 없으면 자동 생성
+ * - 상세: /recipe/{id} → {dir}/recipe/{id}.html, 없으면 {dir}/recipe.html, 그것도 없으면 자동 생성
+ * - 자동 생성 페이지는 실제 사이트와 같은 CSS 구조를 가지며, 같은 요청에는 항상 같은 내용을 반환합니다.
+ * - latencyMs(+ 최대 latencyJitterMs)만큼 지연시키고, errorRate 비율의 요청은 500으로 응답합니다.
+ * - slowRecipes / failingRecipes에 넣은 레시피 ID의 상세 페이지는 slowRecipeDelayMs만큼 늦게 / 항상 500으로 응답합니다.
+ */
+public class RecipeFixtureServer implements AutoCloseable {
+
+    /**
+     * 단독 실행 (설정은 -D 시스템 속성, 모두 선택)
+     *   recipe.fixture-server.port (기본 18090), recipe.fixture-server.dir (기본 fixtures/recipes),
+     *   recipe.fixture-server.latency-ms, recipe.fixture-server.latency-jitter-ms, recipe.fixture-server.error-rate
+     */
+    public static void main(String[] args) throws IOException {
+        RecipeFixtureServer server = new RecipeFixtureServer(
+                Integer.getInteger("recipe.fixture-server.port", 18090),
+                Path.of(System.getProperty("recipe.fixture-server.dir", "fixtures/recipes")));
+        server.latencyMs = Long.getLong("recipe.fixture-server.latency-ms", 0);
+        server.latencyJitterMs = Long.getLong("recipe.fixture-server.latency-jitter-ms", 0);
+        server.errorRate = Double.parseDouble(System.getProperty("recipe.fixture-server.error-rate", "0"));
+        server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+        System.out.println("레시피 fixture 서버: http://localhost:" + server.port()
+                + " (지연 " + server.latencyMs + "ms, 오류율 " + server.errorRate + ")");
+    }
+
+    private final int requestedPort;
+    private final Path fixtureDir;
+
+    public volatile long latencyMs;
+    public volatile long latencyJitterMs;
+    // 0.0 ~ 1.0, 이 비율의 요청은 500 응답
+    public volatile double errorRate;
+    // 자동 생성 목록 페이지의 레시피 수
+    public volatile int recipesPerPage = 40;
+    // 재료 목록 뒤에 붙는 조리 단계 수 (실제 상세 페이지 크기 흉내)
+    public volatile int detailSteps = 300;
+
+    // 상세 페이지를 늦게 주는 / 항상 500으로 응답하는 레시피 ID
+    public final Set<Long> slowRecipes = ConcurrentHashMap.newKeySet();
+    public final Set<Long> failingRecipes = ConcurrentHashMap.newKeySet();
+    public volatile long slowRecipeDelayMs = 2000;
+
+    /**
+     * @param port 받을 포트 (0이면 빈 포트, 실제 포트는 {@link #port()})
+     * @param fixtureDir 기록해 둔 HTML 디렉터리 (없으면 모두 자동 생성)
+     */
+    public RecipeFixtureServer(int port, Path fixtureDir) {
+        this.requestedPort = port;
+        this.fixtureDir = fixtureDir;
+    }
+
+    private static final List<String> SEASONINGS =
+            List.of("양파", "대파", "마늘", "간장", "설탕", "소금", "후추", "참기름", "고춧가루", "식용유");
+
+    private final AtomicLong requests = new AtomicLong();
+    // 목록 페이지로 들어온 검색어 (도착 순서)
+    private final Queue<String> searchedKeywords = new ConcurrentLinkedQueue<>();
+    private final AtomicLong errors = new AtomicLong();
+    // 자동 생성한 레시피 ID → 재료 (목록 페이지를 만들 때 검색어 재료를 넣어 둠)
+    private final Map<Long, List<String>> generatedIngredients = new ConcurrentHashMap<>();
+    private List<String> vocabulary;
+    private HttpServer server;
+
+    public RecipeFixtureServer start() throws IOException {
+        Set<String> words = new LinkedHashSet<>(SEASONINGS);
+        for (ProductEntry product : FoodClassifierService.builtinProducts()) {
+            if (!product.nonFood()) words.add(product.keyword());
+        }
+        vocabulary = List.copyOf(words);
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", requestedPort), 256);
+        server.setExecutor(Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("recipe-fixture-", 0).factory()));
+        server.createContext("/recipe/", this::handle);
+        server.start();
+        return this;
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + port();
+    }
+
+    // 전체 요청 수 / 목록 페이지 검색어 / 500 응답 수
+    public long requests() {
+        return requests.get();
+    }
+
+    public List<String> searchedKeywords() {
+        return List.copyOf(searchedKeywords);
+    }
+
+    public long errors() {
+        return errors.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requests.incrementAndGet();
+            simulateLatency();
+
+            if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                errors.incrementAndGet();
+                exchange.sendResponseHeaders(500, -1);
+                return;
+            }
+
+            String path = exchange.getRequestURI().getPath();
+            String html;
+            if (path.equals("/recipe/list.html")) {
+                Map<String, String> params = queryParams(exchange.getRequestURI().getRawQuery());
+                String keyword = params.getOrDefault("q", "");
+                searchedKeywords.add(keyword);
+                int page = parsePage(params.get("page"));
+                html = readFixture("list/" + URLEncoder.encode(keyword, StandardCharsets.UTF_8) + "-" + page + ".html", "list.html");
+                if (html == null) html = generateList(keyword, page);
+            } else {
+                String id = path.substring("/recipe/".length());
+                // long 범위를 넘는 숫자도 없는 레시피로 처리
+                if (!id.matches("\\d{1,18}")) {
+                    exchange.sendResponseHeaders(404, -1);
+                    return;
+                }
+                long recipeId = Long.parseLong(id);
+                if (slowRecipes.contains(recipeId)) pause(slowRecipeDelayMs);
+                if (failingRecipes.contains(recipeId)) {
+                    errors.incrementAndGet();
+                    exchange.sendResponseHeaders(500, -1);
+                    return;
+                }
+                html = readFixture("recipe/" + id + ".html", "recipe.html");
+                if (html == null) html = generateDetail(recipeId);
+            }
+
+            byte[] body = html.getBytes(StandardCharsets.UTF_8);
+            String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+            if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+                ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4);
+                try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                    gzip.write(body);
+                }
+                body = compressed.toByteArray();
+                exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            }
+            exchange.getResponseHeaders().set("Content-Type", "text/html; charset=UTF-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            } catch (IOException ignored) {
+                // 크롤러가 필요한 영역만 읽고 연결을 끊은 경우
+            }
+        }
+    }
+
+    private String readFixture(String name, String fallback) throws IOException {
+        Path dir = fixtureDir;
+        for (String candidate : new String[]{name, fallback}) {
+            Path file = dir.resolve(candidate);
+            if (Files.isRegularFile(file)) return Files.readString(file, StandardCharsets.UTF_8);
+        }
+        return null;
+    }
+
+    // -------------------------------------------------------------------------
+    // 자동 생성 페이지 (실제 사이트와 같은 선택자 구조)
+    // -------------------------------------------------------------------------
+    private String generateList(String keyword, int page) {
+        List<String> queryIngredients = keyword.isBlank() ? List.of() : List.of(keyword.trim().split("\\s+"));
+        SplittableRandom random = new SplittableRandom((keyword + "#" + page).hashCode());
+
+        StringBuilder html = new StringBuilder(64 * 1024);
+        html.append("<html><head><title>").append(escape(keyword)).append(" 레시피</title>");
+        appendScripts(html, 40);
+        html.append("</head><body><ul class=\"common_sp_list_ul\">");
+        for (int i = 0; i < recipesPerPage; i++) {
+            long id = 1_000_000L + Math.floorMod(random.nextLong(), 9_000_000L);
+            // 검색어 재료 중 일부 + 무작위 재료
+            List<String> ingredients = new ArrayList<>();
+            for (String ingredient : queryIngredients) {
+                if (random.nextInt(4) != 0) ingredients.add(ingredient);
+            }
+            int extra = 3 + random.nextInt(8);
+            for (int j = 0; j < extra; j++) {
+                String ingredient = vocabulary.get(random.nextInt(vocabulary.size()));
+                if (!ingredients.contains(ingredient)) ingredients.add(ingredient);
+            }
+            generatedIngredients.putIfAbsent(id, List.copyOf(ingredients));
+
+            html.append("<li class=\"common_sp_list_li\"><div class=\"common_sp_thumb\"><a href=\"/recipe/").append(id)
+                    .append("\" class=\"common_sp_link\"><img src=\"/img/").append(id).append(".jpg\"></a></div>")
+                    .append("<div class=\"common_sp_caption\"><div class=\"common_sp_caption_tit line2\">")
+                    .append(escape(String.join(" ", ingredients.subList(0, Math.min(2, ingredients.size())))))
+                    .append(" 요리 ").append(id).append("</div></div></li>");
+        }
+        html.append("</ul>");
+        appendSteps(html, detailSteps / 2);
+        return html.append("</body></html>").toString();
+    }
+
+    private String generateDetail(long id) {
+        List<String> ingredients = generatedIngredients.get(id);
+        if (ingredients == null) {
+            SplittableRandom random = new SplittableRandom(id);
+            ingredients = new ArrayList<>();
+            int count = 4 + random.nextInt(8);
+            for (int j = 0; j < count; j++) {
+                String ingredient = vocabulary.get(random.nextInt(vocabulary.size()));
+                if (!ingredients.contains(ingredient)) ingredients.add(ingredient);
+            }
+        }
+
+        StringBuilder html = new StringBuilder(160 * 1024);
+        html.append("<html><head><title>레시피 ").append(id).append("</title>");
+        appendScripts(html, 80);
+        html.append("</head><body><div class=\"view2_summary\"><h3>요리 ").append(id).append("</h3></div>");
+        appendSteps(html, detailSteps / 5);
+        html.append("<div class=\"ready_ingre3\" id=\"divConfirmedMaterialArea\"><ul><b class=\"ready_ingre3_tt\">[재료]</b>");
+        for (String ingredient : ingredients) {
+            html.append("<li><a href=\"#\">").append(escape(ingredient)).append("(1개)</a><span class=\"ingre_unit\">1개</span></li>");
+        }
+        html.append("</ul></div>");
+        appendSteps(html, detailSteps);
+        return html.append("</body></html>").toString();
+    }
+
+    private static void appendScripts(StringBuilder html, int count) {
+        for (int i = 0; i < count; i++) {
+            html.append("<script>var config").append(i).append(" = {\"key\":\"").append(Integer.toHexString(i * 7919))
+                    .append("\",\"enabled\":true,\"items\":[1,2,3,4,5,6,7,8]};</script>");
+        }
+    }
+
+    private static void appendSteps(StringBuilder html, int count) {
+        for (int i = 1; i <= count; i++) {
+            html.append("<div class=\"view_step_cont\"><div class=\"media-body\">").append(i)
+                    .append("단계: 재료를 손질하고 중불에서 ").append(i % 10 + 1).append("분간 볶아 줍니다.</div>")
+                    .append("<img src=\"/step/").append(i).append(".jpg\"></div>");
+        }
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    private static Map<String, String> queryParams(String rawQuery) {
+        Map<String, String> params = new ConcurrentHashMap<>();
+        if (rawQuery == null) return params;
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq <= 0) continue;
+            params.put(pair.substring(0, eq), URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    private static int parsePage(String page) {
+        try {
+            return page == null ? 1 : Math.max(Integer.parseInt(page), 1);
+        } catch (NumberFormatException e) {
+            return 1;
+        }
+    }
+
+    private void simulateLatency() {
+        pause(latencyMs + (latencyJitterMs > 0 ? ThreadLocalRandom.current().nextLong(latencyJitterMs + 1) : 0));
+    }
+
+    private static void pause(long delay) {
+        if (delay <= 0) return;
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}